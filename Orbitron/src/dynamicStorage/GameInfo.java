@@ -1,87 +1,47 @@
 package dynamicStorage;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.concurrent.TimeUnit;
+import java.util.SplittableRandom;
 
+import engine.GameRecord;
+import engine.GameSnapshot;
+import engine.GameState;
+import engine.GridState;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
-import staticStorage.CellGraphics;
-import supportingClasses.GameCell;
-import supportingClasses.MapGenerator;
+import supportingClasses.MapCache;
 
 /**
  * This class holds all of the information needed to create or load a game and
  * is constantly updated throughout game play. This class is serialized into a
- * save file every time that the game is saved.
+ * save file every time that the game is saved; A generated map is saved as its
+ * key plus the cells that have changed since it was generated (the rest come
+ * back from the MapCache when the save is loaded), so saves of big maps stay
+ * small.
  * 
  * @author Stanton Parham (stparham@ncsu.edu)
  */
 public class GameInfo implements Serializable {
     
-    /** The number of columns in the grid; */
-    public static final int GRID_COLS = 15;
-    /** The height of the grid that holds the game map; */
-    public static final double GRID_HEIGHT = 1500.0;
-    /** The number of rows in the grid; */
-    public static final int GRID_ROWS = 10;
-    /** The width of the grid that holds the game map; */
-    public static final double GRID_WIDTH = 2250.0;
-    
-    /** The spread rate of the enemies for the EASY difficulty in nanoseconds; */
-    private static final long EASY_RATE = 30 * 1000000000L; // every 30 seconds
-    /** The spread rate of the enemies for the CHALLENGING difficulty in nanoseconds; */
-    private static final long CHALLENGING_RATE = 15 * 1000000000L; // every 15 seconds
-    /** The spread rate of the enemies for the HARD difficulty in nanoseconds; */
-    private static final long HARD_RATE = 8 * 1000000000L; // every 8 seconds
-    /** The spread rate of the enemies for the INSANE difficulty in nanoseconds; */
-    private static final long INSANE_RATE = 2 * 1000000000L; // every 2 seconds
-    
-    /**
-     * The initial maximum number of cores that the player begins the game with;
-     * If the player attempts to collect more cores than this value without
-     * increasing their maximum capacity, then the player's number of cores will
-     * be kept at this value.
-     */
-    private static final int INIT_CORE_MAX = 100;
-    /** The initial number of cores that the player begins the game with; */
-    private static final int INIT_CORES = 10;
-    
-    /**
-     * The initial maximum number of materials that the player begins the game
-     * with; If the player attempts to collect more materials than this value
-     * without increasing their maximum capacity, then the player's number of
-     * materials will be kept at this value.
-     */
-    private static final int INIT_MATERIAL_MAX = 100;
-    /** The initial number of materials that the player begins the game with; */
-    private static final int INIT_MATERIALS = 10;
-    
     /**
-     * The initial maximum number of soldiers that the player begins the game
-     * with; If the player attempts to collect more soldiers than this value
-     * without increasing their maximum capacity, then the player's number of
-     * soldiers will be kept at this value.
+     * The class's serial ID number; (I just made it the date that I moved the
+     * game state out of this class.)
      */
-    private static final int INIT_SOLDIER_MAX = 100;
-    /** The initial number of soldiers that the player begins the game with; */
-    private static final int INIT_SOLDIERS = 15;
+    private static final long serialVersionUID = 101726L;
     
     
     /**
-     * The class's serial ID number; (I just made it the date that I made this
-     * class serializable.)
+     * The map that the key generates, as it was generated, or null if the map
+     * wasn't generated from a key; Saves are written against it, so it is held
+     * on to rather than fetched from the MapCache for every save (it may be
+     * the MapCache's own map, so it is only ever read);
      */
-    private static final long serialVersionUID = 041616L;
+    private transient GridState baseMap;
     
-    
-    /**
-     * The maximum amount of energy cores that the player can have;
-     */
-    private int coreMax;
-    /**
-     * The number of energy cores that the player currently has;
-     */
-    private int cores;
     /**
      * A property that formats cores and coresMax in the form: 000/000
      * (cores/coresMax);
@@ -90,28 +50,15 @@ public class GameInfo implements Serializable {
             "");
     
     /**
-     * The difficulty level of this game;
-     */
-    private String difficulty;
-    
-    /**
-     * Represents what type of end game took place in this game; ' ' means that
-     * the game has not ended; 'W' means that the game was won; 'L' means that
-     * the game was lost; 'F' means that the player forfeited;
+     * The state of the game that the game rules run on; This is everything
+     * that gets saved other than the player's name and save slot;
      */
-    private char endGame;
+    private GameState gameState;
     /**
-     * An array of all the game cells in the map;
+     * The key that the game map was generated from, or null if the map wasn't
+     * generated from a key (in which case every cell is saved);
      */
-    private GameCell[][] gameMap;
-    /**
-     * The maximum amount of building materials that the player can have;
-     */
-    private int materialMax;
-    /**
-     * The number of building materials that the player currently has;
-     */
-    private int materials;
+    private MapKey mapKey;
     
     /**
      * A property that formats materials and materialsMax in the form: 000/000
@@ -128,19 +75,7 @@ public class GameInfo implements Serializable {
      * The save slot that the game will save to;
      */
     private int saveSlot;
-    /**
-     * The player's current score;
-     */
-    private int score;
     
-    /**
-     * The maximum amount of soldiers that the player can have;
-     */
-    private int soldierMax;
-    /**
-     * The number of soldiers that the player currently has;
-     */
-    private int soldiers;
     /**
      * A property that formats soldiers and soldiersMax in the form: 000/000
      * (soldiers/soldiersMax);
@@ -148,24 +83,10 @@ public class GameInfo implements Serializable {
     private transient StringProperty soldiersString = new SimpleStringProperty(this,
             "soldiersString", "");
     
-    /**
-     * The rate at which the enemies in the game will spread in nanoseconds; Changing this is
-     * like changing the difficulty;
-     */
-    private long spreadRate;
-    /**
-     * The amount of time that has elapsed during gameplay in nanoseconds;
-     */
-    private long timeElapsed;
-    /**
-     * The amount of time since the last enemy spread occurred in nanoseconds;
-     */
-    private long timeOfLastSpread;
-    
     
     /**
      * Creates a new GameInfo object in saveSlot 1 with the playerName "DEFAULT"
-     * and "EASY" difficulty; Generates a new random game map; Sets timeElapsed
+     * and "EASY" difficulty; Generates a new random standard size game map; Sets timeElapsed
      * to 0; Sets score to 0; Sets resource values and resource max values to
      * class constant values;
      */
@@ -175,7 +96,8 @@ public class GameInfo implements Serializable {
     
     /**
      * Creates a new GameInfo object with the passed in saveSlot number,
-     * playerName, and difficulty; Generates a new random game map; Sets
+     * playerName, and difficulty; Generates a new random standard size game
+     * map; Sets
      * timeElapsed to 0; Sets score to 0; Sets resource values and resource max
      * values to class constant values;
      * 
@@ -185,21 +107,68 @@ public class GameInfo implements Serializable {
      * @param difficulty a String representing the difficulty of the game
      */
     public GameInfo(int saveSlot, String playerName, String difficulty) {
+        this(saveSlot, playerName, difficulty, MapSize.STANDARD);
+    }
+    
+    /**
+     * Creates a new GameInfo object with the passed in saveSlot number,
+     * playerName, difficulty, and map size; Generates a new random game map of
+     * that size;
+     * 
+     * @param saveSlot the save slot in which this GameInfo object will be saved
+     *            (1, 2, or 3)
+     * @param playerName the name of the player for this game
+     * @param difficulty a String representing the difficulty of the game
+     * @param size the size of the game map
+     */
+    public GameInfo(int saveSlot, String playerName, String difficulty, MapSize size) {
+        this(saveSlot, playerName, difficulty, size, new SplittableRandom().nextLong());
+    }
+    
+    /**
+     * Creates a new GameInfo object with the passed in saveSlot number,
+     * playerName, difficulty, map size, and seed; The seed decides both the
+     * game map and every enemy spread, so the same size and seed always give
+     * the same game; Only the game state is generated here, so a map of any
+     * size can be created without displaying it;
+     * 
+     * @param saveSlot the save slot in which this GameInfo object will be saved
+     *            (1, 2, or 3)
+     * @param playerName the name of the player for this game
+     * @param difficulty a String representing the difficulty of the game
+     * @param size the size of the game map
+     * @param seed the seed that all of the game's randomness comes from
+     */
+    public GameInfo(int saveSlot, String playerName, String difficulty, MapSize size,
+            long seed) {
         this.setSaveSlot(saveSlot);
         this.setPlayerName(playerName);
-        this.setDifficulty(difficulty);
-        this.generateGameMap();
-        this.setTimeElapsed(0);
-        this.setTimeOfLastSpread(0);
-        // set difficulty sets the spreadRate
-        this.setScore(0);
-        this.setEndGame(' ');
-        this.setSoldierMax(INIT_SOLDIER_MAX);
-        this.setSoldiers(INIT_SOLDIERS);
-        this.setMaterialMax(INIT_MATERIAL_MAX);
-        this.setMaterials(INIT_MATERIALS);
-        this.setCoreMax(INIT_CORE_MAX);
-        this.setCores(INIT_CORES);
+        this.mapKey = new MapKey(size, seed);
+        this.baseMap = MapCache.getShared().getBase(mapKey);
+        // the game state sets the timers, score, resources, and resource maxes
+        this.gameState = new GameState(difficulty, new GridState(baseMap), seed);
+        // record the game so that it can be played over again exactly
+        this.gameState.setRecord(
+                new GameRecord(size.getRows(), size.getCols(), difficulty, seed));
+        this.updateStringProperties();
+    }
+    
+    /**
+     * Creates a new GameInfo object with the passed in one's save slot and
+     * player name that holds the passed in game state; Used to save a
+     * snapshot of a game (see StateBuffer) so that the game doesn't have to
+     * wait while the save file is written;
+     * 
+     * @param other the GameInfo object of the game that the snapshot is of
+     * @param state the snapshot of the game's state
+     */
+    public GameInfo(GameInfo other, GameState state) {
+        this.setSaveSlot(other.getSaveSlot());
+        this.setPlayerName(other.getPlayerName());
+        this.mapKey = other.mapKey;
+        this.baseMap = other.baseMap;
+        this.gameState = state;
+        this.updateStringProperties();
     }
     
     
@@ -211,19 +180,17 @@ public class GameInfo implements Serializable {
      * @return a String representation of the nanoseconds in the format mm:ss
      */
     public static String convertTimeToString(long time) {
-        long diff = TimeUnit.NANOSECONDS.toSeconds(time);
-        long minsL = diff / 60;
-        String mins = "0" + minsL;
-        String secs = "0" + (diff - (minsL * 60));
-        return mins.substring(mins.length() - 2) + ":" + secs.substring(secs.length() - 2);
+        return GameState.formatTime(time);
     }
     
     /**
-     * Generates the game map for this game;
+     * Generates a new game map for this game that is the same size as the
+     * current one;
      */
     public void generateGameMap() {
-        MapGenerator mapGen = new MapGenerator(GRID_ROWS, GRID_COLS, GRID_HEIGHT, GRID_WIDTH);
-        gameMap = mapGen.generateGameMap();
+        this.mapKey = new MapKey(getMapSize(), new SplittableRandom().nextLong());
+        this.baseMap = MapCache.getShared().getBase(mapKey);
+        gameState.setGrid(new GridState(baseMap));
     }
     
     /**
@@ -232,7 +199,7 @@ public class GameInfo implements Serializable {
      * @return the difficulty of the current game
      */
     public String getDifficulty() {
-        return difficulty;
+        return gameState.getDifficulty();
     }
     
     /**
@@ -241,16 +208,35 @@ public class GameInfo implements Serializable {
      * @return the type of end game that occurred
      */
     public char getEndGame() {
-        return endGame;
+        return gameState.getEndGame();
+    }
+    
+    /**
+     * Returns the key that the current game map was generated from;
+     * 
+     * @return the key of the current game map, or null if it wasn't generated
+     *         from a key
+     */
+    public MapKey getMapKey() {
+        return mapKey;
     }
     
     /**
-     * Returns the current game map;
+     * Returns the size of the current game map;
      * 
-     * @return the current game map
+     * @return the size of the current game map
      */
-    public GameCell[][] getGameMap() {
-        return gameMap;
+    public MapSize getMapSize() {
+        return new MapSize(gameState.getGrid().getRows(), gameState.getGrid().getCols());
+    }
+    
+    /**
+     * Returns the state of the game that the game rules run on;
+     * 
+     * @return the state of the game that the game rules run on
+     */
+    public GameState getGameState() {
+        return gameState;
     }
     
     /**
@@ -259,7 +245,7 @@ public class GameInfo implements Serializable {
      * @return the current max number of energy cores the player can have
      */
     public int getCoreMax() {
-        return coreMax;
+        return gameState.getCoreMax();
     }
     
     /**
@@ -268,7 +254,7 @@ public class GameInfo implements Serializable {
      * @return the current number of energy cores the player has
      */
     public int getCores() {
-        return cores;
+        return gameState.getCores();
     }
     
     /**
@@ -299,7 +285,7 @@ public class GameInfo implements Serializable {
      * @return the current max number of building materials the player can have
      */
     public int getMaterialMax() {
-        return materialMax;
+        return gameState.getMaterialMax();
     }
     
     /**
@@ -308,7 +294,7 @@ public class GameInfo implements Serializable {
      * @return the current number of building materials the player has
      */
     public int getMaterials() {
-        return materials;
+        return gameState.getMaterials();
     }
     
     /**
@@ -339,7 +325,7 @@ public class GameInfo implements Serializable {
      * @return the current max number of soldiers the player can have
      */
     public int getSoldierMax() {
-        return soldierMax;
+        return gameState.getSoldierMax();
     }
     
     /**
@@ -348,7 +334,7 @@ public class GameInfo implements Serializable {
      * @return the current number of soldiers the player has
      */
     public int getSoldiers() {
-        return soldiers;
+        return gameState.getSoldiers();
     }
     
     /**
@@ -379,16 +365,7 @@ public class GameInfo implements Serializable {
      * @return the number of cells that have been captured by the player
      */
     public int getNumCellsCapped() {
-        int count = 0;
-        // get the number of cells/objectives that have been captured
-        for (int i = 0; i < gameMap.length; i++) {
-            for (int j = 0; j < gameMap[i].length; j++) {
-                if (gameMap[i][j].isCaptured()) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return gameState.getNumCellsCapped();
     }
     
     /**
@@ -397,16 +374,7 @@ public class GameInfo implements Serializable {
      * @return the number of objectives that have been captured by the player
      */
     public int getNumObjsCapped() {
-        int count = 0;
-        // get the number of cells/objectives that have been captured
-        for (int i = 0; i < gameMap.length; i++) {
-            for (int j = 0; j < gameMap[i].length; j++) {
-                if (gameMap[i][j].isCaptured() && gameMap[i][j].getCellType().equals("Objective")) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return gameState.getNumObjsCapped();
     }
     
     /**
@@ -433,8 +401,16 @@ public class GameInfo implements Serializable {
      * @return the player's score
      */
     public int getScore() {
-        calculateScore();
-        return score;
+        return gameState.getScore();
+    }
+    
+    /**
+     * Returns the seed that all of this game's randomness comes from;
+     * 
+     * @return the seed that all of this game's randomness comes from
+     */
+    public long getSeed() {
+        return gameState.getSeed();
     }
     
     /**
@@ -443,7 +419,7 @@ public class GameInfo implements Serializable {
      * @return the spread rate of enemies in nanoseconds
      */
     public long getSpreadRate() {
-        return spreadRate;
+        return gameState.getSpreadRate();
     }
     
     /**
@@ -452,7 +428,7 @@ public class GameInfo implements Serializable {
      * @return the time elapsed in the game in nanoseconds
      */
     public long getTimeElapsed() {
-        return timeElapsed;
+        return gameState.getTimeElapsed();
     }
     
     /**
@@ -461,7 +437,7 @@ public class GameInfo implements Serializable {
      * @return the time elapsed in the game as a formatted String
      */
     public String getTimeElapsedString() {
-        return convertTimeToString(timeElapsed);
+        return convertTimeToString(gameState.getTimeElapsed());
     }
     
     /**
@@ -470,7 +446,7 @@ public class GameInfo implements Serializable {
      * @return the time the enemies last spread in nanoseconds
      */
     public long getTimeOfLastSpread() {
-        return timeOfLastSpread;
+        return gameState.getTimeOfLastSpread();
     }
     
     /**
@@ -479,19 +455,7 @@ public class GameInfo implements Serializable {
      * @return the time the enemies last spread as a formatted String
      */
     public String getTimeOfLastSpreadString() {
-        return convertTimeToString(timeOfLastSpread);
-    }
-    
-    /**
-     * Redraws the map's cells; THIS METHOD SHOULD ONLY BE USED WHEN LOADING A
-     * PREVIOUS GAME.
-     */
-    public void redrawGameMap() {
-        for (int i = 0; i < gameMap.length; i++) {
-            for (int j = 0; j < gameMap[i].length; j++) {
-                CellGraphics.drawGraphics(gameMap[i][j], false);
-            }
-        }
+        return convertTimeToString(gameState.getTimeOfLastSpread());
     }
     
     /**
@@ -503,11 +467,9 @@ public class GameInfo implements Serializable {
      */
     public void regenerateStringProperties() {
         this.soldiersString = new SimpleStringProperty(this, "soldiersString", "");
-        updateSoldiersStringProperty();
         this.materialsString = new SimpleStringProperty(this, "materialsString", "");
-        updateMaterialsStringProperty();
         this.coresString = new SimpleStringProperty(this, "coresString", "");
-        updateCoresStringProperty();
+        updateStringProperties();
     }
     
     /**
@@ -516,11 +478,7 @@ public class GameInfo implements Serializable {
      * @param value the max number of energy cores the player can have
      */
     public void setCoreMax(int value) {
-        if (value < INIT_CORE_MAX) {
-            throw new IllegalArgumentException("coreMax must be at least " + INIT_CORE_MAX);
-        }
-        
-        this.coreMax = value;
+        gameState.setCoreMax(value);
         updateCoresStringProperty();
     }
     
@@ -531,19 +489,9 @@ public class GameInfo implements Serializable {
      * @return whether or not the cores were successfully set
      */
     public boolean setCores(int value) {
-        if (value < 0) {
-            return false; // cores must be non-negative
-        }
-        
-        if (value > coreMax) {
-            this.cores = coreMax;
-            updateCoresStringProperty();
-            return false; // cores cannot be greater than core max
-        } else {
-            this.cores = value;
-            updateCoresStringProperty();
-            return true;
-        }
+        boolean result = gameState.setCores(value);
+        updateCoresStringProperty();
+        return result;
     }
     
     /**
@@ -563,19 +511,7 @@ public class GameInfo implements Serializable {
      * @param value the difficulty of the current game
      */
     public void setDifficulty(String value) {
-        if (value.equals("EASY")) {
-            this.setSpreadRate(EASY_RATE);
-        } else if (value.equals("CHALLENGING")) {
-            this.setSpreadRate(CHALLENGING_RATE);
-        } else if (value.equals("HARD")) {
-            this.setSpreadRate(HARD_RATE);
-        } else if (value.equals("INSANE")) {
-            this.setSpreadRate(INSANE_RATE);
-        } else {
-            throw new IllegalArgumentException(
-                    "difficulty must be EASY, CHALLENGING, HARD, or INSANE");
-        }
-        this.difficulty = value;
+        gameState.setDifficulty(value);
     }
     
     /**
@@ -584,20 +520,19 @@ public class GameInfo implements Serializable {
      * @param value the type of end game that occurred
      */
     public void setEndGame(char value) {
-        if (value != 'W' && value != 'L' && value != 'F' && value != ' ') {
-            throw new IllegalArgumentException("endGame must be 'W', 'L', 'F', or ' '");
-        }
-        
-        this.endGame = value;
+        gameState.setEndGame(value);
     }
     
     /**
-     * Sets the map for the current game;
+     * Sets the map for the current game; The grid becomes the game state's
+     * grid (and is saved in full because it didn't come from a map key);
      * 
-     * @param value the map for the current game
+     * @param value the grid of the map for the current game
      */
-    public void setGameMap(GameCell[][] value) {
-        this.gameMap = value;
+    public void setGameMap(GridState value) {
+        this.mapKey = null;
+        this.baseMap = null;
+        gameState.setGrid(value);
     }
     
     /**
@@ -606,11 +541,7 @@ public class GameInfo implements Serializable {
      * @param value the max number of building materials the player can have
      */
     public void setMaterialMax(int value) {
-        if (value < INIT_MATERIAL_MAX) {
-            throw new IllegalArgumentException("materialMax must be at least " + INIT_MATERIAL_MAX);
-        }
-        
-        this.materialMax = value;
+        gameState.setMaterialMax(value);
         updateMaterialsStringProperty();
     }
     
@@ -621,19 +552,9 @@ public class GameInfo implements Serializable {
      * @return whether or not the materials were successfully set
      */
     public boolean setMaterials(int value) {
-        if (value < 0) {
-            return false; // materials must be non-negative
-        }
-        
-        if (value > materialMax) {
-            this.materials = materialMax;
-            updateMaterialsStringProperty();
-            return false; // materials cannot be greater than material max
-        } else {
-            this.materials = value;
-            updateMaterialsStringProperty();
-            return true;
-        }
+        boolean result = gameState.setMaterials(value);
+        updateMaterialsStringProperty();
+        return result;
     }
     
     /**
@@ -671,11 +592,7 @@ public class GameInfo implements Serializable {
      * @param value the max number of soldiers the player can have
      */
     public void setSoldierMax(int value) {
-        if (value < INIT_SOLDIER_MAX) {
-            throw new IllegalArgumentException("soldierMax must be at least " + INIT_SOLDIER_MAX);
-        }
-        
-        this.soldierMax = value;
+        gameState.setSoldierMax(value);
         updateSoldiersStringProperty();
     }
     
@@ -686,19 +603,9 @@ public class GameInfo implements Serializable {
      * @return whether or not the soldiers were successfully set
      */
     public boolean setSoldiers(int value) {
-        if (value < 0) {
-            return false; // soldiers must be non-negative
-        }
-        
-        if (value > soldierMax) {
-            this.soldiers = soldierMax;
-            updateSoldiersStringProperty();
-            return false; // soldiers cannot be greater than soldier max
-        } else {
-            this.soldiers = value;
-            updateSoldiersStringProperty();
-            return true;
-        }
+        boolean result = gameState.setSoldiers(value);
+        updateSoldiersStringProperty();
+        return result;
     }
     
     /**
@@ -718,7 +625,7 @@ public class GameInfo implements Serializable {
      * @param value the spread rate of enemies in nanoseconds
      */
     public void setSpreadRate(long value) {
-        this.spreadRate = value;
+        gameState.setSpreadRate(value);
     }
     
     /**
@@ -727,10 +634,7 @@ public class GameInfo implements Serializable {
      * @param value the time elapsed in nanoseconds
      */
     public void setTimeElapsed(long value) {
-        if (value < 0) {
-            throw new IllegalArgumentException("time must be non-negative");
-        }
-        this.timeElapsed = value;
+        gameState.setTimeElapsed(value);
     }
     
     /**
@@ -739,60 +643,91 @@ public class GameInfo implements Serializable {
      * @param value the time since enemies last spread in nanoseconds
      */
     public void setTimeOfLastSpread(long value) {
-        this.timeOfLastSpread = value;
+        gameState.setTimeOfLastSpread(value);
     }
     
     
     /**
-     * Calculates the score based on many of the factors present in the game;
+     * Updates all of the string properties used by the game UI; This needs to
+     * be called after the game rules change the player's resources directly
+     * through the game state;
      */
-    private void calculateScore() {
-        int numObjsCapped = getNumObjsCapped();
-        int numCellsCapped = getNumCellsCapped();
-        
-        // add up soldiers, materials, cores, capped objectives, capped cells
-        // in their respective proportions
-        double result = soldiers / 5 + materials / 10 + cores / 10 + numObjsCapped * 100
-                + numCellsCapped;
-        
-        // add in any end of game bonuses/penalties
-        if (endGame == 'W') {
-            result += 150;
-        } else if (endGame == 'L') {
-            result -= 10;
-        } else if (endGame == 'F') {
-            result -= 50;
-        }
-        
-        // subtract one point for every 10 seconds of play time
-        result -= timeElapsed / 10000000000L;
-        
-        if (result > 0) {// only multiply the result by the difficulty if it's
-                         // positive
-            // multiply the score by 1 over the spreadRate in decaseconds (10 seconds)
-            result *= 1 / ((double) spreadRate / 10000000000L);
-        }
-        // set the score
-        score = (int) result;
+    public void updateStringProperties() {
+        updateSoldiersStringProperty();
+        updateMaterialsStringProperty();
+        updateCoresStringProperty();
+    }
+    
+    /**
+     * Updates all of the string properties used by the game UI from the passed
+     * in snapshot; This is how the UI thread catches up with changes made by
+     * the GameClock's thread without reading the game state while it changes;
+     * 
+     * @param snapshot a copy of the player's totals published by the GameClock
+     */
+    public void updateStringProperties(GameSnapshot snapshot) {
+        soldiersString.set(snapshot.getSoldiers() + "/" + snapshot.getSoldierMax());
+        materialsString.set(snapshot.getMaterials() + "/" + snapshot.getMaterialMax());
+        coresString.set(snapshot.getCores() + "/" + snapshot.getCoreMax());
     }
     
     
-    private void setScore(int value) {
-        this.score = value;
+    /**
+     * Reads a saved GameInfo object: the cells that were saved are put back
+     * onto the map that its key generates;
+     * 
+     * @param in the stream to read from
+     * 
+     * @throws IOException if the save can't be read (or its map can't be
+     *             generated any more)
+     * @throws ClassNotFoundException if a saved class can't be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        GridState base = null;
+        if (mapKey != null) {
+            try {
+                baseMap = MapCache.getShared().getBase(mapKey);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidObjectException(e.getMessage());
+            }
+            // the saved cells are read into a copy so that the base stays as generated
+            base = new GridState(baseMap);
+        }
+        gameState.setGrid(GridState.readChanges(in, base));
     }
     
+    
     private void updateCoresStringProperty() {
-        coresString.set(cores + "/" + coreMax);
+        coresString.set(gameState.getCores() + "/" + gameState.getCoreMax());
     }
     
     
     private void updateMaterialsStringProperty() {
-        materialsString.set(materials + "/" + materialMax);
+        materialsString.set(gameState.getMaterials() + "/" + gameState.getMaterialMax());
     }
     
     
     private void updateSoldiersStringProperty() {
-        soldiersString.set(soldiers + "/" + soldierMax);
+        soldiersString.set(gameState.getSoldiers() + "/" + gameState.getSoldierMax());
+    }
+    
+    
+    /**
+     * Writes this GameInfo object into a save: everything other than the map
+     * is written as usual, and then only the cells that differ from the map
+     * that its key generates (or every cell if it has no key);
+     * 
+     * @param out the stream to write to
+     * 
+     * @throws IOException if the save can't be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        if (mapKey != null && baseMap == null) {
+            baseMap = MapCache.getShared().getBase(mapKey);
+        }
+        gameState.getGrid().writeChanges(out, baseMap);
     }
     
     
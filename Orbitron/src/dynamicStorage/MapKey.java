@@ -0,0 +1,116 @@
+package dynamicStorage;
+
+import java.io.Serializable;
+
+import supportingClasses.MapGenerator;
+
+/**
+ * Everything that a generated game map depends on: its size, its seed, and
+ * the ruleset (the version of the map generation rules) that it was generated
+ * with; The same key always generates the same map, so a key is all that needs
+ * to be kept to get a generated map back (see MapCache), and a saved game only
+ * needs its map's key plus the cells that have changed since.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class MapKey implements Serializable {
+    
+    /**
+     * The class's serial ID number;
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    
+    /** The version of the map generation rules that the map was generated with; */
+    private final int ruleset;
+    /** The seed that the map is generated from; */
+    private final long seed;
+    /** The size of the map; */
+    private final MapSize size;
+    
+    
+    /**
+     * Creates a new MapKey for the map of the passed in size and seed that the
+     * current map generation rules generate;
+     * 
+     * @param size the size of the map
+     * @param seed the seed that the map is generated from
+     */
+    public MapKey(MapSize size, long seed) {
+        this(size, seed, MapGenerator.RULESET);
+    }
+    
+    /**
+     * Creates a new MapKey for the map of the passed in size and seed that the
+     * passed in version of the map generation rules generates;
+     * 
+     * @param size the size of the map
+     * @param seed the seed that the map is generated from
+     * @param ruleset the version of the map generation rules
+     */
+    public MapKey(MapSize size, long seed, int ruleset) {
+        if (size == null) {
+            throw new IllegalArgumentException("size must not be null");
+        }
+        
+        this.size = size;
+        this.seed = seed;
+        this.ruleset = ruleset;
+    }
+    
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MapKey)) {
+            return false;
+        }
+        MapKey other = (MapKey) obj;
+        return size.equals(other.size) && seed == other.seed && ruleset == other.ruleset;
+    }
+    
+    /**
+     * Returns the version of the map generation rules that the map was
+     * generated with;
+     * 
+     * @return the version of the map generation rules
+     */
+    public int getRuleset() {
+        return ruleset;
+    }
+    
+    /**
+     * Returns the seed that the map is generated from;
+     * 
+     * @return the seed that the map is generated from
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Returns the size of the map;
+     * 
+     * @return the size of the map
+     */
+    public MapSize getSize() {
+        return size;
+    }
+    
+    @Override
+    public int hashCode() {
+        return (size.hashCode() * 31 + Long.hashCode(seed)) * 31 + ruleset;
+    }
+    
+    /**
+     * Returns this key in the form ROWSxCOLS-SEED-rRULESET with the seed in
+     * hexadecimal (for example "10x15-1f2e3d4c5b6a7988-r1"), which is also the
+     * name that a MapCache saves the map under;
+     * 
+     * @return this key in the form ROWSxCOLS-SEED-rRULESET
+     */
+    @Override
+    public String toString() {
+        return size + "-" + Long.toHexString(seed) + "-r" + ruleset;
+    }
+    
+}
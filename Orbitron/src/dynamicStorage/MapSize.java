@@ -0,0 +1,153 @@
+package dynamicStorage;
+
+import java.io.Serializable;
+
+/**
+ * The dimensions of a game map; This is the one place that the size of a map
+ * is decided, and everything else (map generation, the game state, the grid
+ * that displays the map, and the camera) works from the rows and columns of
+ * the map that it is given. Every cell is displayed as a square of CELL_SIZE
+ * pixels, so the size of the displayed map follows from the number of cells.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class MapSize implements Serializable {
+    
+    /** The width and height (in pixels) that every cell is displayed at; */
+    public static final double CELL_SIZE = 150.0;
+    /** The most rows or columns that a map can have; */
+    public static final int MAX_SIDE = 4096;
+    /** The fewest columns that a map can have; */
+    public static final int MIN_COLS = 15;
+    /** The fewest rows that a map can have; */
+    public static final int MIN_ROWS = 10;
+    
+    /** The map size that the game was originally made for (10 x 15); */
+    public static final MapSize STANDARD = new MapSize(10, 15);
+    /** A map with four times as many cells as the standard map (20 x 30); */
+    public static final MapSize LARGE = new MapSize(20, 30);
+    /** A map with sixteen times as many cells as the standard map (40 x 60); */
+    public static final MapSize HUGE = new MapSize(40, 60);
+    
+    /**
+     * The class's serial ID number;
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    
+    /** The number of columns in the map; */
+    private final int cols;
+    /** The number of rows in the map; */
+    private final int rows;
+    
+    
+    /**
+     * Creates a new MapSize with the passed in number of rows and columns;
+     * 
+     * @param rows the number of rows in the map (MIN_ROWS to MAX_SIDE)
+     * @param cols the number of columns in the map (MIN_COLS to MAX_SIDE)
+     */
+    public MapSize(int rows, int cols) {
+        if (rows < MIN_ROWS || cols < MIN_COLS || rows > MAX_SIDE || cols > MAX_SIDE) {
+            throw new IllegalArgumentException("a map must be from " + MIN_ROWS + "x" + MIN_COLS
+                    + " to " + MAX_SIDE + "x" + MAX_SIDE + " but was " + rows + "x" + cols);
+        }
+        
+        this.rows = rows;
+        this.cols = cols;
+    }
+    
+    
+    /**
+     * Returns the MapSize described by the passed in String in the form
+     * ROWSxCOLS (for example "10x15");
+     * 
+     * @param value the String to read the map size from
+     * 
+     * @return the map size described by the String
+     */
+    public static MapSize parse(String value) {
+        String[] parts = value.trim().toLowerCase().split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("map size must be in the form ROWSxCOLS: " + value);
+        }
+        try {
+            return new MapSize(Integer.parseInt(parts[0].trim()),
+                    Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("map size must be in the form ROWSxCOLS: " + value);
+        }
+    }
+    
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MapSize)) {
+            return false;
+        }
+        MapSize other = (MapSize) obj;
+        return rows == other.rows && cols == other.cols;
+    }
+    
+    /**
+     * Returns the number of columns in the map;
+     * 
+     * @return the number of columns in the map
+     */
+    public int getCols() {
+        return cols;
+    }
+    
+    /**
+     * Returns the height (in pixels) of the displayed map;
+     * 
+     * @return the height of the displayed map
+     */
+    public double getHeight() {
+        return rows * CELL_SIZE;
+    }
+    
+    /**
+     * Returns the number of rows in the map;
+     * 
+     * @return the number of rows in the map
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Returns the number of cells in the map;
+     * 
+     * @return the number of cells in the map
+     */
+    public int getSize() {
+        return rows * cols;
+    }
+    
+    /**
+     * Returns the width (in pixels) of the displayed map;
+     * 
+     * @return the width of the displayed map
+     */
+    public double getWidth() {
+        return cols * CELL_SIZE;
+    }
+    
+    @Override
+    public int hashCode() {
+        return rows * 31 + cols;
+    }
+    
+    /**
+     * Returns this map size in the form ROWSxCOLS (the form that parse()
+     * reads);
+     * 
+     * @return this map size in the form ROWSxCOLS
+     */
+    @Override
+    public String toString() {
+        return rows + "x" + cols;
+    }
+    
+}
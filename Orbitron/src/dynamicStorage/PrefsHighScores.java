@@ -59,6 +59,10 @@ public class PrefsHighScores implements Serializable {
      * Whether or not sound effects should play;
      */
     private boolean sFXOn;
+    /**
+     * Whether or not a loaded game catches up on the time since it was saved;
+     */
+    private boolean catchUpOn;
     
     
     /**
@@ -176,6 +180,16 @@ public class PrefsHighScores implements Serializable {
         return hS3Score;
     }
     
+    /**
+     * Returns whether or not a loaded game catches up on the time since it was
+     * saved;
+     * 
+     * @return whether or not a loaded game catches up on the time away
+     */
+    public boolean isCatchUpOn() {
+        return catchUpOn;
+    }
+    
     /**
      * Returns whether or not music is on;
      * 
@@ -194,6 +208,17 @@ public class PrefsHighScores implements Serializable {
         return sFXOn;
     }
     
+    /**
+     * Sets whether or not a loaded game catches up on the time since it was
+     * saved;
+     * 
+     * @param value whether or not a loaded game catches up on the time away
+     */
+    public void setCatchUpOn(boolean value) {
+        this.catchUpOn = value;
+        saveThis();
+    }
+    
     /**
      * Sets whether or not music is on;
      * 
@@ -0,0 +1,236 @@
+package engine;
+
+import java.util.function.Predicate;
+
+import staticStorage.CTInfo;
+
+/**
+ * The structures that can be built on a captured cell, each one described as
+ * data rather than code: its name, what it costs, what it produces, how much
+ * it raises the player's resource maximums, and which cell types it can be
+ * built on; Every amount is a vector indexed by SOLDIERS, MATERIALS, and
+ * CORES, so the engine checks and pays for any building (or any number of
+ * buildings at once) the same way. A building's id in a GridState is its
+ * ordinal plus one and its compatibility bit is 1 << ordinal, so new
+ * buildings must only ever be added to the end.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public enum Building {
+    
+    /** Raises the most soldiers that the player can have; */
+    HOUSING("Housing", resources(0, 20, 0), resources(0, 0, 0), resources(50, 0, 0),
+            CTInfo::isHousingCompatible),
+    /**
+     * Converts materials and cores into soldiers (it costs 5 materials to
+     * build plus the 25 of each that it converts);
+     */
+    ROBOTICS_FACTORY("Robotics Factory", resources(0, 5 + 25, 25), resources(50, 0, 0),
+            resources(0, 0, 0), CTInfo::isRFactoryCompatible),
+    /** Raises the most materials that the player can have; */
+    STORAGE("Storage", resources(0, 20, 0), resources(0, 0, 0), resources(0, 50, 0),
+            CTInfo::isStorageCompatible),
+    /**
+     * Converts soldiers and cores into materials (it costs 5 materials to
+     * build plus the 25 of each that it converts);
+     */
+    STEEL_MILL("Steel Mill", resources(25, 5, 25), resources(0, 50, 0), resources(0, 0, 0),
+            CTInfo::isSMillCompatible),
+    /** Raises the most cores that the player can have; */
+    ENERGY_GRID("Energy Grid", resources(0, 20, 0), resources(0, 0, 0), resources(0, 0, 50),
+            CTInfo::isEGridCompatible),
+    /**
+     * Converts materials and soldiers into cores (it costs 5 materials to
+     * build plus the 25 of each that it converts);
+     */
+    SOLAR_FARM("Solar Farm", resources(25, 5 + 25, 0), resources(0, 0, 50), resources(0, 0, 0),
+            CTInfo::isSFarmCompatible);
+    
+    
+    /** The index of soldiers in a resource vector; */
+    public static final int SOLDIERS = 0;
+    /** The index of building materials in a resource vector; */
+    public static final int MATERIALS = 1;
+    /** The index of energy cores in a resource vector; */
+    public static final int CORES = 2;
+    
+    /** Every building, in order of id (values() makes a new array every call); */
+    private static final Building[] ALL = values();
+    
+    
+    /** Whether or not the building can be built on each cell type (by name); */
+    private final Predicate<String> compatible;
+    /**
+     * What building it costs, including the resources that it converts (see
+     * the resource indices);
+     */
+    private final int[] cost;
+    /** The resources that building it produces (see the resource indices); */
+    private final int[] gain;
+    /** How much building it raises each resource maximum (see the resource indices); */
+    private final int[] maxIncrease;
+    /** The name that the building is shown and saved with; */
+    private final String name;
+    
+    
+    /**
+     * Creates a new Building;
+     * 
+     * @param name the name that the building is shown and saved with
+     * @param cost what building it costs
+     * @param gain the resources that building it produces
+     * @param maxIncrease how much building it raises each resource maximum
+     * @param compatible whether or not the building can be built on a cell
+     *            type (given the type's name)
+     */
+    private Building(String name, int[] cost, int[] gain, int[] maxIncrease,
+            Predicate<String> compatible) {
+        this.name = name;
+        this.cost = cost;
+        this.gain = gain;
+        this.maxIncrease = maxIncrease;
+        this.compatible = compatible;
+    }
+    
+    
+    /**
+     * Returns the building with the passed in name;
+     * 
+     * @param name the name of the building (for example "Robotics Factory")
+     * 
+     * @return the building with the passed in name
+     * 
+     * @throws IllegalArgumentException if no building has that name
+     */
+    public static Building forName(String name) {
+        Building building = forNameOrNull(name);
+        if (building == null) {
+            throw new IllegalArgumentException("no building is named " + name);
+        }
+        return building;
+    }
+    
+    /**
+     * Returns the building with the passed in name, or null if there isn't
+     * one;
+     * 
+     * @param name the name of the building
+     * 
+     * @return the building with the passed in name, or null
+     */
+    public static Building forNameOrNull(String name) {
+        for (Building building : ALL) {
+            if (building.name.equals(name)) {
+                return building;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the building with the passed in id (its ordinal plus one), or
+     * null for an id of 0;
+     * 
+     * @param id the id of the building
+     * 
+     * @return the building with the passed in id, or null
+     */
+    public static Building fromId(int id) {
+        return id == 0 ? null : ALL[id - 1];
+    }
+    
+    /**
+     * Returns the bit that stands for this building in a set of compatible
+     * buildings;
+     * 
+     * @return the bit that stands for this building
+     */
+    public int getBit() {
+        return 1 << ordinal();
+    }
+    
+    /**
+     * Returns how much of the passed in resource building this costs
+     * (including any that it converts);
+     * 
+     * @param resource SOLDIERS, MATERIALS, or CORES
+     * 
+     * @return how much of the resource building this costs
+     */
+    public int getCost(int resource) {
+        return cost[resource];
+    }
+    
+    /**
+     * Returns how much of the passed in resource building this produces;
+     * 
+     * @param resource SOLDIERS, MATERIALS, or CORES
+     * 
+     * @return how much of the resource building this produces
+     */
+    public int getGain(int resource) {
+        return gain[resource];
+    }
+    
+    /**
+     * Returns the id that this building is kept in a GridState with;
+     * 
+     * @return the id of this building (never 0)
+     */
+    public int getId() {
+        return ordinal() + 1;
+    }
+    
+    /**
+     * Returns how much building this raises the maximum of the passed in
+     * resource;
+     * 
+     * @param resource SOLDIERS, MATERIALS, or CORES
+     * 
+     * @return how much building this raises the resource's maximum
+     */
+    public int getMaxIncrease(int resource) {
+        return maxIncrease[resource];
+    }
+    
+    /**
+     * Returns the name that this building is shown and saved with;
+     * 
+     * @return the name of this building
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Returns whether or not this building can be built on the passed in cell
+     * type;
+     * 
+     * @param cellType the name of the cell type
+     * 
+     * @return whether or not this building can be built on the cell type
+     */
+    public boolean isCompatibleWith(String cellType) {
+        return compatible.test(cellType);
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    
+    /**
+     * Returns a resource vector holding the passed in amounts;
+     * 
+     * @param soldiers the number of soldiers
+     * @param materials the number of building materials
+     * @param cores the number of energy cores
+     * 
+     * @return the resource vector
+     */
+    private static int[] resources(int soldiers, int materials, int cores) {
+        return new int[] { soldiers, materials, cores };
+    }
+    
+}
@@ -0,0 +1,89 @@
+package engine;
+
+/**
+ * The cells of a map that changed since the last diff was taken, along with
+ * what changed about each of them; Diffs are taken from a GridState by the
+ * thread that changes the game and can't be changed afterwards, so they are
+ * safe to hand to the UI thread, which only needs to redraw the cells listed.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class CellDiff {
+    
+    /** The cell's flags (captured, scouted, hostile, etc.) changed; */
+    public static final int FLAGS = 1;
+    /** The number of enemies in the cell changed; */
+    public static final int ENEMIES = 1 << 1;
+    /** The number of soldiers stationed in the cell changed; */
+    public static final int STATIONED = 1 << 2;
+    /** The cell's type or the structure built on it changed; */
+    public static final int TYPE = 1 << 3;
+    /** The resources that the cell holds changed; */
+    public static final int RESOURCES = 1 << 4;
+    
+    /** A diff with no changed cells; */
+    public static final CellDiff EMPTY = new CellDiff(new int[0], new byte[0]);
+    
+    
+    /** The grid indices of the changed cells; */
+    private final int[] cells;
+    /** What changed about each of the changed cells (in the same order); */
+    private final byte[] changes;
+    
+    
+    /**
+     * Creates a new CellDiff from the passed in arrays, which must not be
+     * changed afterwards;
+     * 
+     * @param cells the grid indices of the changed cells
+     * @param changes what changed about each of the changed cells
+     */
+    CellDiff(int[] cells, byte[] changes) {
+        this.cells = cells;
+        this.changes = changes;
+    }
+    
+    
+    /**
+     * Returns the grid index of the changed cell at the passed in position in
+     * the diff;
+     * 
+     * @param i the position in the diff (0 to size() - 1)
+     * 
+     * @return the grid index of the changed cell
+     */
+    public int getCell(int i) {
+        return cells[i];
+    }
+    
+    /**
+     * Returns what changed about the cell at the passed in position in the
+     * diff as a combination of FLAGS, ENEMIES, STATIONED, TYPE, and RESOURCES;
+     * 
+     * @param i the position in the diff (0 to size() - 1)
+     * 
+     * @return what changed about the cell
+     */
+    public int getChanges(int i) {
+        return changes[i];
+    }
+    
+    /**
+     * Returns whether or not no cells changed;
+     * 
+     * @return whether or not no cells changed
+     */
+    public boolean isEmpty() {
+        return cells.length == 0;
+    }
+    
+    /**
+     * Returns the number of changed cells;
+     * 
+     * @return the number of changed cells
+     */
+    public int size() {
+        return cells.length;
+    }
+    
+}
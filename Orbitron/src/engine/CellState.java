@@ -0,0 +1,472 @@
+package engine;
+
+/**
+ * This class is a view of one cell of a GridState; It does not hold any of the
+ * cell's in-game information itself, and it does not know anything about how
+ * the cell is drawn. GameCell is the view that draws one of these.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class CellState {
+    
+    /**
+     * The maximum number of enemies allowed to occupy any one cell;
+     */
+    public static final int MAX_ENEMIES = GridState.MAX_ENEMIES;
+    
+    
+    /** The grid that holds this cell's in-game information; */
+    private final GridState grid;
+    /** The index of this cell in its grid; */
+    private final int index;
+    /**
+     * The cell's row number in the map grid;
+     */
+    private final int row;
+    /**
+     * The cell's column number in the map grid;
+     */
+    private final int col;
+    
+    
+    /**
+     * Creates a new CellState object that is not part of a game map using the
+     * given cell type, row, and column; The cell gets a grid of its own;
+     * 
+     * @param cellType the type of game cell
+     * @param row the cell's row in a grid layout
+     * @param col the cell's column in a grid layout
+     * @param captured whether or not the cell is initially captured
+     * @param scouted whether or not the cell is initially scouted
+     * @param neutral whether or not the cell is initially neutral
+     * @param hostile whether or not the cell is initially hostile
+     * @param destroyed whether or not the cell is initially destroyed
+     * @param soldiers the number of soldiers that the cell initially contains
+     * @param materials the number of building materials that the cell initially
+     *            contains
+     * @param cores the number of energy cores that the cell initially contains
+     * @param enemies the number of enemies that the cell initially contains
+     * @param capturable whether or not this cell is capturable
+     * @param scoutable whether or not this cell is scoutable
+     * @param destroyable whether or not this cell is destroyable
+     */
+    public CellState(String cellType, int row, int col, boolean captured, boolean scouted,
+            boolean neutral, boolean hostile, boolean destroyed, int soldiers, int materials,
+            int cores, int enemies, boolean capturable, boolean scoutable, boolean destroyable) {
+        this.grid = new GridState(1, 1);
+        this.index = 0;
+        this.row = row;
+        this.col = col;
+        this.setCellType(cellType);
+        this.setCaptured(captured);
+        this.setScouted(scouted);
+        this.setNeutral(neutral);
+        this.setHostile(hostile);
+        this.setDestroyed(destroyed);
+        this.setCapturable(capturable);
+        this.setScoutable(scoutable);
+        this.setDestroyable(destroyable);
+        this.setSoldiers(soldiers);
+        this.setMaterials(materials);
+        this.setCores(cores);
+        this.setEnemies(enemies);
+    }
+    
+    /**
+     * Creates a new CellState that views the cell at the passed in row and
+     * column of the passed in grid;
+     * 
+     * @param grid the grid that holds the cell's in-game information
+     * @param row the cell's row in the grid
+     * @param col the cell's column in the grid
+     */
+    public CellState(GridState grid, int row, int col) {
+        this.grid = grid;
+        this.index = grid.indexOf(row, col);
+        this.row = row;
+        this.col = col;
+    }
+    
+    
+    /**
+     * Returns the grid that holds this cell's in-game information;
+     * 
+     * @return the grid that holds this cell's in-game information
+     */
+    public GridState getGrid() {
+        return grid;
+    }
+    
+    /**
+     * Returns the index of this cell in its grid;
+     * 
+     * @return the index of this cell in its grid
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Returns the type of this cell;
+     * 
+     * @return the type of this cell
+     */
+    public String getCellType() {
+        return grid.getCellType(index);
+    }
+    
+    /**
+     * Returns the index of this cell's type in CTInfo.CTVals;
+     * 
+     * @return the index of this cell's type in CTInfo.CTVals
+     */
+    public int getCellTypeIndex() {
+        return grid.getTypeId(index);
+    }
+    
+    /**
+     * Returns the row of this cell;
+     * 
+     * @return the row of this cell
+     */
+    public int getRow() {
+        return row;
+    }
+    
+    /**
+     * Returns the column of this cell;
+     * 
+     * @return the column of this cell
+     */
+    public int getCol() {
+        return col;
+    }
+    
+    /**
+     * Returns whether or not this cell is captured;
+     * 
+     * @return whether or not this cell is captured
+     */
+    public boolean isCaptured() {
+        return grid.isFlagSet(index, GridState.CAPTURED);
+    }
+    
+    /**
+     * Returns whether or not this cell is scouted;
+     * 
+     * @return whether or not this cell is scouted
+     */
+    public boolean isScouted() {
+        return grid.isFlagSet(index, GridState.SCOUTED);
+    }
+    
+    /**
+     * Returns whether or not this cell is neutral;
+     * 
+     * @return whether or not this cell is neutral
+     */
+    public boolean isNeutral() {
+        return grid.isFlagSet(index, GridState.NEUTRAL);
+    }
+    
+    /**
+     * Returns whether or not this cell is hostile;
+     * 
+     * @return whether or not this cell is hostile
+     */
+    public boolean isHostile() {
+        return grid.isFlagSet(index, GridState.HOSTILE);
+    }
+    
+    /**
+     * Returns whether or not this cell is destroyed;
+     * 
+     * @return whether or not this cell is destroyed
+     */
+    public boolean isDestroyed() {
+        return grid.isFlagSet(index, GridState.DESTROYED);
+    }
+    
+    /**
+     * Returns whether or not this cell is able to be captured;
+     * 
+     * @return whether or not this cell is able to be captured
+     */
+    public boolean isCapturable() {
+        return grid.isFlagSet(index, GridState.CAPTURABLE);
+    }
+    
+    /**
+     * Returns whether or not this cell is able to be scouted;
+     * 
+     * @return whether or not this cell is able to be scouted
+     */
+    public boolean isScoutable() {
+        return grid.isFlagSet(index, GridState.SCOUTABLE);
+    }
+    
+    /**
+     * Returns whether or not this cell is able to be destroyed;
+     * 
+     * @return whether or not this cell is able to be destroyed
+     */
+    public boolean isDestroyable() {
+        return grid.isFlagSet(index, GridState.DESTROYABLE);
+    }
+    
+    /**
+     * Returns whether or not this cell is built on;
+     * 
+     * @return whether or not this cell is built on
+     */
+    public boolean isBuiltOn() {
+        return grid.isFlagSet(index, GridState.BUILT_ON);
+    }
+    
+    /**
+     * Returns the number of soldiers held in this cell (as a resource);
+     * 
+     * @return the number of soldiers held in this cell (as a resource)
+     */
+    public int getSoldiers() {
+        return grid.getSoldiers(index);
+    }
+    
+    /**
+     * Returns the number of building materials held in this cell;
+     * 
+     * @return the number of building materials held in this cell
+     */
+    public int getMaterials() {
+        return grid.getMaterials(index);
+    }
+    
+    /**
+     * Returns the number of energy cores held in this cell;
+     * 
+     * @return the number of energy cores held in this cell
+     */
+    public int getCores() {
+        return grid.getCores(index);
+    }
+    
+    /**
+     * Returns the number of enemies in this cell;
+     * 
+     * @return the number of enemies in this cell
+     */
+    public int getEnemies() {
+        return grid.getEnemies(index);
+    }
+    
+    /**
+     * Returns the number of stationed soldiers in this cell;
+     * 
+     * @return the number of stationed soldiers in this cell
+     */
+    public int getStationedSoldiers() {
+        return grid.getStationedSoldiers(index);
+    }
+    
+    /**
+     * Returns whether or not this cell can have Housing built on it;
+     * 
+     * @return whether or not this cell can have Housing built on it
+     */
+    public boolean isHousingCompatible() {
+        return grid.isCompatible(index, Building.HOUSING);
+    }
+    
+    /**
+     * Returns whether or not this cell can have a Robotics Factory built on it;
+     * 
+     * @return whether or not this cell can have a Robotics Factory built on it
+     */
+    public boolean isRFactoryCompatible() {
+        return grid.isCompatible(index, Building.ROBOTICS_FACTORY);
+    }
+    
+    /**
+     * Returns whether or not this cell can have Storage built on it;
+     * 
+     * @return whether or not this cell can have Storage built on it
+     */
+    public boolean isStorageCompatible() {
+        return grid.isCompatible(index, Building.STORAGE);
+    }
+    
+    /**
+     * Returns whether or not this cell can have a Steel Mill built on it;
+     * 
+     * @return whether or not this cell can have a Steel Mill built on it
+     */
+    public boolean isSMillCompatible() {
+        return grid.isCompatible(index, Building.STEEL_MILL);
+    }
+    
+    /**
+     * Returns whether or not this cell can have an Energy Grid built on it;
+     * 
+     * @return whether or not this cell can have an Energy Grid built on it
+     */
+    public boolean isEGridCompatible() {
+        return grid.isCompatible(index, Building.ENERGY_GRID);
+    }
+    
+    /**
+     * Returns whether or not this cell can have a Solar Farm built on it;
+     * 
+     * @return whether or not this cell can have a Solar Farm built on it
+     */
+    public boolean isSFarmCompatible() {
+        return grid.isCompatible(index, Building.SOLAR_FARM);
+    }
+    
+    /**
+     * Sets the cell's cellType field; WARNING: this method should only be
+     * called when building structures on cells;
+     * 
+     * @param value the cell type to be changed to
+     */
+    public void setCellType(String value) {
+        grid.setCellType(index, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is captured;
+     * 
+     * @param value whether or not this cell is captured
+     */
+    public void setCaptured(boolean value) {
+        grid.setFlag(index, GridState.CAPTURED, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is scouted;
+     * 
+     * @param value whether or not this cell is scouted
+     */
+    public void setScouted(boolean value) {
+        grid.setFlag(index, GridState.SCOUTED, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is neutral;
+     * 
+     * @param value whether or not this cell is neutral
+     */
+    public void setNeutral(boolean value) {
+        grid.setFlag(index, GridState.NEUTRAL, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is hostile;
+     * 
+     * @param value whether or not this cell is hostile
+     */
+    public void setHostile(boolean value) {
+        grid.setFlag(index, GridState.HOSTILE, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is destroyed;
+     * 
+     * @param value whether or not this cell is destroyed
+     */
+    public void setDestroyed(boolean value) {
+        grid.setFlag(index, GridState.DESTROYED, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is able to be captured;
+     * 
+     * @param value whether or not this cell is able to be captured
+     */
+    public void setCapturable(boolean value) {
+        grid.setFlag(index, GridState.CAPTURABLE, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is able to be scouted;
+     * 
+     * @param value whether or not this cell is able to be scouted
+     */
+    public void setScoutable(boolean value) {
+        grid.setFlag(index, GridState.SCOUTABLE, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is able to be destroyed;
+     * 
+     * @param value whether or not this cell is able to be destroyed
+     */
+    public void setDestroyable(boolean value) {
+        grid.setFlag(index, GridState.DESTROYABLE, value);
+    }
+    
+    /**
+     * Sets whether or not this cell is built on;
+     * 
+     * @param value whether or not this cell is built on
+     */
+    public void setBuiltOn(boolean value) {
+        grid.setFlag(index, GridState.BUILT_ON, value);
+    }
+    
+    /**
+     * Sets the number of soldiers held in this cell (as resources);
+     * 
+     * @param value the number of soldiers held in this cell (as resources)
+     */
+    public void setSoldiers(int value) {
+        grid.setSoldiers(index, value);
+    }
+    
+    /**
+     * Sets the number of building materials held in this cell;
+     * 
+     * @param value the number of building materials held in this cell
+     */
+    public void setMaterials(int value) {
+        grid.setMaterials(index, value);
+    }
+    
+    /**
+     * Sets the number of energy cores held in this cell;
+     * 
+     * @param value the number of energy cores held in this cell
+     */
+    public void setCores(int value) {
+        grid.setCores(index, value);
+    }
+    
+    /**
+     * Sets the number of enemies in this cell;
+     * 
+     * @param value the number of enemies
+     * @return whether or not enemies were set to the passed in value or to 0 or
+     *         the max (true means value was set; false means either 0 or max
+     *         was set)
+     */
+    public boolean setEnemies(int value) {
+        return grid.setEnemies(index, value);
+    }
+    
+    /**
+     * Sets the number of stationed soldiers in this cell;
+     * 
+     * @param value the number of stationed soldiers
+     * 
+     * @throws IllegalArgumentException if value is negative
+     * 
+     * @return whether or not stationedSoldiers was successfully set to the
+     *         passed in value
+     */
+    public boolean setStationedSoldiers(int value) {
+        grid.setStationedSoldiers(index, value);
+        return true;
+    }
+    
+    
+    
+}
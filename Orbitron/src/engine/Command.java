@@ -0,0 +1,327 @@
+package engine;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One action that the player (or an AI) takes in a game; Actions aren't run
+ * by the thread that asks for them, instead they are handed to the GameClock,
+ * whose thread is the only one that changes the game, and run there between
+ * enemy spreads. A command only holds plain values (the cell is held by its
+ * grid index), so it can be kept and run again later.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class Command implements Serializable {
+    
+    /**
+     * The kinds of actions that can be taken;
+     */
+    public enum Type {
+        /** Bombards (destroys) a cell using some number of energy cores; */
+        BOMBARD,
+        /** Builds a structure on a cell; */
+        BUILD,
+        /** Builds structures on several cells at once, or on none of them; */
+        BUILD_ALL,
+        /** Captures a cell; */
+        CAPTURE,
+        /** Catches the game up on some number of seconds that the player was away; */
+        CATCH_UP,
+        /** Ends the game with some outcome (for example a forfeit); */
+        END_GAME,
+        /** Scouts a cell; */
+        SCOUT,
+        /** Changes the number of soldiers stationed in a cell; */
+        STATION_SOLDIERS
+    }
+    
+    
+    /**
+     * The class's serial ID number;
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    
+    /**
+     * The number that goes along with the action (cores used to bombard,
+     * soldiers to station, seconds to catch up on, or the end game option), or
+     * 0;
+     */
+    private final int amount;
+    /** The name of the structure to build, or null; */
+    private final String building;
+    /** The structures to build on each of cells, or null; */
+    private final Building[] buildings;
+    /** The grid index of the cell that the action is on, or -1; */
+    private final int cell;
+    /** The grid indices of the cells that the action is on, or null; */
+    private final int[] cells;
+    /** Whether or not the action is part of the tutorial; */
+    private final boolean tutorialMode;
+    /** The kind of action; */
+    private final Type type;
+    
+    
+    /**
+     * Creates a new Command;
+     * 
+     * @param type the kind of action
+     * @param cell the grid index of the cell that the action is on, or -1
+     * @param amount the number that goes along with the action, or 0
+     * @param building the name of the structure to build, or null
+     * @param tutorialMode whether or not the action is part of the tutorial
+     */
+    private Command(Type type, int cell, int amount, String building, boolean tutorialMode) {
+        this.type = type;
+        this.cell = cell;
+        this.amount = amount;
+        this.building = building;
+        this.tutorialMode = tutorialMode;
+        this.cells = null;
+        this.buildings = null;
+    }
+    
+    /**
+     * Creates a new Command that acts on several cells at once;
+     * 
+     * @param type the kind of action
+     * @param cells the grid indices of the cells that the action is on
+     * @param buildings the structure to build on each of the cells
+     */
+    private Command(Type type, int[] cells, Building[] buildings) {
+        this.type = type;
+        this.cell = -1;
+        this.amount = 0;
+        this.building = null;
+        this.tutorialMode = false;
+        this.cells = cells;
+        this.buildings = buildings;
+    }
+    
+    
+    /**
+     * Returns a command that bombards the passed in cell;
+     * 
+     * @param cell the cell being bombarded
+     * @param bombardCost the number of energy cores used to bombard the cell
+     * @param tutorialMode whether or not the tutorial is taking place
+     * 
+     * @return a command that bombards the cell
+     */
+    public static Command bombard(CellState cell, int bombardCost, boolean tutorialMode) {
+        return new Command(Type.BOMBARD, cell.getIndex(), bombardCost, null, tutorialMode);
+    }
+    
+    /**
+     * Returns a command that builds a structure on the passed in cell;
+     * 
+     * @param cell the cell being built on
+     * @param building the type of structure being built
+     * @param tutorialMode whether or not the tutorial is taking place
+     * 
+     * @return a command that builds on the cell
+     */
+    public static Command build(CellState cell, String building, boolean tutorialMode) {
+        return new Command(Type.BUILD, cell.getIndex(), 0, building, tutorialMode);
+    }
+    
+    /**
+     * Returns a command that builds the passed in structures on the passed in
+     * cells in one go: either all of them are built or none are (see
+     * GameEngine.buildAll()); The tutorial's cells can't be built on this
+     * way;
+     * 
+     * @param cells the cells being built on
+     * @param buildings the structure to build on each of the cells
+     * 
+     * @return a command that builds on all of the cells
+     */
+    public static Command buildAll(CellState[] cells, Building[] buildings) {
+        if (cells.length != buildings.length) {
+            throw new IllegalArgumentException("need one building per cell");
+        }
+        int[] indices = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            indices[i] = cells[i].getIndex();
+        }
+        return new Command(Type.BUILD_ALL, indices, buildings.clone());
+    }
+    
+    /**
+     * Returns a command that captures the passed in cell;
+     * 
+     * @param cell the cell being captured
+     * @param tutorialMode whether or not the tutorial is taking place
+     * 
+     * @return a command that captures the cell
+     */
+    public static Command capture(CellState cell, boolean tutorialMode) {
+        return new Command(Type.CAPTURE, cell.getIndex(), 0, null, tutorialMode);
+    }
+    
+    /**
+     * Returns a command that catches the game up on the passed in amount of
+     * time that the player was away (see GameEngine.catchUp()); It is kept to
+     * the second so that it can be recorded and replayed like any other
+     * command;
+     * 
+     * @param awayTime the amount of time that the player was away in
+     *            nanoseconds
+     * 
+     * @return a command that catches the game up
+     */
+    public static Command catchUp(long awayTime) {
+        long seconds = Math.min(TimeUnit.NANOSECONDS.toSeconds(awayTime), Integer.MAX_VALUE);
+        return new Command(Type.CATCH_UP, -1, (int) seconds, null, false);
+    }
+    
+    /**
+     * Returns a command that ends the game;
+     * 
+     * @param option the type of end game: 'W' (win), 'L' (loss), or 'F'
+     *            (forfeit)
+     * 
+     * @return a command that ends the game
+     */
+    public static Command endGame(char option) {
+        return new Command(Type.END_GAME, -1, option, null, false);
+    }
+    
+    /**
+     * Returns a command that scouts the passed in cell;
+     * 
+     * @param cell the cell being scouted
+     * @param tutorialMode whether or not the tutorial is taking place
+     * 
+     * @return a command that scouts the cell
+     */
+    public static Command scout(CellState cell, boolean tutorialMode) {
+        return new Command(Type.SCOUT, cell.getIndex(), 0, null, tutorialMode);
+    }
+    
+    /**
+     * Returns a command that changes the number of soldiers stationed in the
+     * passed in cell;
+     * 
+     * @param cell the cell whose stationed soldiers are changing
+     * @param soldiers the desired number of stationed soldiers
+     * @param tutorialMode whether or not the tutorial is taking place
+     * 
+     * @return a command that changes the cell's stationed soldiers
+     */
+    public static Command stationSoldiers(CellState cell, int soldiers, boolean tutorialMode) {
+        return new Command(Type.STATION_SOLDIERS, cell.getIndex(), soldiers, null, tutorialMode);
+    }
+    
+    
+    /**
+     * Runs this action on the passed in engine; This must only be called by
+     * the thread that changes the game (see GameClock);
+     * 
+     * @param engine the engine to run the action on
+     * 
+     * @return whether or not the action succeeded
+     */
+    public boolean apply(GameEngine engine) {
+        GridState grid = engine.getGrid();
+        CellState view = cell < 0 ? null
+                : new CellState(grid, grid.getRow(cell), grid.getCol(cell));
+        return apply(engine, view);
+    }
+    
+    /**
+     * Runs this action on the passed in engine, but on the passed in cell
+     * rather than the engine's cell with this command's grid index; This is
+     * for cells that aren't part of the engine's map (the tutorial's cells);
+     * This must only be called by the thread that changes the game;
+     * 
+     * @param engine the engine to run the action on
+     * @param view the cell to run the action on (ignored by BUILD_ALL,
+     *            CATCH_UP, and END_GAME)
+     * 
+     * @return whether or not the action succeeded
+     */
+    public boolean apply(GameEngine engine, CellState view) {
+        switch (type) {
+            case BOMBARD:
+                return engine.bombardCell(view, amount, tutorialMode);
+            case BUILD:
+                return engine.build(view, building, tutorialMode);
+            case BUILD_ALL:
+                return engine.buildAll(cells, buildings);
+            case CAPTURE:
+                return engine.captureCell(view, tutorialMode);
+            case CATCH_UP:
+                engine.catchUp(TimeUnit.SECONDS.toNanos(amount));
+                return true;
+            case END_GAME:
+                engine.endGame((char) amount);
+                return true;
+            case SCOUT:
+                return engine.scoutCell(view, tutorialMode);
+            default:
+                return engine.changeStationedSoldiers(view, amount, tutorialMode);
+        }
+    }
+    
+    /**
+     * Returns the number that goes along with the action (cores used to
+     * bombard, soldiers to station, seconds to catch up on, or the end game
+     * option), or 0;
+     * 
+     * @return the number that goes along with the action
+     */
+    public int getAmount() {
+        return amount;
+    }
+    
+    /**
+     * Returns the name of the structure to build, or null;
+     * 
+     * @return the name of the structure to build
+     */
+    public String getBuilding() {
+        return building;
+    }
+    
+    /**
+     * Returns the grid index of the cell that the action is on, or -1;
+     * 
+     * @return the grid index of the cell that the action is on
+     */
+    public int getCell() {
+        return cell;
+    }
+    
+    /**
+     * Returns the kind of action;
+     * 
+     * @return the kind of action
+     */
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Returns whether or not the action is part of the tutorial;
+     * 
+     * @return whether or not the action is part of the tutorial
+     */
+    public boolean isTutorialMode() {
+        return tutorialMode;
+    }
+    
+    @Override
+    public String toString() {
+        if (type == Type.BUILD_ALL) {
+            return type + " cells=" + Arrays.toString(cells) + " buildings="
+                    + Arrays.toString(buildings);
+        }
+        return type + " cell=" + cell + " amount=" + amount
+                + (building == null ? "" : " building=" + building)
+                + (tutorialMode ? " (tutorial)" : "");
+    }
+    
+}
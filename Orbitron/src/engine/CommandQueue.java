@@ -0,0 +1,114 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free queue that any number of threads can add tasks to and that one
+ * thread (the GameClock's thread) takes them off of in the order they were
+ * added; Adding a task is one atomic swap and never blocks or waits on the
+ * thread that runs the tasks. This is the intrusive multiple-producer,
+ * single-consumer queue described by Dmitry Vyukov: producers swap themselves
+ * in as the tail and then link the old tail to themselves, and the consumer
+ * follows the links from a dummy head node.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class CommandQueue {
+    
+    /** The node before the next task to be taken (only the consumer touches it); */
+    private Node head;
+    /** The node holding the task that was added last; */
+    private final AtomicReference<Node> tail;
+    
+    
+    /**
+     * Creates a new empty CommandQueue;
+     */
+    public CommandQueue() {
+        Node dummy = new Node(null);
+        this.head = dummy;
+        this.tail = new AtomicReference<>(dummy);
+    }
+    
+    
+    /**
+     * Returns whether or not a task has been added that hasn't been taken off
+     * yet, counting one that is still being linked in (poll() can return null
+     * for a moment while this is true); Only the consumer should call this;
+     * 
+     * @return whether or not a task is waiting or being added
+     */
+    public boolean hasPending() {
+        return head != tail.get();
+    }
+    
+    /**
+     * Returns whether or not the queue looks empty; A task that is being added
+     * at the same time may or may not be seen; Only the consumer should call
+     * this;
+     * 
+     * @return whether or not the queue looks empty
+     */
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+    
+    /**
+     * Adds the passed in task to the end of the queue; Safe to call from any
+     * thread;
+     * 
+     * @param task the task to add
+     */
+    public void offer(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        Node node = new Node(task);
+        Node previous = tail.getAndSet(node);
+        // the task can't be seen by the consumer until this link is made
+        previous.next = node;
+    }
+    
+    /**
+     * Takes the task at the front of the queue off of it; Only the consumer may
+     * call this;
+     * 
+     * @return the task at the front of the queue or null if there isn't one
+     *         (or the one being added hasn't been linked in yet)
+     */
+    public Runnable poll() {
+        Node next = head.next;
+        if (next == null) {
+            return null;
+        }
+        Runnable task = next.task;
+        // the node becomes the new dummy head, so let go of its task
+        next.task = null;
+        head = next;
+        return task;
+    }
+    
+    
+    /**
+     * A link in the queue;
+     */
+    private static final class Node {
+        
+        /** The next node in the queue (set by the producer that added it); */
+        private volatile Node next;
+        /** The task held by this node (null once it has been taken); */
+        private Runnable task;
+        
+        
+        /**
+         * Creates a new node holding the passed in task;
+         * 
+         * @param task the task to hold
+         */
+        Node(Runnable task) {
+            this.task = task;
+        }
+    
+    }
+    
+}
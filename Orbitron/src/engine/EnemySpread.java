@@ -0,0 +1,293 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Works out where the enemies on a GridState spread to during one enemy
+ * spread; Every transfer is computed from the state of the map before the
+ * spread (so enemies that arrive in a cell can't spread again in the same
+ * spread) and is left in this object's buffers for the GameEngine to apply
+ * afterwards. Only the cells in the grid's set of spreaders are looked at, so
+ * a spread costs time in the number of cells that can spread rather than the
+ * size of the map. Big sets of spreaders are split into chunks that are worked
+ * on in parallel, and each cell's random choices only depend on the spread's
+ * key (see GameRandom) and the cell's index, so the result is the same for any
+ * number of threads and any order of the set.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class EnemySpread {
+    
+    /** The smallest number of spreaders that are worth handing to another thread; */
+    private static final int CHUNK_CELLS = 4096;
+    
+    
+    /** The map that the enemies are spreading over; */
+    private final GridState grid;
+    /** The number of enemies that each cell receives during the current spread; */
+    private final int[] incoming;
+    /** The number of enemies that each cell sends out during the current spread; */
+    private final int[] outgoing;
+    /** The cell that each cell sends its enemies to during the current spread (or -1); */
+    private final int[] targets;
+    
+    /** The cells that could spread at the start of the current spread; */
+    private int[] active;
+    /** The cells that send or receive enemies during the current spread, in order; */
+    private int[] affected;
+    /** The key that the current spread's random choices are based on; */
+    private long key;
+    /** The number of cells in active; */
+    private int numActive;
+    /** The number of cells in affected; */
+    private int numAffected;
+    /** The pool that the chunks are worked on in; */
+    private ForkJoinPool pool;
+    
+    
+    /**
+     * Creates a new EnemySpread for the passed in map that uses the common
+     * fork/join pool;
+     * 
+     * @param grid the map that the enemies are spreading over
+     * @param minEnemiesToSpread the minimum number of enemies that a cell needs
+     *            in order to spread
+     */
+    public EnemySpread(GridState grid, int minEnemiesToSpread) {
+        this.grid = grid;
+        this.incoming = new int[grid.getSize()];
+        this.outgoing = new int[grid.getSize()];
+        this.targets = new int[grid.getSize()];
+        Arrays.fill(targets, -1);
+        this.active = new int[16];
+        this.affected = new int[32];
+        this.pool = ForkJoinPool.commonPool();
+        grid.setSpreadThreshold(minEnemiesToSpread);
+    }
+    
+    
+    /**
+     * Computes every transfer of the next enemy spread from the current state
+     * of the map; Nothing on the map is changed;
+     * 
+     * @param key the key (from GameRandom.key()) that all of the spread's
+     *            random choices are based on
+     */
+    public void compute(long key) {
+        this.key = key;
+        // forget the transfers of the last spread
+        for (int i = 0; i < numAffected; i++) {
+            int cell = affected[i];
+            incoming[cell] = 0;
+            outgoing[cell] = 0;
+            targets[cell] = -1;
+        }
+        numAffected = 0;
+        
+        // the set changes as the spread is applied, so work from a copy of it
+        numActive = grid.getNumSpreaders();
+        if (active.length < numActive) {
+            active = new int[Math.max(numActive, active.length * 2)];
+        }
+        for (int i = 0; i < numActive; i++) {
+            active[i] = grid.getSpreader(i);
+        }
+        if (affected.length < numActive * 2) {
+            affected = new int[Math.max(numActive * 2, affected.length * 2)];
+        }
+        
+        Chunk all = new Chunk(0, numActive);
+        if (numActive <= CHUNK_CELLS) {
+            all.compute();
+        } else {
+            pool.invoke(all);
+        }
+        gatherIncoming();
+        // apply the spread in order of grid index no matter the order of the set
+        Arrays.sort(affected, 0, numAffected);
+    }
+    
+    /**
+     * Returns the cell at the passed in position in the list of cells that send
+     * or receive enemies during the computed spread (in order of grid index);
+     * 
+     * @param i the position in the list (0 to getNumAffected() - 1)
+     * 
+     * @return the grid index of the cell
+     */
+    public int getAffected(int i) {
+        if (i < 0 || i >= numAffected) {
+            throw new IndexOutOfBoundsException("no affected cell at " + i);
+        }
+        return affected[i];
+    }
+    
+    /**
+     * Returns the number of enemies that the passed in cell receives during the
+     * computed spread;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return the number of enemies that the cell receives
+     */
+    public int getIncoming(int cell) {
+        return incoming[cell];
+    }
+    
+    /**
+     * Returns the number of cells that send or receive enemies during the
+     * computed spread;
+     * 
+     * @return the number of cells that send or receive enemies
+     */
+    public int getNumAffected() {
+        return numAffected;
+    }
+    
+    /**
+     * Returns the number of enemies that the passed in cell sends out during
+     * the computed spread;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return the number of enemies that the cell sends out
+     */
+    public int getOutgoing(int cell) {
+        return outgoing[cell];
+    }
+    
+    /**
+     * Returns the cell that the passed in cell sends its enemies to during the
+     * computed spread;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return the grid index of the cell receiving the enemies or -1 if the
+     *         cell doesn't spread
+     */
+    public int getTarget(int cell) {
+        return targets[cell];
+    }
+    
+    /**
+     * Sets the pool that the chunks are worked on in; A pool with a
+     * parallelism of 1 computes the whole spread on one thread;
+     * 
+     * @param value the pool that the chunks are worked on in
+     */
+    public void setPool(ForkJoinPool value) {
+        if (value == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        this.pool = value;
+    }
+    
+    
+    /**
+     * Chooses where the passed in cell sends its enemies, if anywhere; Only
+     * called for cells in the grid's set of spreaders (hostile cells with
+     * enough enemies);
+     * 
+     * @param cell the grid index of the cell
+     */
+    private void chooseTarget(int cell) {
+        int enemies = grid.getEnemies(cell);
+        long bits = GameRandom.bits(key, cell);
+        // 0 is left, 1 is up, 2 is right, 3 is down
+        int dir = (int) (bits & 3);
+        int r = grid.getRow(cell);
+        int c = grid.getCol(cell);
+        if (dir == 0) {
+            c--;
+        } else if (dir == 1) {
+            r--;
+        } else if (dir == 2) {
+            c++;
+        } else {
+            r++;
+        }
+        // the cell just didn't happen to spread this time
+        if (!grid.inBounds(r, c)) {
+            return;
+        }
+        int other = grid.indexOf(r, c);
+        if (grid.isFlagSet(other, GridState.DESTROYED)) {
+            return;
+        }
+        
+        targets[cell] = other;
+        outgoing[cell] = (int) ((bits >>> 2) % (enemies / 2)) + 1;
+    }
+    
+    /**
+     * Adds up the enemies that each cell receives from the spreaders and lists
+     * every cell that sends or receives enemies; Integer sums don't depend on
+     * the order they are added in, so this gives the same result for any order
+     * of the set;
+     */
+    private void gatherIncoming() {
+        for (int i = 0; i < numActive; i++) {
+            if (targets[active[i]] >= 0) {
+                affected[numAffected++] = active[i];
+            }
+        }
+        for (int i = 0; i < numActive; i++) {
+            int target = targets[active[i]];
+            if (target < 0) {
+                continue;
+            }
+            // a target that doesn't spread itself is listed the first time it is hit
+            if (incoming[target] == 0 && outgoing[target] == 0) {
+                affected[numAffected++] = target;
+            }
+            incoming[target] += outgoing[active[i]];
+        }
+    }
+    
+    
+    /**
+     * A chunk of the spreaders that is split in half until it is small enough
+     * to work on directly;
+     */
+    private class Chunk extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        /** The position in active of the first spreader in this chunk; */
+        private final int first;
+        /** The position in active after the last spreader in this chunk; */
+        private final int last;
+        
+        
+        /**
+         * Creates a new chunk of the spreaders;
+         * 
+         * @param first the position in active of the first spreader in the
+         *            chunk
+         * @param last the position in active after the last spreader in the
+         *            chunk
+         */
+        Chunk(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+        
+        
+        @Override
+        protected void compute() {
+            if (last - first > CHUNK_CELLS) {
+                int middle = first + (last - first) / 2;
+                invokeAll(new Chunk(first, middle), new Chunk(middle, last));
+                return;
+            }
+            
+            for (int i = first; i < last; i++) {
+                chooseTarget(active[i]);
+            }
+        }
+    
+    }
+    
+}
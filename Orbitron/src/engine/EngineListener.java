@@ -0,0 +1,72 @@
+package engine;
+
+/**
+ * Receives the events that a GameEngine produces while it runs the game rules;
+ * The engine calls these methods on whatever thread is stepping it, so a client
+ * that needs to touch a scene graph is responsible for getting back onto its
+ * own thread.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public interface EngineListener {
+    
+    /**
+     * Called when enemies spread into a cell that was not already hostile
+     * (either a neutral cell or one of the player's captured cells);
+     * 
+     * @param cell the cell that the enemies spread into
+     */
+    void enemiesSpread(CellState cell);
+    
+    /**
+     * Called when enemies defeat the soldiers stationed in one of the player's
+     * captured cells and take it over;
+     * 
+     * @param cell the cell that was lost
+     */
+    void cellLost(CellState cell);
+    
+    /**
+     * Called when the game ends;
+     * 
+     * @param option the type of end game that occurred: 'W' means the player
+     *            won by capturing all 3 objectives; 'L' means the player lost
+     *            because the enemies captured the Space Port; 'F' means the
+     *            player forfeited by bombarding their own Space Port
+     */
+    void gameEnded(char option);
+    
+    /**
+     * Called when the number of soldiers, building materials, or energy cores
+     * that the player has changes; Listeners that don't show the player's
+     * resources don't need to implement this;
+     * 
+     * @param soldiers the number of soldiers that the player now has
+     * @param materials the number of building materials that the player now has
+     * @param cores the number of energy cores that the player now has
+     */
+    default void resourcesChanged(int soldiers, int materials, int cores) {
+        // most listeners don't care
+    }
+    
+    /**
+     * Called when the player's score changes; Listeners that don't show the
+     * score don't need to implement this;
+     * 
+     * @param score the player's new score
+     */
+    default void scoreChanged(int score) {
+        // most listeners don't care
+    }
+    
+    /**
+     * Called whenever the engine is advanced to a new game time; Listeners
+     * that don't show the time don't need to implement this;
+     * 
+     * @param timeElapsed the total game time elapsed in nanoseconds
+     */
+    default void timeChanged(long timeElapsed) {
+        // most listeners don't care
+    }
+    
+}
@@ -0,0 +1,98 @@
+package engine;
+
+/**
+ * The interfaces for publishing a stream of items to subscribers that each
+ * ask for items at their own pace; These mirror java.util.concurrent.Flow
+ * (which isn't available before Java 9) method for method, so that moving to
+ * it later is only a matter of changing the imports.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class EventFlow {
+    
+    /**
+     * Not used; EventFlow only holds interfaces;
+     */
+    private EventFlow() {
+        // nothing to create
+    }
+    
+    
+    /**
+     * Something that produces items for any number of subscribers;
+     * 
+     * @param <T> the type of item published
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        
+        /**
+         * Adds the passed in subscriber; The subscriber's onSubscribe is called
+         * with a new Subscription before it is sent any items;
+         * 
+         * @param subscriber the subscriber to add
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    
+    }
+    
+    /**
+     * Something that receives items from a publisher; Items are only sent to
+     * it after it has asked for them through its Subscription, and its methods
+     * are never called by more than one thread at a time;
+     * 
+     * @param <T> the type of item received
+     */
+    public interface Subscriber<T> {
+        
+        /**
+         * Called once when the subscriber is added, before any other method;
+         * 
+         * @param subscription the subscription used to ask for items or cancel
+         */
+        void onSubscribe(Subscription subscription);
+        
+        /**
+         * Called with the next item that the subscriber asked for;
+         * 
+         * @param item the next item
+         */
+        void onNext(T item);
+        
+        /**
+         * Called when the publisher or the subscription fails; No other method
+         * is called after this;
+         * 
+         * @param throwable what went wrong
+         */
+        void onError(Throwable throwable);
+        
+        /**
+         * Called when the publisher has no more items; No other method is
+         * called after this;
+         */
+        void onComplete();
+    
+    }
+    
+    /**
+     * The link between a publisher and one of its subscribers;
+     */
+    public interface Subscription {
+        
+        /**
+         * Asks for up to n more items; Asking for a non-positive number of items
+         * fails the subscription;
+         * 
+         * @param n the number of more items wanted
+         */
+        void request(long n);
+        
+        /**
+         * Stops items from being sent to the subscriber (eventually);
+         */
+        void cancel();
+    
+    }
+    
+}
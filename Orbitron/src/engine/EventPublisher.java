@@ -0,0 +1,376 @@
+package engine;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns what a GameEngine reports into GameEvents and publishes them to any
+ * number of subscribers (the UI's chat log, sound, telemetry, a network
+ * connection, etc.); Each subscriber has its own bounded buffer and its own
+ * executor, and is only sent as many events as it has asked for. Publishing
+ * never blocks or waits on a subscriber: if a subscriber's buffer is full the
+ * new event is dropped for that subscriber (and counted) so that a slow
+ * subscriber can never stall the game. Events that can't be dropped (see
+ * GameEvent.isDroppable()) are buffered even then, so the end of the game is
+ * never lost in a burst of cell events. Like java.util.concurrent's
+ * SubmissionPublisher, but without its blocking submit.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class EventPublisher implements EventFlow.Publisher<GameEvent>, EngineListener {
+    
+    /** The number of events buffered for each subscriber if not told otherwise; */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+    
+    
+    /** The number of events buffered for each subscriber; */
+    private final int bufferSize;
+    /** Whether or not the publisher has been closed; */
+    private volatile boolean closed;
+    /** The number of events that were dropped because a buffer was full; */
+    private final AtomicLong dropped;
+    /** The game state that the events' times are read from; */
+    private final GameState state;
+    /** The subscriptions that events are currently published to; */
+    private final CopyOnWriteArrayList<BufferedSubscription> subscriptions;
+    
+    
+    /**
+     * Creates a new EventPublisher for the game with the passed in state and
+     * the default buffer size;
+     * 
+     * @param state the state of the game being published
+     */
+    public EventPublisher(GameState state) {
+        this(state, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Creates a new EventPublisher for the game with the passed in state;
+     * 
+     * @param state the state of the game being published
+     * @param bufferSize the number of events buffered for each subscriber
+     */
+    public EventPublisher(GameState state, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("buffer size must be positive");
+        }
+        this.state = state;
+        this.bufferSize = bufferSize;
+        this.dropped = new AtomicLong();
+        this.subscriptions = new CopyOnWriteArrayList<>();
+    }
+    
+    
+    /**
+     * Publishes a CellLost event;
+     * 
+     * @param cell the cell that was lost
+     */
+    @Override
+    public void cellLost(CellState cell) {
+        publish(new GameEvent.CellLost(state.getTimeElapsed(), cell));
+    }
+    
+    /**
+     * Stops publishing; Every subscriber is sent onComplete once it has been
+     * sent the events already in its buffer;
+     */
+    public void close() {
+        closed = true;
+        for (BufferedSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+        subscriptions.clear();
+    }
+    
+    /**
+     * Publishes an EnemiesSpread event;
+     * 
+     * @param cell the cell that the enemies spread into
+     */
+    @Override
+    public void enemiesSpread(CellState cell) {
+        publish(new GameEvent.EnemiesSpread(state.getTimeElapsed(), cell));
+    }
+    
+    /**
+     * Publishes a GameEnded event along with the player's final totals;
+     * 
+     * @param option the type of end game that occurred
+     */
+    @Override
+    public void gameEnded(char option) {
+        publish(new GameEvent.GameEnded(option, new GameSnapshot(state)));
+    }
+    
+    /**
+     * Returns the number of events that were dropped because a subscriber's
+     * buffer was full;
+     * 
+     * @return the number of events that were dropped
+     */
+    public long getNumDropped() {
+        return dropped.get();
+    }
+    
+    /**
+     * Returns the number of subscribers that events are currently published to;
+     * 
+     * @return the number of subscribers
+     */
+    public int getNumSubscribers() {
+        return subscriptions.size();
+    }
+    
+    /**
+     * Returns whether or not the publisher has been closed;
+     * 
+     * @return whether or not the publisher has been closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Hands the passed in event to every subscriber's buffer; Never blocks;
+     * Does nothing once the publisher has been closed;
+     * 
+     * @param event the event to publish
+     */
+    public void publish(GameEvent event) {
+        if (closed) {
+            return;
+        }
+        for (BufferedSubscription subscription : subscriptions) {
+            if (!subscription.offer(event)) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Publishes a ResourcesChanged event;
+     * 
+     * @param soldiers the number of soldiers that the player now has
+     * @param materials the number of building materials that the player now has
+     * @param cores the number of energy cores that the player now has
+     */
+    @Override
+    public void resourcesChanged(int soldiers, int materials, int cores) {
+        publish(new GameEvent.ResourcesChanged(state.getTimeElapsed(), soldiers, materials,
+                cores));
+    }
+    
+    /**
+     * Publishes a ScoreChanged event;
+     * 
+     * @param score the player's new score
+     */
+    @Override
+    public void scoreChanged(int score) {
+        publish(new GameEvent.ScoreChanged(state.getTimeElapsed(), score));
+    }
+    
+    /**
+     * Adds the passed in subscriber, which is sent its events on the common
+     * fork/join pool (or on a new thread each time if the pool only has one
+     * thread, so that one slow subscriber can't hold up the others);
+     * 
+     * @param subscriber the subscriber to add
+     */
+    @Override
+    public void subscribe(EventFlow.Subscriber<? super GameEvent> subscriber) {
+        if (ForkJoinPool.getCommonPoolParallelism() > 1) {
+            subscribe(subscriber, ForkJoinPool.commonPool());
+        } else {
+            subscribe(subscriber, r -> new Thread(r).start());
+        }
+    }
+    
+    /**
+     * Adds the passed in subscriber, which is sent its events by the passed in
+     * executor (for example Platform::runLater for a subscriber that changes
+     * the scene graph); A subscriber added after the publisher has been closed
+     * is sent onComplete straight away;
+     * 
+     * @param subscriber the subscriber to add
+     * @param executor what sends the subscriber its events
+     */
+    public void subscribe(EventFlow.Subscriber<? super GameEvent> subscriber,
+            Executor executor) {
+        if (subscriber == null || executor == null) {
+            throw new IllegalArgumentException("subscriber and executor must not be null");
+        }
+        BufferedSubscription subscription = new BufferedSubscription(subscriber, executor);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscriptions.remove(subscription);
+            subscription.signal();
+        }
+    }
+    
+    /**
+     * Publishes a TimeChanged event;
+     * 
+     * @param timeElapsed the total game time elapsed in nanoseconds
+     */
+    @Override
+    public void timeChanged(long timeElapsed) {
+        publish(new GameEvent.TimeChanged(timeElapsed));
+    }
+    
+    
+    /**
+     * One subscriber's buffer of events waiting to be sent and the number of
+     * events that it has asked for; The events are sent by a drain loop run on
+     * the subscriber's executor, and at most one drain runs at a time, so the
+     * subscriber's methods are never called by more than one thread at once;
+     */
+    private final class BufferedSubscription implements EventFlow.Subscription {
+        
+        /** Whether or not the subscriber has cancelled (or been sent onError); */
+        private volatile boolean cancelled;
+        /** Whether or not the subscriber has been sent onComplete or onError; */
+        private boolean done;
+        /** What the subscription failed with, or null; */
+        private volatile Throwable error;
+        /** What sends the subscriber its events; */
+        private final Executor executor;
+        /** The events waiting to be sent; */
+        private final ConcurrentLinkedQueue<GameEvent> buffer;
+        /** The number of events in the buffer; */
+        private final AtomicInteger buffered;
+        /** The number of events asked for but not sent yet; */
+        private final AtomicLong requested;
+        /** The subscriber that the events are sent to; */
+        private final EventFlow.Subscriber<? super GameEvent> subscriber;
+        /** The number of times that the drain loop has been asked to run again; */
+        private final AtomicInteger work;
+        
+        
+        /**
+         * Creates a new BufferedSubscription;
+         * 
+         * @param subscriber the subscriber that the events are sent to
+         * @param executor what sends the subscriber its events
+         */
+        BufferedSubscription(EventFlow.Subscriber<? super GameEvent> subscriber,
+                Executor executor) {
+            this.subscriber = subscriber;
+            this.executor = executor;
+            this.buffer = new ConcurrentLinkedQueue<>();
+            this.buffered = new AtomicInteger();
+            this.requested = new AtomicLong();
+            this.work = new AtomicInteger();
+        }
+        
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+        
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException(
+                        "a subscriber must request a positive number of events");
+                signal();
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!requested.compareAndSet(current, next));
+            signal();
+        }
+        
+        /**
+         * Adds the passed in event to the buffer if there is room or if it
+         * can't be dropped;
+         * 
+         * @param event the event to add
+         * 
+         * @return whether or not the event was added
+         */
+        boolean offer(GameEvent event) {
+            if (cancelled) {
+                return true;
+            }
+            if (buffered.incrementAndGet() > bufferSize && event.isDroppable()) {
+                buffered.decrementAndGet();
+                return false;
+            }
+            buffer.offer(event);
+            signal();
+            return true;
+        }
+        
+        /**
+         * Makes sure that the drain loop runs (again) on the subscriber's
+         * executor;
+         */
+        void signal() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+        
+        /**
+         * Sends the subscriber as many buffered events as it has asked for, and
+         * onComplete once the publisher is closed and the buffer is empty;
+         * Keeps going for as long as it is signalled while running;
+         */
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                long wanted = requested.get();
+                long sent = 0;
+                while (sent != wanted && !cancelled && error == null) {
+                    GameEvent event = buffer.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    buffered.decrementAndGet();
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        error = e;
+                    }
+                    sent++;
+                }
+                if (sent != 0 && wanted != Long.MAX_VALUE) {
+                    requested.addAndGet(-sent);
+                }
+                
+                if (!done && error != null) {
+                    done = true;
+                    cancel();
+                    subscriber.onError(error);
+                } else if (!done && !cancelled && closed && buffer.isEmpty()) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+                if (cancelled) {
+                    buffer.clear();
+                }
+                
+                missed = work.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    
+    }
+    
+}
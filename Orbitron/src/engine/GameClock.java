@@ -0,0 +1,427 @@
+package engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Drives a GameEngine in real time and is the only thing that changes the
+ * game; Player actions, and pausing, resuming, and changing the speed of the
+ * clock, are all put on a lock-free queue by whatever thread asks for them and
+ * then run by the clock's thread in the order they were asked for, between
+ * enemy spreads. After every change the clock's thread publishes a
+ * GameSnapshot for other threads to read. The thread sleeps until the next
+ * thing that is due (the next enemy spread, the next tick of the displayed
+ * time, or a new task) instead of waking up to check. A speed of 0 freezes game
+ * time without pausing the clock, and higher speeds fast-forward the game.
+ * While the clock is playing back a recorded game, player actions are turned
+ * away so that the replay ends the way the recorded game did.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class GameClock {
+    
+    /** The amount of game time between ticks of the displayed time in nanoseconds; */
+    public static final long TICK_RATE = 1000000000L; // every second
+    
+    
+    /** The engine that this clock drives; */
+    private final GameEngine engine;
+    /** The tasks waiting to be run by the clock's thread; */
+    private final CommandQueue queue;
+    /** Whether or not the clock's thread has been created; */
+    private final AtomicBoolean started;
+    
+    /** The game time at the moment the clock was last rebased in nanoseconds; */
+    private long baseGameTime;
+    /** The wall time (System.nanoTime()) at the moment the clock was last rebased; */
+    private long baseWallTime;
+    /** Given the cells that changed after every step, or null; */
+    private volatile Consumer<CellDiff> changeListener;
+    /**
+     * Whether or not a recorded game is being played back (player actions are
+     * then turned away);
+     */
+    private volatile boolean replaying;
+    /** Whether or not game time is currently passing; */
+    private volatile boolean running;
+    /** The recorded game being played back, or null (only the clock's thread touches it); */
+    private GameRecord script;
+    /** The position in the script of the next command to play back; */
+    private int scriptPosition;
+    /** Whether or not the clock has been shut down for good; */
+    private volatile boolean shutDown;
+    /** The latest copy of the player's totals and the game's progress; */
+    private volatile GameSnapshot snapshot;
+    /** How many times faster than real time the game runs; */
+    private volatile int speed;
+    /**
+     * Whether or not the clock's thread has started its last pass over the
+     * queue (a task handed over after that may never be run);
+     */
+    private volatile boolean terminated;
+    /** The thread that changes the game; it is only created once; */
+    private volatile Thread thread;
+    
+    
+    /**
+     * Creates a new paused GameClock that drives the passed in engine at normal
+     * speed;
+     * 
+     * @param engine the engine that this clock drives
+     */
+    public GameClock(GameEngine engine) {
+        this.engine = engine;
+        this.queue = new CommandQueue();
+        this.started = new AtomicBoolean();
+        this.speed = 1;
+        this.snapshot = new GameSnapshot(engine.getState());
+        // setting up the map isn't a change; whoever shows it draws it all first
+        engine.getGrid().takeChanges();
+    }
+    
+    
+    /**
+     * Runs the passed in task on the clock's thread (the only thread that may
+     * change the game) and returns its result when it is done; The task is run
+     * after every task that was handed to the clock before it; A task handed
+     * to the clock after it has been shut down fails with an
+     * IllegalStateException;
+     * 
+     * @param task what to do with the engine
+     * @param <T> the type of the task's result
+     * 
+     * @return the result of the task once it has been run
+     */
+    public <T> CompletableFuture<T> call(Function<GameEngine, T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queue.offer(() -> {
+            if (shutDown) {
+                result.completeExceptionally(
+                        new IllegalStateException("the clock has been shut down"));
+                return;
+            }
+            try {
+                T value = task.apply(engine);
+                // whoever is waiting on the result sees the totals that go with it
+                snapshot = new GameSnapshot(engine.getState());
+                result.complete(value);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (terminated) {
+            // the task missed the clock thread's last pass over the queue
+            result.completeExceptionally(
+                    new IllegalStateException("the clock has been shut down"));
+            return result;
+        }
+        start();
+        LockSupport.unpark(thread);
+        return result;
+    }
+    
+    /**
+     * Returns the latest copy of the player's totals and the game's progress;
+     * Safe to call from any thread;
+     * 
+     * @return the latest copy of the player's totals and the game's progress
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Returns how many times faster than real time the game runs;
+     * 
+     * @return how many times faster than real time the game runs
+     */
+    public int getSpeed() {
+        return speed;
+    }
+    
+    /**
+     * Returns whether or not the clock is playing back a recorded game (which
+     * it does for the rest of the game once it has been given one);
+     * 
+     * @return whether or not the clock is playing back a recorded game
+     */
+    public boolean isReplaying() {
+        return replaying;
+    }
+    
+    /**
+     * Returns whether or not the clock is running (it may still be running at
+     * a speed of 0);
+     * 
+     * @return whether or not the clock is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Returns whether or not the clock has been shut down for good (after
+     * which the game can no longer change);
+     * 
+     * @return whether or not the clock has been shut down
+     */
+    public boolean isShutDown() {
+        return shutDown;
+    }
+    
+    /**
+     * Stops game time from passing; The engine is brought up to the current
+     * time first so that nothing is lost (or saved out of date);
+     * 
+     * @return a future that completes once the clock has paused
+     */
+    public CompletableFuture<Void> pause() {
+        return call(e -> {
+            pauseNow();
+            return null;
+        });
+    }
+    
+    /**
+     * Plays back the passed in recorded game as game time passes: each of its
+     * commands is run at the game time that it was first run at, so watching a
+     * replay at any speed ends in the same state as the original game; The
+     * engine must be running a game created the same way as the recorded one
+     * and not have been advanced yet; From now on player actions are turned
+     * away (see submit());
+     * 
+     * @param record the recorded game to play back
+     * 
+     * @return a future that completes once the script has been set
+     */
+    public CompletableFuture<Void> play(GameRecord record) {
+        replaying = true;
+        return call(e -> {
+            script = record;
+            scriptPosition = 0;
+            return null;
+        });
+    }
+    
+    /**
+     * Starts game time passing again from wherever the engine's game state
+     * says that it is;
+     * 
+     * @return a future that completes once the clock is running
+     */
+    public CompletableFuture<Void> resume() {
+        if (shutDown) {
+            throw new IllegalStateException("the clock has been shut down");
+        }
+        
+        return call(e -> {
+            if (!running && !engine.isGameOver()) {
+                baseGameTime = engine.getState().getTimeElapsed();
+                baseWallTime = System.nanoTime();
+                running = true;
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Sets what is given the cells that changed after every step the clock
+     * takes (every batch of tasks and every advance of the engine); It is
+     * called on the clock's thread, so it must hand the diff off rather than
+     * do any drawing itself;
+     * 
+     * @param listener given the cells that changed after every step, or null
+     */
+    public void setChangeListener(Consumer<CellDiff> listener) {
+        this.changeListener = listener;
+    }
+    
+    /**
+     * Sets how many times faster than real time the game runs (for example 0,
+     * 1, 2, or 8); A speed of 0 freezes game time;
+     * 
+     * @param value how many times faster than real time the game should run
+     * 
+     * @return a future that completes once the speed has changed
+     */
+    public CompletableFuture<Void> setSpeed(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("speed must be non-negative");
+        }
+        
+        return call(e -> {
+            if (running) {
+                // time up to now passed at the old speed
+                advance(currentGameTime());
+                baseGameTime = engine.getState().getTimeElapsed();
+                baseWallTime = System.nanoTime();
+            }
+            speed = value;
+            return null;
+        });
+    }
+    
+    /**
+     * Stops the clock for good and lets its thread end; The engine is brought
+     * up to the current time first;
+     * 
+     * @return a future that completes once the clock has shut down
+     */
+    public CompletableFuture<Void> shutDown() {
+        return call(e -> {
+            pauseNow();
+            shutDown = true;
+            return null;
+        });
+    }
+    
+    /**
+     * Hands the passed in player action to the clock's thread to be run on the
+     * engine; While a recorded game is being played back the action isn't run
+     * and fails, so it can't change how the replay ends;
+     * 
+     * @param command the action to run
+     * 
+     * @return whether or not the action succeeded once it has been run
+     */
+    public CompletableFuture<Boolean> submit(Command command) {
+        return call(e -> {
+            if (replaying) {
+                return false;
+            }
+            GameRecord record = e.getState().getRecord();
+            if (record != null && !command.isTutorialMode()) {
+                record.add(e.getState().getTimeElapsed(), command);
+            }
+            return command.apply(e);
+        });
+    }
+    
+    
+    /**
+     * Advances the engine to the passed in game time, running any commands
+     * from the script that fall due on the way at their own game times, and
+     * notes how far the game got in its record; If a command has moved game
+     * time past the passed in time (catching up does), the clock carries on
+     * from the command's time instead; Only called by the clock's thread;
+     * 
+     * @param time the game time to advance to in nanoseconds
+     */
+    private void advance(long time) {
+        GameRecord s = script;
+        while (s != null && scriptPosition < s.getNumCommands()
+                && s.getTime(scriptPosition) <= time && !engine.isGameOver()) {
+            engine.advanceTo(s.getTime(scriptPosition));
+            s.getCommand(scriptPosition++).apply(engine);
+        }
+        long reached = engine.getState().getTimeElapsed();
+        if (reached > time) {
+            time = reached;
+            baseGameTime = reached;
+            baseWallTime = System.nanoTime();
+        }
+        engine.advanceTo(time);
+        
+        GameRecord record = engine.getState().getRecord();
+        if (record != null) {
+            record.setEndTime(engine.getState().getTimeElapsed());
+        }
+    }
+    
+    /**
+     * Returns the current game time in nanoseconds; Only called by the clock's
+     * thread;
+     * 
+     * @return the current game time in nanoseconds
+     */
+    private long currentGameTime() {
+        if (!running) {
+            return baseGameTime;
+        }
+        return baseGameTime + (System.nanoTime() - baseWallTime) * speed;
+    }
+    
+    /**
+     * Brings the engine up to the current time and stops game time from
+     * passing; Only called by the clock's thread;
+     */
+    private void pauseNow() {
+        if (running) {
+            advance(currentGameTime());
+            baseGameTime = engine.getState().getTimeElapsed();
+            running = false;
+        }
+    }
+    
+    /**
+     * Runs every waiting task, advances the engine to the current time, and
+     * publishes a snapshot and the cells that changed, then sleeps until the
+     * next enemy spread, the next tick of the displayed time, or the next task
+     * (whichever comes first);
+     */
+    private void run() {
+        while (!shutDown) {
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                task.run();
+            }
+            
+            if (running && speed > 0) {
+                advance(currentGameTime());
+                if (engine.isGameOver()) {
+                    running = false;
+                }
+            }
+            snapshot = new GameSnapshot(engine.getState());
+            CellDiff diff = engine.getGrid().takeChanges();
+            Consumer<CellDiff> listener = changeListener;
+            if (listener != null && !diff.isEmpty()) {
+                listener.accept(diff);
+            }
+            
+            if (shutDown) {
+                break;
+            } else if (!running || speed == 0) {
+                LockSupport.park(this);
+            } else {
+                long now = currentGameTime();
+                long nextTick = (now / TICK_RATE + 1) * TICK_RATE;
+                long next = Math.min(engine.getNextSpreadTime(), nextTick);
+                if (script != null && scriptPosition < script.getNumCommands()) {
+                    next = Math.min(next, script.getTime(scriptPosition));
+                }
+                // convert the game time until then into wall time (rounding up)
+                LockSupport.parkNanos(this, (next - now + speed - 1) / speed);
+            }
+        }
+        
+        // fail anything that was handed over after shutting down; tasks
+        // handed over from here on are failed by call() instead, but one that
+        // is still being added must be waited for
+        terminated = true;
+        while (queue.hasPending()) {
+            Runnable task = queue.poll();
+            if (task != null) {
+                task.run();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+    
+    /**
+     * Creates and starts the clock's thread if it hasn't been already;
+     */
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            Thread t = new Thread(this::run, "Orbitron Game Clock");
+            t.setDaemon(true);
+            thread = t;
+            t.start();
+        }
+    }
+    
+}
@@ -0,0 +1,845 @@
+package engine;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the rules of the game on a GameState without any knowledge of how the
+ * game is displayed; Anything that the player would see happen (enemies
+ * spreading, cells being lost, the game ending) is reported to an
+ * EngineListener so the same engine can drive the JavaFX client or run
+ * headless simulations.
+ * 
+ * <pre>
+ * TERMINOLOGY
+ * 
+ * 1) enemy spread - an event where the enemies in each hostile cell spread to
+ * one random cell that is one step away; each enemy spread is accompanied by
+ * objectives regenerating their enemies; occurs at different times depending on
+ * the difficulty of the current game;
+ * 
+ * 2) step - A step is simply the distance from one cell to another. A step can be
+ * horizontal or vertical. To find the number of steps from one cell to another, count
+ * from the 1st cell's row to the 2nd cell's row and then to the 2nd cell's column.
+ * 
+ * In the figure below: the distance from [a] to [b] or [e] is 1 step; the
+ * distance from [a] to [i], [f], or [c] is 2 steps; the distance from [a] to
+ * [m], [d], [j], or [g] is 3 steps; the distance from [a] to [k] is 4 steps;
+ * the distance from [a] to [p] is 6 steps.
+ * 
+ * [a][b][c][d]
+ * [e][f][g][h]
+ * [i][j][k][l]
+ * [m][n][o][p]
+ * </pre>
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class GameEngine {
+    
+    /**
+     * The default number of soldiers that are stationed in a cell when it is
+     * captured;
+     */
+    private static final int DEF_STATIONED_SOLDIERS = 1;
+    /**
+     * The most enemy spreads that catching up plays out one by one; Any more
+     * than this only regenerate the objectives (see catchUp());
+     */
+    private static final int MAX_CATCH_UP_SPREADS = 1000;
+    /**
+     * The maximum number of enemies that an objective can regenerate each enemy
+     * spread;
+     */
+    private static final int MAX_REGEN_ENEMIES = 20;
+    /**
+     * The minimum number of enemies that a hostile cell must have to spread its
+     * enemies to an adjacent cell;
+     */
+    private static final int MIN_ENEMIES_TO_SPREAD = 10;
+    
+    /**
+     * The minimum number of enemies that an objective can regenerate each enemy
+     * spread;
+     */
+    private static final int MIN_REGEN_ENEMIES = 10;
+    /**
+     * The most that the time between enemy spreads can vary from the spread
+     * rate in nanoseconds;
+     */
+    private static final long SPREAD_JITTER = 1000000000L; // 1 second
+    
+    
+    /** The state of every cell in the current game; */
+    private GridState grid;
+    /** The listener that is told about anything the player would see happen; */
+    private EngineListener listener;
+    
+    /** The objectives: they regenerate enemies and must be captured to win; */
+    private ObjectiveRegistry objectives;
+    
+    /** The source of all of the randomness in enemy spreads and regeneration; */
+    private GameRandom random;
+    /** The grid index of the Space Port: the cell that you start with; */
+    private int spacePort = -1;
+    /** Works out the transfers of each enemy spread in parallel; */
+    private EnemySpread spread;
+    /** The GameState object that this engine runs the rules on; */
+    private GameState state;
+    /** The number of energy cores that the listener was last told about; */
+    private int lastCores = -1;
+    /** The number of building materials that the listener was last told about; */
+    private int lastMaterials = -1;
+    /** The score that the listener was last told about; */
+    private int lastScore = Integer.MIN_VALUE;
+    /** The number of soldiers that the listener was last told about; */
+    private int lastSoldiers = -1;
+    
+    
+    /**
+     * Creates a new GameEngine that runs the rules on the passed in GameState;
+     * 
+     * @param state the GameState that this engine runs the rules on
+     */
+    public GameEngine(GameState state) {
+        this.state = state;
+        this.grid = state.getGrid();
+        this.random = new GameRandom(state.getSeed());
+        this.spread = new EnemySpread(grid, MIN_ENEMIES_TO_SPREAD);
+        this.objectives = new ObjectiveRegistry(grid,
+                RegenCurve.uniform(MIN_REGEN_ENEMIES, MAX_REGEN_ENEMIES));
+        this.findSpecialCells();
+    }
+    
+    
+    /**
+     * Advances the game to the passed in game time, performing every enemy
+     * spread that falls due on the way (each at the exact game time that it
+     * was due); Stops early if the game ends; Game time never goes backwards,
+     * so a time earlier than the current one changes nothing;
+     * 
+     * @param timeElapsed the total game time to advance to in nanoseconds
+     */
+    public void advanceTo(long timeElapsed) {
+        while (!isGameOver() && timeElapsed >= getNextSpreadTime()) {
+            long spreadTime = getNextSpreadTime();
+            state.setTimeElapsed(spreadTime);
+            state.setTimeOfLastSpread(spreadTime);
+            step();
+        }
+        if (!isGameOver() && timeElapsed > state.getTimeElapsed()) {
+            state.setTimeElapsed(timeElapsed);
+        }
+        
+        if (listener != null) {
+            listener.timeChanged(state.getTimeElapsed());
+        }
+        checkScore();
+    }
+    
+    /**
+     * Performs all the game logic related to bombarding (destroying) a cell;
+     * 
+     * @param cell the cell being bombarded
+     * @param bombardCost the intensity of the bombardment based on the number
+     *            of energy cores that the player decided to use when bombarding
+     * @param tutorialMode whether or not the tutorial is taking place (wherever
+     *            tutorialMode is seen it means that it is needed to ensure that
+     *            the tutorial does not change the player's resources, captured
+     *            cells, or other stats before the game even starts)
+     * 
+     * @return whether or not the cell was able to be bombarded based on the
+     *         player's resources
+     */
+    public boolean bombardCell(CellState cell, int bombardCost, boolean tutorialMode) {
+        
+        if (state.getCores() >= bombardCost || tutorialMode) {
+            if (!tutorialMode) {
+                // UPDATE PLAYER RESOURCE TOTALS
+                state.setCores(state.getCores() - bombardCost);
+            }
+            /*
+             * destroy the cell only if the setEnemies() returns false which
+             * means that the bombard cost was greater than the enemies because
+             * setEnemies() returns false when the passed in value is negative
+             */
+            if (!cell.setEnemies(cell.getEnemies() - bombardCost)) {
+                // UPDATE CELL VALUES
+                // the cell is now destroyed
+                cell.setDestroyed(true);
+                // is no longer hostile
+                cell.setHostile(false);
+                // is no longer captured
+                cell.setCaptured(false);
+                // is now neutral
+                cell.setNeutral(true);
+                /*
+                 * destroy any resources held within the cell; set the cell's
+                 * resources to 0 effectively "destroying" them
+                 */
+                cell.setSoldiers(0);
+                cell.setMaterials(0);
+                cell.setCores(0);
+            }
+            checkScore();
+            return true;
+        }
+        
+        return false;
+    
+    
+    }
+    
+    /**
+     * Performs all of the game logic dealing with building a structure on a
+     * cell;
+     * 
+     * @param cell the cell being built on
+     * @param option the name of the structure being built on the cell (see
+     *            Building)
+     * @param tutorialMode whether or not the tutorial is taking place (wherever
+     *            tutorialMode is seen it means that it is needed to ensure that
+     *            the tutorial does not change the player's resources, captured
+     *            cells, or other stats before the game even starts)
+     * 
+     * @return whether or not the structure was able to be built based on the
+     *         player's resources
+     * 
+     * @throws IllegalArgumentException if no structure has that name
+     */
+    public boolean build(CellState cell, String option, boolean tutorialMode) {
+        return build(cell, Building.forName(option), tutorialMode);
+    }
+    
+    /**
+     * Performs all of the game logic dealing with building a structure on a
+     * cell; The cell must be captured, not built on yet, and of a type that
+     * the structure can go on, and the player must be able to pay the whole
+     * cost: this is all checked and the cost paid in one step (see
+     * GameState.spend()), so a failed build leaves the game untouched;
+     * 
+     * @param cell the cell being built on
+     * @param building the structure being built on the cell
+     * @param tutorialMode whether or not the tutorial is taking place (the
+     *            structure is built without any checks or costs)
+     * 
+     * @return whether or not the structure was able to be built
+     */
+    public boolean build(CellState cell, Building building, boolean tutorialMode) {
+        GridState cellGrid = cell.getGrid();
+        if (tutorialMode) {
+            cellGrid.setBuilding(cell.getIndex(), building);
+            return true;
+        }
+        if (!canBuildOn(cellGrid, cell.getIndex(), building)
+                || !state.spend(building.getCost(Building.SOLDIERS),
+                        building.getCost(Building.MATERIALS), building.getCost(Building.CORES))) {
+            return false;
+        }
+        raiseMaximums(building);
+        finishBuilding(cellGrid, cell.getIndex(), building);
+        checkScore();
+        return true;
+    }
+    
+    /**
+     * Builds all of the passed in structures in one go: either every one of
+     * them is built or (if any cell can't take its structure, a cell is given
+     * twice, or the player can't pay the total cost) none of them are; The
+     * total cost is paid first, then every structure raises the resource
+     * maximums, and then every structure's conversion is added, so the result
+     * doesn't depend on the order of the structures; Nothing is allocated, and
+     * when run as one Command the cells are all redrawn together;
+     * 
+     * @param cells the grid indices of the cells to build on
+     * @param buildings the structure to build on each of the cells
+     * 
+     * @return whether or not the structures were built
+     */
+    public boolean buildAll(int[] cells, Building[] buildings) {
+        if (cells.length != buildings.length) {
+            throw new IllegalArgumentException("need one building per cell");
+        }
+        int soldiers = 0;
+        int materials = 0;
+        int cores = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (!canBuildOn(grid, cells[i], buildings[i])) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (cells[j] == cells[i]) {
+                    return false;
+                }
+            }
+            soldiers += buildings[i].getCost(Building.SOLDIERS);
+            materials += buildings[i].getCost(Building.MATERIALS);
+            cores += buildings[i].getCost(Building.CORES);
+        }
+        if (!state.spend(soldiers, materials, cores)) {
+            return false;
+        }
+        
+        for (Building building : buildings) {
+            raiseMaximums(building);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            finishBuilding(grid, cells[i], buildings[i]);
+        }
+        checkScore();
+        return true;
+    }
+    
+    /**
+     * Returns whether or not the player has the resources to build the passed
+     * in type of structure (including the resources that it converts);
+     * 
+     * @param option the name of the structure
+     * 
+     * @return whether or not the player can afford to build the structure
+     * 
+     * @throws IllegalArgumentException if no structure has that name
+     */
+    public boolean canBuild(String option) {
+        return canBuild(Building.forName(option));
+    }
+    
+    /**
+     * Returns whether or not the player has the resources to build the passed
+     * in structure (including the resources that it converts);
+     * 
+     * @param building the structure
+     * 
+     * @return whether or not the player can afford to build the structure
+     */
+    public boolean canBuild(Building building) {
+        return state.canSpend(building.getCost(Building.SOLDIERS),
+                building.getCost(Building.MATERIALS), building.getCost(Building.CORES));
+    }
+    
+    /**
+     * Performs all game logic related to capturing a cell;
+     * 
+     * @param cell the cell being captured
+     * @param tutorialMode whether or not the tutorial is taking place (wherever
+     *            tutorialMode is seen it means that it is needed to ensure that
+     *            the tutorial does not change the player's resources, captured
+     *            cells, or other stats before the game even starts)
+     * 
+     * @return whether or not the cell was able to be captured based on the
+     *         player's resources
+     */
+    public boolean captureCell(CellState cell, boolean tutorialMode) {
+        /*
+         * a soldier can defeat 2 enemies so the capture cost for a cell is the
+         * number of enemies in the cell divided by 2 plus the default number of
+         * soldiers to station in a cell after capturing
+         */
+        int capCost = cell.getEnemies() / 2 + DEF_STATIONED_SOLDIERS;
+        
+        if (state.getSoldiers() >= capCost || tutorialMode) {
+            if (!tutorialMode) {
+                // UPDATE PLAYER RESOURCE TOTALS
+                state.setSoldiers(state.getSoldiers() - capCost);
+            }
+            // UPDATE CELL VALUES
+            // the cell is now captured
+            cell.setCaptured(true);
+            // is no longer hostile after being captured
+            cell.setHostile(false);
+            // is no longer neutral after being captured
+            cell.setNeutral(false);
+            
+            if (!tutorialMode) {
+                // extract the resources from the cell
+                // update the player's resource totals
+                state.setSoldiers(state.getSoldiers() + cell.getSoldiers());
+                state.setMaterials(state.getMaterials() + cell.getMaterials());
+                state.setCores(state.getCores() + cell.getCores());
+            }
+            // set the cell's resources to 0 effectively "extracting" them
+            cell.setSoldiers(0);
+            cell.setMaterials(0);
+            cell.setCores(0);
+            
+            cell.setStationedSoldiers(DEF_STATIONED_SOLDIERS);
+            cell.setEnemies(0);
+            
+            // the game is won when the last of the objectives is captured
+            if (cell.getGrid() == grid && objectives.contains(cell.getIndex())
+                    && objectives.allCaptured()) {
+                endGame('W');
+            }
+            
+            checkScore();
+            
+            return true;
+        }
+        
+        return false;
+    
+    }
+    
+    /**
+     * Catches the game up on the passed in amount of time that the player was
+     * away (for example between saving a game and loading it again): the
+     * enemies spread and the objectives regenerate as if the game had kept
+     * running, all at once; The first MAX_CATCH_UP_SPREADS spreads are played
+     * out one by one exactly as they would have been, and then (because a
+     * map left alone that long has long since settled into a front line) any
+     * spreads after those only regenerate the objectives, which is worked out
+     * directly from the regen curve rather than spread by spread, so being
+     * away for a month costs no more than being away for a few hours; The
+     * player wasn't watching, so the listener is only told how the game ended
+     * up (its time, score, resources, and whether it was lost), not about
+     * every cell that changed;
+     * 
+     * @param awayTime the amount of time that the player was away in
+     *            nanoseconds
+     * 
+     * @return the number of enemy spreads that were caught up on
+     */
+    public long catchUp(long awayTime) {
+        if (awayTime < 0) {
+            throw new IllegalArgumentException("time away must be non-negative");
+        }
+        long target = state.getTimeElapsed() + awayTime;
+        long spreadsBefore = state.getNumSpreads();
+        EngineListener watching = listener;
+        listener = null;
+        try {
+            for (int i = 0; i < MAX_CATCH_UP_SPREADS && !isGameOver()
+                    && target >= getNextSpreadTime(); i++) {
+                long spreadTime = getNextSpreadTime();
+                state.setTimeElapsed(spreadTime);
+                state.setTimeOfLastSpread(spreadTime);
+                step();
+            }
+            
+            long missed = isGameOver() ? 0
+                    : (target - state.getTimeOfLastSpread()) / state.getSpreadRate();
+            if (missed > 0 && target >= getNextSpreadTime()) {
+                objectives.regenOver(random(), state.getNumSpreads(), missed);
+                state.setNumSpreads(state.getNumSpreads() + missed);
+                state.setTimeOfLastSpread(
+                        state.getTimeOfLastSpread() + missed * state.getSpreadRate());
+            }
+        } finally {
+            listener = watching;
+        }
+        
+        if (isGameOver()) {
+            if (listener != null) {
+                listener.timeChanged(state.getTimeElapsed());
+                listener.gameEnded(state.getEndGame());
+            }
+            checkScore();
+        } else {
+            // any spread left (the jitter can leave one due) happens here
+            advanceTo(target);
+        }
+        return state.getNumSpreads() - spreadsBefore;
+    }
+    
+    /**
+     * Sets the number of stationed soldiers in the passed in cell to the passed
+     * in value;
+     * 
+     * @param cell the cell whose stationed soldiers are being changed
+     * @param value the desired number of stationed soldiers
+     * @param tutorialMode whether or not the tutorial is taking place (wherever
+     *            tutorialMode is seen it means that it is needed to ensure that
+     *            the tutorial does not change the player's resources, captured
+     *            cells, or other stats before the game even starts)
+     * 
+     * @return whether or not the the desired number of soldiers could be
+     *         stationed
+     */
+    public boolean changeStationedSoldiers(CellState cell, int value, boolean tutorialMode) {
+        int difference = cell.getStationedSoldiers() - value;
+        if (tutorialMode || state.setSoldiers(state.getSoldiers() + difference)) {
+            cell.setStationedSoldiers(value);
+            checkScore();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Tells the listener about the player's score and resources if they have
+     * changed since the last time that they were checked; The score also
+     * changes as time passes, so whatever advances the game's time should call
+     * this afterwards;
+     */
+    public void checkScore() {
+        int score = state.getScore();
+        if (score != lastScore) {
+            lastScore = score;
+            if (listener != null) {
+                listener.scoreChanged(score);
+            }
+        }
+        
+        int soldiers = state.getSoldiers();
+        int materials = state.getMaterials();
+        int cores = state.getCores();
+        if (soldiers != lastSoldiers || materials != lastMaterials || cores != lastCores) {
+            lastSoldiers = soldiers;
+            lastMaterials = materials;
+            lastCores = cores;
+            if (listener != null) {
+                listener.resourcesChanged(soldiers, materials, cores);
+            }
+        }
+    }
+    
+    /**
+     * Ends the game logically and tells the listener which type of end game
+     * occurred;
+     * 
+     * @param option the type of end game that occurred: 'W' means the player
+     *            won by capturing all 3 objectives; 'L' means the player lost
+     *            because the enemies captured the Space Port; 'F' means the
+     *            player forfeited by bombarding their own Space Port
+     */
+    public void endGame(char option) {
+        if (option != 'L' && option != 'W' && option != 'F') {
+            throw new IllegalArgumentException("option must be 'L', 'W', or 'F' ");
+        }
+        
+        state.setEndGame(option);
+        checkScore();
+        if (listener != null) {
+            listener.gameEnded(option);
+        }
+    }
+    
+    /**
+     * Returns the cell states of the current game map; They are only made the
+     * first time that they are asked for, so the engine can run maps that are
+     * too big to keep a view of every cell;
+     * 
+     * @return the cell states of the current game map
+     */
+    public CellState[][] getGameMap() {
+        return state.getGameMap();
+    }
+    
+    /**
+     * Returns the registry of the objectives in the current game map; Its regen
+     * curve can be changed to tune how quickly objectives recover;
+     * 
+     * @return the registry of the objectives in the current game map
+     */
+    public ObjectiveRegistry getObjectives() {
+        return objectives;
+    }
+    
+    /**
+     * Returns the Space Port in the current game map;
+     * 
+     * @return the Space Port in the current game map
+     */
+    public CellState getSpacePort() {
+        return spacePort < 0 ? null : view(spacePort);
+    }
+    
+    /**
+     * Returns the state of every cell in the current game map;
+     * 
+     * @return the state of every cell in the current game map
+     */
+    public GridState getGrid() {
+        return grid;
+    }
+    
+    /**
+     * Returns the game time at which the enemies will next spread in
+     * nanoseconds;
+     * 
+     * @return the game time at which the enemies will next spread in
+     *         nanoseconds
+     */
+    public long getNextSpreadTime() {
+        long spreads = state.getNumSpreads();
+        if (spreads == 0) {
+            return state.getSpreadRate();
+        }
+        // the rest happen within a second either way of the spread rate
+        long bits = GameRandom.bits(random().key(GameRandom.SPREAD_TIMING, spreads), 0);
+        return state.getTimeOfLastSpread() + state.getSpreadRate()
+                + (GameRandom.nextInt(bits, 3) - 1) * SPREAD_JITTER;
+    }
+    
+    /**
+     * Returns the GameState that this engine runs the rules on;
+     * 
+     * @return the GameState that this engine runs the rules on
+     */
+    public GameState getState() {
+        return state;
+    }
+    
+    /**
+     * Returns whether or not the game has ended;
+     * 
+     * @return whether or not the game has ended
+     */
+    public boolean isGameOver() {
+        return state.getEndGame() != ' ';
+    }
+    
+    /**
+     * Regenerates the enemies in each of the objectives as long as the
+     * objective is still hostile; How many enemies regenerate is decided by
+     * the objective registry's regen curve;
+     */
+    public void regenObjectiveEnemies() {
+        objectives.regen(random(), state.getNumSpreads());
+    }
+    
+    /**
+     * Performs all game logic related to scouting a cell;
+     * 
+     * @param cell the cell being scouted
+     * @param tutorialMode whether or not the tutorial is taking place (wherever
+     *            tutorialMode is seen it means that it is needed to ensure that
+     *            the tutorial does not change the player's resources, captured
+     *            cells, or other stats before the game even starts)
+     * @return whether or not the cell was successfully scouted
+     */
+    public boolean scoutCell(CellState cell, boolean tutorialMode) {
+        int scoutCost = 1;
+        
+        if (state.getSoldiers() >= scoutCost || tutorialMode) {
+            if (!tutorialMode) {
+                // UPDATE PLAYER RESOURCE TOTALS
+                state.setSoldiers(state.getSoldiers() - scoutCost);
+                
+                // UPDATE CELL VALUES
+                // the cell is now scouted
+                cell.setScouted(true);
+            } else {
+                cell.setScouted(true);
+                cell.setCapturable(true);
+            }
+            checkScore();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Sets the listener that is told about anything the player would see
+     * happen; A null listener means that nobody is watching (a headless game);
+     * 
+     * @param listener the listener for this engine's events
+     */
+    public void setListener(EngineListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Sets the pool that each enemy spread is computed in; The result of a
+     * spread is the same no matter how many threads the pool has;
+     * 
+     * @param pool the pool that each enemy spread is computed in
+     */
+    public void setSpreadPool(ForkJoinPool pool) {
+        spread.setPool(pool);
+    }
+    
+    /**
+     * Sets the potential states of the passed in cell from its own state and
+     * the captured cells around it; The grid keeps every cell's potential
+     * states up to date as cells are captured, lost, scouted, and destroyed, so
+     * this is only needed after potential states have been set by hand;
+     * 
+     * @param gc the cell whose potential states are to be set
+     */
+    public void setPotentialStatesOf(CellState gc) {
+        gc.getGrid().updatePotentialStates(gc.getIndex());
+    }
+    
+    /**
+     * Spreads any enemies in hostile cells to the cells around them; Every
+     * transfer is computed from the map as it was before the spread (see
+     * EnemySpread) and then applied here in order of grid index, so enemies
+     * that arrive in a cell can't spread again until the next spread and the
+     * result doesn't depend on the order that cells are looked at; Only the
+     * cells that send or receive enemies are visited;
+     * 
+     * @return whether or not the enemies captured the Space Port during this
+     *         spread;
+     */
+    public boolean spreadEnemies() {
+        spread.compute(random().key(GameRandom.SPREAD, state.getNumSpreads()));
+        
+        boolean spacePortLost = false;
+        for (int i = 0; i < spread.getNumAffected(); i++) {
+            int cell = spread.getAffected(i);
+            int in = spread.getIncoming(cell);
+            int out = spread.getOutgoing(cell);
+            
+            if (grid.isFlagSet(cell, GridState.CAPTURED)) {
+                /*
+                 * set the number of soldiers after battle to be the cell's
+                 * soldiers times 2 minus all of the enemies attacking because a
+                 * soldier can defeat 2 enemies
+                 */
+                int soldiersAfterBattle = grid.getStationedSoldiers(cell) * 2 - in;
+                if (soldiersAfterBattle < 0) { // the captured cell was defeated
+                    // remove stationed soldiers (they were defeated)
+                    grid.setStationedSoldiers(cell, 0);
+                    // the enemies left over occupy the cell
+                    grid.setEnemies(cell, -soldiersAfterBattle);
+                    grid.setFlag(cell, GridState.HOSTILE, true);
+                    grid.setFlag(cell, GridState.NEUTRAL, false);
+                    grid.setFlag(cell, GridState.CAPTURED, false);
+                    
+                    if (listener != null) {
+                        CellState view = view(cell);
+                        listener.enemiesSpread(view);
+                        listener.cellLost(view);
+                    }
+                    
+                    // the game ends if the space port has just been captured
+                    if (cell == spacePort) {
+                        spacePortLost = true;
+                    }
+                
+                } else { // the captured cell defeated the enemies
+                    grid.setStationedSoldiers(cell, soldiersAfterBattle);
+                    
+                    if (listener != null) {
+                        listener.enemiesSpread(view(cell));
+                    }
+                }
+            
+            } else if (grid.isFlagSet(cell, GridState.NEUTRAL)) {
+                grid.setEnemies(cell, in);
+                grid.setFlag(cell, GridState.HOSTILE, true);
+                grid.setFlag(cell, GridState.NEUTRAL, false);
+                
+                if (listener != null) {
+                    listener.enemiesSpread(view(cell));
+                }
+            
+            } else { // cell is already hostile (and may be spreading too)
+                grid.setEnemies(cell, grid.getEnemies(cell) - out + in);
+            }
+        }
+        return spacePortLost;
+    }
+    
+    /**
+     * Performs one enemy spread and the objective regeneration that goes along
+     * with it; Ends the game in a loss if the enemies capture the Space Port;
+     * Does nothing once the game has ended.
+     * 
+     * @return whether or not the game has ended
+     */
+    public boolean step() {
+        if (isGameOver()) {
+            return true;
+        }
+        
+        boolean spacePortLost = spreadEnemies();
+        if (!spacePortLost) {
+            regenObjectiveEnemies();
+        }
+        // each spread draws from its own numbered tick of the game's randomness
+        state.setNumSpreads(state.getNumSpreads() + 1);
+        if (spacePortLost) {
+            endGame('L');
+            return true;
+        }
+        checkScore();
+        return false;
+    }
+    
+    
+    /**
+     * Returns whether or not the passed in structure can go on the passed in
+     * cell: the cell must be captured, not built on yet, and of a type that
+     * the structure can be built on;
+     * 
+     * @param cellGrid the map that the cell is on
+     * @param cell the grid index of the cell
+     * @param building the structure
+     * 
+     * @return whether or not the structure can go on the cell
+     */
+    private static boolean canBuildOn(GridState cellGrid, int cell, Building building) {
+        return cellGrid.isFlagSet(cell, GridState.CAPTURED)
+                && !cellGrid.isFlagSet(cell, GridState.BUILT_ON)
+                && cellGrid.isCompatible(cell, building);
+    }
+    
+    /**
+     * Establishes an easy reference to the Space Port;
+     */
+    private void findSpecialCells() {
+        for (int cell = 0; cell < grid.getSize(); cell++) {
+            // establish easy reference to Space Port cell
+            if (grid.getTypeId(cell) == GridState.SPACE_PORT_TYPE) {
+                spacePort = cell;
+            }
+        }
+    }
+    
+    /**
+     * Puts the passed in structure on the passed in cell and adds the
+     * resources that it converts to the player's (up to their maximums); The
+     * cost must already have been paid;
+     * 
+     * @param cellGrid the map that the cell is on
+     * @param cell the grid index of the cell
+     * @param building the structure being built
+     */
+    private void finishBuilding(GridState cellGrid, int cell, Building building) {
+        cellGrid.setBuilding(cell, building);
+        // the setters keep each resource within its maximum
+        state.setSoldiers(state.getSoldiers() + building.getGain(Building.SOLDIERS));
+        state.setMaterials(state.getMaterials() + building.getGain(Building.MATERIALS));
+        state.setCores(state.getCores() + building.getGain(Building.CORES));
+    }
+    
+    /**
+     * Raises the player's resource maximums by as much as the passed in
+     * structure does;
+     * 
+     * @param building the structure being built
+     */
+    private void raiseMaximums(Building building) {
+        state.setSoldierMax(state.getSoldierMax() + building.getMaxIncrease(Building.SOLDIERS));
+        state.setMaterialMax(
+                state.getMaterialMax() + building.getMaxIncrease(Building.MATERIALS));
+        state.setCoreMax(state.getCoreMax() + building.getMaxIncrease(Building.CORES));
+    }
+    
+    /**
+     * Returns the source of the game's randomness, first switching to the
+     * state's seed if it has changed (for example by restoring a snapshot of
+     * another copy of the game);
+     * 
+     * @return the source of the game's randomness
+     */
+    private GameRandom random() {
+        if (random.getSeed() != state.getSeed()) {
+            random = new GameRandom(state.getSeed());
+        }
+        return random;
+    }
+    
+    /**
+     * Returns a view of the passed in cell to hand to the listener;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return a view of the cell
+     */
+    private CellState view(int cell) {
+        return new CellState(grid, grid.getRow(cell), grid.getCol(cell));
+    }
+    
+}
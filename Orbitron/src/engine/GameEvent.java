@@ -0,0 +1,340 @@
+package engine;
+
+/**
+ * Something that happened in a game that the player (or anything else
+ * watching the game) might want to know about; Events are made by an
+ * EventPublisher on the thread that changes the game and can't be changed, so
+ * they are safe to hand to any other thread. Each kind of event is its own
+ * class below, and getType() tells them apart without instanceof checks.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public abstract class GameEvent {
+    
+    /**
+     * The kinds of events;
+     */
+    public enum Type {
+        /** One of the player's captured cells was taken over by enemies; */
+        CELL_LOST,
+        /** Enemies spread into a cell that wasn't already hostile; */
+        ENEMIES_SPREAD,
+        /** The game ended; */
+        GAME_ENDED,
+        /** The player's soldiers, building materials, or energy cores changed; */
+        RESOURCES_CHANGED,
+        /** The player's score changed; */
+        SCORE_CHANGED,
+        /** The game was advanced to a new game time; */
+        TIME_CHANGED
+    }
+    
+    
+    /** The game time that the event happened at in nanoseconds; */
+    private final long timeElapsed;
+    /** The kind of event; */
+    private final Type type;
+    
+    
+    /**
+     * Creates a new GameEvent;
+     * 
+     * @param type the kind of event
+     * @param timeElapsed the game time that the event happened at in
+     *            nanoseconds
+     */
+    private GameEvent(Type type, long timeElapsed) {
+        this.type = type;
+        this.timeElapsed = timeElapsed;
+    }
+    
+    
+    /**
+     * Returns the game time that the event happened at in nanoseconds;
+     * 
+     * @return the game time that the event happened at in nanoseconds
+     */
+    public long getTimeElapsed() {
+        return timeElapsed;
+    }
+    
+    /**
+     * Returns the kind of event;
+     * 
+     * @return the kind of event
+     */
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Returns whether or not the event may be dropped when a subscriber's
+     * buffer is full; Only the end of the game can't be, because nothing
+     * else tells the subscriber that the game is over;
+     * 
+     * @return whether or not the event may be dropped
+     */
+    public boolean isDroppable() {
+        return type != Type.GAME_ENDED;
+    }
+    
+    @Override
+    public String toString() {
+        return type + " at " + timeElapsed;
+    }
+    
+    
+    /**
+     * An event that happened to one cell;
+     */
+    public abstract static class CellEvent extends GameEvent {
+        
+        /** The column of the cell; */
+        private final int col;
+        /** The row of the cell; */
+        private final int row;
+        
+        
+        /**
+         * Creates a new CellEvent;
+         * 
+         * @param type the kind of event
+         * @param timeElapsed the game time that the event happened at
+         * @param cell the cell that the event happened to
+         */
+        private CellEvent(Type type, long timeElapsed, CellState cell) {
+            super(type, timeElapsed);
+            this.row = cell.getRow();
+            this.col = cell.getCol();
+        }
+        
+        
+        /**
+         * Returns the column of the cell that the event happened to;
+         * 
+         * @return the column of the cell
+         */
+        public int getCol() {
+            return col;
+        }
+        
+        /**
+         * Returns the row of the cell that the event happened to;
+         * 
+         * @return the row of the cell
+         */
+        public int getRow() {
+            return row;
+        }
+        
+        @Override
+        public String toString() {
+            return super.toString() + " (" + row + ", " + col + ")";
+        }
+    
+    }
+    
+    /**
+     * One of the player's captured cells was taken over by enemies;
+     */
+    public static final class CellLost extends CellEvent {
+        
+        /**
+         * Creates a new CellLost event;
+         * 
+         * @param timeElapsed the game time that the cell was lost at
+         * @param cell the cell that was lost
+         */
+        public CellLost(long timeElapsed, CellState cell) {
+            super(Type.CELL_LOST, timeElapsed, cell);
+        }
+    
+    }
+    
+    /**
+     * Enemies spread into a cell that wasn't already hostile;
+     */
+    public static final class EnemiesSpread extends CellEvent {
+        
+        /**
+         * Creates a new EnemiesSpread event;
+         * 
+         * @param timeElapsed the game time that the enemies spread at
+         * @param cell the cell that the enemies spread into
+         */
+        public EnemiesSpread(long timeElapsed, CellState cell) {
+            super(Type.ENEMIES_SPREAD, timeElapsed, cell);
+        }
+    
+    }
+    
+    /**
+     * The game ended;
+     */
+    public static final class GameEnded extends GameEvent {
+        
+        /** The type of end game that occurred: 'W', 'L', or 'F'; */
+        private final char option;
+        /** The player's totals when the game ended; */
+        private final GameSnapshot totals;
+        
+        
+        /**
+         * Creates a new GameEnded event;
+         * 
+         * @param option the type of end game that occurred: 'W', 'L', or 'F'
+         * @param totals the player's totals when the game ended
+         */
+        public GameEnded(char option, GameSnapshot totals) {
+            super(Type.GAME_ENDED, totals.getTimeElapsed());
+            this.option = option;
+            this.totals = totals;
+        }
+        
+        
+        /**
+         * Returns the type of end game that occurred: 'W' means the player won
+         * by capturing all 3 objectives; 'L' means the player lost because the
+         * enemies captured the Space Port; 'F' means the player forfeited by
+         * bombarding their own Space Port;
+         * 
+         * @return the type of end game that occurred
+         */
+        public char getOption() {
+            return option;
+        }
+        
+        /**
+         * Returns the player's totals when the game ended;
+         * 
+         * @return the player's totals when the game ended
+         */
+        public GameSnapshot getTotals() {
+            return totals;
+        }
+        
+        @Override
+        public String toString() {
+            return super.toString() + " " + option;
+        }
+    
+    }
+    
+    /**
+     * The player's soldiers, building materials, or energy cores changed;
+     */
+    public static final class ResourcesChanged extends GameEvent {
+        
+        /** The number of energy cores that the player now has; */
+        private final int cores;
+        /** The number of building materials that the player now has; */
+        private final int materials;
+        /** The number of soldiers that the player now has; */
+        private final int soldiers;
+        
+        
+        /**
+         * Creates a new ResourcesChanged event;
+         * 
+         * @param timeElapsed the game time that the resources changed at
+         * @param soldiers the number of soldiers that the player now has
+         * @param materials the number of building materials that the player now
+         *            has
+         * @param cores the number of energy cores that the player now has
+         */
+        public ResourcesChanged(long timeElapsed, int soldiers, int materials, int cores) {
+            super(Type.RESOURCES_CHANGED, timeElapsed);
+            this.soldiers = soldiers;
+            this.materials = materials;
+            this.cores = cores;
+        }
+        
+        
+        /**
+         * Returns the number of energy cores that the player now has;
+         * 
+         * @return the number of energy cores that the player now has
+         */
+        public int getCores() {
+            return cores;
+        }
+        
+        /**
+         * Returns the number of building materials that the player now has;
+         * 
+         * @return the number of building materials that the player now has
+         */
+        public int getMaterials() {
+            return materials;
+        }
+        
+        /**
+         * Returns the number of soldiers that the player now has;
+         * 
+         * @return the number of soldiers that the player now has
+         */
+        public int getSoldiers() {
+            return soldiers;
+        }
+        
+        @Override
+        public String toString() {
+            return super.toString() + " " + soldiers + "/" + materials + "/" + cores;
+        }
+    
+    }
+    
+    /**
+     * The player's score changed;
+     */
+    public static final class ScoreChanged extends GameEvent {
+        
+        /** The player's new score; */
+        private final int score;
+        
+        
+        /**
+         * Creates a new ScoreChanged event;
+         * 
+         * @param timeElapsed the game time that the score changed at
+         * @param score the player's new score
+         */
+        public ScoreChanged(long timeElapsed, int score) {
+            super(Type.SCORE_CHANGED, timeElapsed);
+            this.score = score;
+        }
+        
+        
+        /**
+         * Returns the player's new score;
+         * 
+         * @return the player's new score
+         */
+        public int getScore() {
+            return score;
+        }
+        
+        @Override
+        public String toString() {
+            return super.toString() + " " + score;
+        }
+    
+    }
+    
+    /**
+     * The game was advanced to a new game time;
+     */
+    public static final class TimeChanged extends GameEvent {
+        
+        /**
+         * Creates a new TimeChanged event;
+         * 
+         * @param timeElapsed the new game time in nanoseconds
+         */
+        public TimeChanged(long timeElapsed) {
+            super(Type.TIME_CHANGED, timeElapsed);
+        }
+    
+    }
+    
+}
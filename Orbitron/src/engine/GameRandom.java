@@ -0,0 +1,127 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Hands out all of the randomness used in a game from a single seed; Nothing
+ * here has any state besides the seed: every random value is a hash of the
+ * seed, the purpose it is for (its stream), the enemy spread that it is for
+ * (its tick), and the cell that it is for. Any cell's randomness on any tick
+ * can therefore be worked out by any thread in any order, and replaying a game
+ * from its seed gives the same game.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class GameRandom {
+    
+    /** The stream used to decide where enemies spread to; */
+    public static final int SPREAD = 1;
+    /** The stream used to decide how many enemies objectives regenerate; */
+    public static final int REGEN = 2;
+    /** The stream used to decide how long until the next enemy spread; */
+    public static final int SPREAD_TIMING = 3;
+    /** The stream used to generate the game map; */
+    public static final int MAP = 4;
+    
+    /** The golden ratio constant that SplitMix64 steps its counter by; */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    
+    /** The seed that all of this game's randomness comes from; */
+    private final long seed;
+    
+    
+    /**
+     * Creates a new GameRandom based on the passed in seed;
+     * 
+     * @param seed the seed that all of the game's randomness comes from
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+    }
+    
+    
+    /**
+     * Returns 64 random bits for the passed in cell from a key made by key();
+     * Doesn't allocate anything, so it is safe to call once per cell per tick;
+     * 
+     * @param key the key of the stream and tick (see key())
+     * @param cell the grid index of the cell
+     * 
+     * @return 64 random bits that only depend on the key and the cell
+     */
+    public static long bits(long key, int cell) {
+        return mix(key + (cell + 1) * GOLDEN_GAMMA);
+    }
+    
+    /**
+     * Turns the passed in random bits into a value from 0 (inclusive) to bound
+     * (exclusive);
+     * 
+     * @param bits random bits from bits()
+     * @param bound the upper bound (exclusive); must be positive
+     * 
+     * @return a value from 0 (inclusive) to bound (exclusive)
+     */
+    public static int nextInt(long bits, int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        return (int) ((bits >>> 1) % bound);
+    }
+    
+    
+    /**
+     * Returns the seed that all of this game's randomness comes from;
+     * 
+     * @return the seed that all of this game's randomness comes from
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Returns the key for the passed in stream and tick; A key is mixed with a
+     * cell's index by bits() to get that cell's random bits;
+     * 
+     * @param stream the purpose that the randomness is for (SPREAD, REGEN,
+     *            SPREAD_TIMING, or MAP)
+     * @param tick the number of the enemy spread that the randomness is for
+     * 
+     * @return the key for the stream and tick
+     */
+    public long key(int stream, long tick) {
+        return mix(mix(seed + stream * GOLDEN_GAMMA) + (tick + 1) * GOLDEN_GAMMA);
+    }
+    
+    /**
+     * Returns a random number generator for the passed in stream, tick, and
+     * cell; Generators for different streams, ticks, or cells are independent
+     * of each other;
+     * 
+     * @param stream the purpose that the randomness is for
+     * @param tick the number of the enemy spread that the randomness is for
+     * @param cell the grid index of the cell (or any fixed number when the
+     *            randomness isn't for a cell)
+     * 
+     * @return a random number generator for the stream, tick, and cell
+     */
+    public SplittableRandom stream(int stream, long tick, int cell) {
+        return new SplittableRandom(bits(key(stream, tick), cell));
+    }
+    
+    
+    /**
+     * Scrambles the passed in value (this is the SplitMix64 finalizer);
+     * 
+     * @param z the value to scramble
+     * 
+     * @return the scrambled value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+}
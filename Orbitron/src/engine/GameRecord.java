@@ -0,0 +1,212 @@
+package engine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Everything needed to play a game over again exactly: the size, seed, and
+ * difficulty that the game was created with, and every command that the
+ * player gave along with the game time that it was run at; The seed decides
+ * the map and every enemy spread, and commands are run between spreads at
+ * known game times, so running the same commands at the same times on a game
+ * created the same way always ends in the same state. A record is kept with
+ * its game's state (so it is saved along with it) and filled in by the
+ * GameClock's thread.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class GameRecord implements Serializable {
+    
+    /**
+     * The class's serial ID number;
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    
+    /** The number of columns in the game's map; */
+    private final int cols;
+    /** The commands that the player gave in the order they were run; */
+    private final ArrayList<Command> commands;
+    /** The difficulty of the game; */
+    private final String difficulty;
+    /** The latest game time that the game is known to have reached; */
+    private long endTime;
+    /** The number of rows in the game's map; */
+    private final int rows;
+    /** The seed that the game's map and randomness come from; */
+    private final long seed;
+    /** The game time that each command was run at in nanoseconds; */
+    private long[] times;
+    
+    
+    /**
+     * Creates a new empty GameRecord for a game created with the passed in
+     * values;
+     * 
+     * @param rows the number of rows in the game's map
+     * @param cols the number of columns in the game's map
+     * @param difficulty the difficulty of the game
+     * @param seed the seed that the game's map and randomness come from
+     */
+    public GameRecord(int rows, int cols, String difficulty, long seed) {
+        this.rows = rows;
+        this.cols = cols;
+        this.difficulty = difficulty;
+        this.seed = seed;
+        this.commands = new ArrayList<>();
+        this.times = new long[16];
+    }
+    
+    /**
+     * Creates a new GameRecord holding the same commands as the passed in
+     * one; The commands themselves can't change, so they are shared;
+     * 
+     * @param other the record to copy
+     */
+    public GameRecord(GameRecord other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.difficulty = other.difficulty;
+        this.seed = other.seed;
+        this.commands = new ArrayList<>(other.commands);
+        this.times = other.times.clone();
+        this.endTime = other.endTime;
+    }
+    
+    
+    /**
+     * Adds the passed in command to the end of the record;
+     * 
+     * @param time the game time that the command was run at in nanoseconds
+     * @param command the command that was run
+     * 
+     * @throws IllegalArgumentException if the time is before the last
+     *             command's
+     */
+    public void add(long time, Command command) {
+        int n = commands.size();
+        if (n > 0 && time < times[n - 1]) {
+            throw new IllegalArgumentException("commands must be added in time order");
+        }
+        if (n == times.length) {
+            long[] bigger = new long[n * 2];
+            System.arraycopy(times, 0, bigger, 0, n);
+            times = bigger;
+        }
+        times[n] = time;
+        commands.add(command);
+        endTime = Math.max(endTime, time);
+    }
+    
+    /**
+     * Returns the number of columns in the game's map;
+     * 
+     * @return the number of columns in the game's map
+     */
+    public int getCols() {
+        return cols;
+    }
+    
+    /**
+     * Returns the command at the passed in position in the record;
+     * 
+     * @param i the position in the record (0 to getNumCommands() - 1)
+     * 
+     * @return the command at that position
+     */
+    public Command getCommand(int i) {
+        return commands.get(i);
+    }
+    
+    /**
+     * Returns the difficulty of the game;
+     * 
+     * @return the difficulty of the game
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+    
+    /**
+     * Returns the latest game time that the game is known to have reached in
+     * nanoseconds;
+     * 
+     * @return the latest game time that the game is known to have reached
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+    
+    /**
+     * Returns the number of commands in the record;
+     * 
+     * @return the number of commands in the record
+     */
+    public int getNumCommands() {
+        return commands.size();
+    }
+    
+    /**
+     * Returns the number of rows in the game's map;
+     * 
+     * @return the number of rows in the game's map
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Returns the seed that the game's map and randomness come from;
+     * 
+     * @return the seed that the game's map and randomness come from
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Returns the game time that the command at the passed in position was run
+     * at in nanoseconds;
+     * 
+     * @param i the position in the record (0 to getNumCommands() - 1)
+     * 
+     * @return the game time that the command was run at
+     */
+    public long getTime(int i) {
+        if (i < 0 || i >= commands.size()) {
+            throw new IndexOutOfBoundsException("no command at " + i);
+        }
+        return times[i];
+    }
+    
+    /**
+     * Runs every command in the record on the passed in engine as fast as
+     * possible, each at the game time that it was first run at, and then
+     * advances the engine to the record's end time; The engine must be running
+     * a game created the same way as the recorded one and not have been
+     * advanced yet; Stops early if the game ends;
+     * 
+     * @param engine the engine to replay the record on
+     */
+    public void replay(GameEngine engine) {
+        for (int i = 0; i < commands.size() && !engine.isGameOver(); i++) {
+            engine.advanceTo(times[i]);
+            commands.get(i).apply(engine);
+        }
+        if (!engine.isGameOver()) {
+            engine.advanceTo(endTime);
+        }
+    }
+    
+    /**
+     * Sets the latest game time that the game is known to have reached; It
+     * never moves backwards;
+     * 
+     * @param time the latest game time that the game has reached in
+     *            nanoseconds
+     */
+    public void setEndTime(long time) {
+        endTime = Math.max(endTime, time);
+    }
+    
+}
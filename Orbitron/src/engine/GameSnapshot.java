@@ -0,0 +1,183 @@
+package engine;
+
+/**
+ * An unchangeable copy of the player's totals and the game's progress at one
+ * moment; The GameClock's thread publishes a new one after every change it
+ * makes, so other threads (the UI in particular) can read a set of values that
+ * all belong together instead of reading a GameState while it is being
+ * changed.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class GameSnapshot {
+    
+    /** The max number of energy cores that the player can have; */
+    private final int coreMax;
+    /** The number of energy cores that the player has; */
+    private final int cores;
+    /** The difficulty of the game; */
+    private final String difficulty;
+    /** The type of end game that occurred (' ' if the game hasn't ended); */
+    private final char endGame;
+    /** The max number of building materials that the player can have; */
+    private final int materialMax;
+    /** The number of building materials that the player has; */
+    private final int materials;
+    /** The number of cells that the player has captured; */
+    private final int numCellsCapped;
+    /** The number of objectives that the player has captured; */
+    private final int numObjsCapped;
+    /** The number of enemy spreads that have happened; */
+    private final long numSpreads;
+    /** The player's score; */
+    private final int score;
+    /** The max number of soldiers that the player can have; */
+    private final int soldierMax;
+    /** The number of soldiers that the player has; */
+    private final int soldiers;
+    /** The game time that has elapsed in nanoseconds; */
+    private final long timeElapsed;
+    
+    
+    /**
+     * Creates a new GameSnapshot of the passed in game state; This must only be
+     * called by the thread that changes the game;
+     * 
+     * @param state the game state to copy
+     */
+    public GameSnapshot(GameState state) {
+        this.coreMax = state.getCoreMax();
+        this.cores = state.getCores();
+        this.difficulty = state.getDifficulty();
+        this.endGame = state.getEndGame();
+        this.materialMax = state.getMaterialMax();
+        this.materials = state.getMaterials();
+        this.numCellsCapped = state.getNumCellsCapped();
+        this.numObjsCapped = state.getNumObjsCapped();
+        this.numSpreads = state.getNumSpreads();
+        this.score = state.getScore();
+        this.soldierMax = state.getSoldierMax();
+        this.soldiers = state.getSoldiers();
+        this.timeElapsed = state.getTimeElapsed();
+    }
+    
+    
+    /**
+     * Returns the max number of energy cores that the player can have;
+     * 
+     * @return the max number of energy cores that the player can have
+     */
+    public int getCoreMax() {
+        return coreMax;
+    }
+    
+    /**
+     * Returns the number of energy cores that the player has;
+     * 
+     * @return the number of energy cores that the player has
+     */
+    public int getCores() {
+        return cores;
+    }
+    
+    /**
+     * Returns the difficulty of the game;
+     * 
+     * @return the difficulty of the game
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+    
+    /**
+     * Returns the type of end game that occurred (' ' if the game hasn't
+     * ended);
+     * 
+     * @return the type of end game that occurred
+     */
+    public char getEndGame() {
+        return endGame;
+    }
+    
+    /**
+     * Returns the max number of building materials that the player can have;
+     * 
+     * @return the max number of building materials that the player can have
+     */
+    public int getMaterialMax() {
+        return materialMax;
+    }
+    
+    /**
+     * Returns the number of building materials that the player has;
+     * 
+     * @return the number of building materials that the player has
+     */
+    public int getMaterials() {
+        return materials;
+    }
+    
+    /**
+     * Returns the number of cells that the player has captured;
+     * 
+     * @return the number of cells that the player has captured
+     */
+    public int getNumCellsCapped() {
+        return numCellsCapped;
+    }
+    
+    /**
+     * Returns the number of objectives that the player has captured;
+     * 
+     * @return the number of objectives that the player has captured
+     */
+    public int getNumObjsCapped() {
+        return numObjsCapped;
+    }
+    
+    /**
+     * Returns the number of enemy spreads that have happened;
+     * 
+     * @return the number of enemy spreads that have happened
+     */
+    public long getNumSpreads() {
+        return numSpreads;
+    }
+    
+    /**
+     * Returns the player's score;
+     * 
+     * @return the player's score
+     */
+    public int getScore() {
+        return score;
+    }
+    
+    /**
+     * Returns the max number of soldiers that the player can have;
+     * 
+     * @return the max number of soldiers that the player can have
+     */
+    public int getSoldierMax() {
+        return soldierMax;
+    }
+    
+    /**
+     * Returns the number of soldiers that the player has;
+     * 
+     * @return the number of soldiers that the player has
+     */
+    public int getSoldiers() {
+        return soldiers;
+    }
+    
+    /**
+     * Returns the game time that has elapsed in nanoseconds;
+     * 
+     * @return the game time that has elapsed in nanoseconds
+     */
+    public long getTimeElapsed() {
+        return timeElapsed;
+    }
+    
+}
@@ -0,0 +1,736 @@
+package engine;
+
+import java.io.Serializable;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class holds all of the information that the game rules need to run a
+ * game: the map's cell states, the player's resources, the difficulty, and the
+ * game's timers. It does not use JavaFX at all so that games can be simulated
+ * without a stage; GameInfo wraps one of these for the JavaFX client.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class GameState implements Serializable {
+    
+    /** The spread rate of the enemies for the EASY difficulty in nanoseconds; */
+    public static final long EASY_RATE = 30 * 1000000000L; // every 30 seconds
+    /** The spread rate of the enemies for the CHALLENGING difficulty in nanoseconds; */
+    public static final long CHALLENGING_RATE = 15 * 1000000000L; // every 15 seconds
+    /** The spread rate of the enemies for the HARD difficulty in nanoseconds; */
+    public static final long HARD_RATE = 8 * 1000000000L; // every 8 seconds
+    /** The spread rate of the enemies for the INSANE difficulty in nanoseconds; */
+    public static final long INSANE_RATE = 2 * 1000000000L; // every 2 seconds
+    
+    /**
+     * The initial maximum number of cores that the player begins the game with;
+     * If the player attempts to collect more cores than this value without
+     * increasing their maximum capacity, then the player's number of cores will
+     * be kept at this value.
+     */
+    public static final int INIT_CORE_MAX = 100;
+    /** The initial number of cores that the player begins the game with; */
+    public static final int INIT_CORES = 10;
+    
+    /**
+     * The initial maximum number of materials that the player begins the game
+     * with; If the player attempts to collect more materials than this value
+     * without increasing their maximum capacity, then the player's number of
+     * materials will be kept at this value.
+     */
+    public static final int INIT_MATERIAL_MAX = 100;
+    /** The initial number of materials that the player begins the game with; */
+    public static final int INIT_MATERIALS = 10;
+    
+    /**
+     * The initial maximum number of soldiers that the player begins the game
+     * with; If the player attempts to collect more soldiers than this value
+     * without increasing their maximum capacity, then the player's number of
+     * soldiers will be kept at this value.
+     */
+    public static final int INIT_SOLDIER_MAX = 100;
+    /** The initial number of soldiers that the player begins the game with; */
+    public static final int INIT_SOLDIERS = 15;
+    
+    
+    /**
+     * The class's serial ID number; (I just made it the date that I split this
+     * class out of GameInfo.)
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    
+    /**
+     * The maximum amount of energy cores that the player can have;
+     */
+    private int coreMax;
+    /**
+     * The number of energy cores that the player currently has;
+     */
+    private int cores;
+    
+    /**
+     * The difficulty level of this game;
+     */
+    private String difficulty;
+    
+    /**
+     * Represents what type of end game took place in this game; ' ' means that
+     * the game has not ended; 'W' means that the game was won; 'L' means that
+     * the game was lost; 'F' means that the player forfeited;
+     */
+    private char endGame;
+    /**
+     * Views of all the cells in the map; They are not saved because they are
+     * rebuilt from the grid the first time they are needed;
+     */
+    private transient CellState[][] gameMap;
+    /**
+     * The state of every cell in the map; It isn't saved along with the rest
+     * of the game state because GameInfo saves only the cells that have
+     * changed since the map was generated;
+     */
+    private transient GridState grid;
+    /**
+     * The maximum amount of building materials that the player can have;
+     */
+    private int materialMax;
+    /**
+     * The number of building materials that the player currently has;
+     */
+    private int materials;
+    
+    /**
+     * The player's current score;
+     */
+    private int score;
+    
+    /**
+     * The maximum amount of soldiers that the player can have;
+     */
+    private int soldierMax;
+    /**
+     * The number of soldiers that the player currently has;
+     */
+    private int soldiers;
+    
+    /**
+     * The rate at which the enemies in the game will spread in nanoseconds; Changing this is
+     * like changing the difficulty;
+     */
+    private long spreadRate;
+    /**
+     * The amount of time that has elapsed during gameplay in nanoseconds;
+     */
+    private long timeElapsed;
+    /**
+     * The game time at which the last enemy spread occurred in nanoseconds;
+     */
+    private long timeOfLastSpread;
+    /**
+     * The wall-clock time (System.currentTimeMillis()) at which the game was
+     * last saved, or 0 if it never has been;
+     */
+    private long timeOfLastSave;
+    /** The number of enemy spreads that have happened so far; */
+    private long numSpreads;
+    /** The seed that all of the game's randomness comes from; */
+    private long seed;
+    /** The record of the player's commands that the game can be replayed from, or null; */
+    private GameRecord record;
+    
+    
+    /**
+     * Creates a new GameState object with the passed in difficulty and map grid
+     * and a random seed;
+     * 
+     * @param difficulty a String representing the difficulty of the game
+     * @param grid the state of every cell in the map
+     */
+    public GameState(String difficulty, GridState grid) {
+        this(difficulty, grid, new SplittableRandom().nextLong());
+    }
+    
+    /**
+     * Creates a new GameState object with the passed in difficulty, map grid,
+     * and seed; Sets timeElapsed to 0; Sets score to 0; Sets resource values and
+     * resource max values to class constant values;
+     * 
+     * @param difficulty a String representing the difficulty of the game
+     * @param grid the state of every cell in the map
+     * @param seed the seed that all of the game's randomness comes from
+     */
+    public GameState(String difficulty, GridState grid, long seed) {
+        this.seed = seed;
+        // set difficulty sets the spreadRate
+        this.setDifficulty(difficulty);
+        this.setGrid(grid);
+        this.setTimeElapsed(0);
+        this.setTimeOfLastSpread(0);
+        this.score = 0;
+        this.setEndGame(' ');
+        this.setSoldierMax(INIT_SOLDIER_MAX);
+        this.setSoldiers(INIT_SOLDIERS);
+        this.setMaterialMax(INIT_MATERIAL_MAX);
+        this.setMaterials(INIT_MATERIALS);
+        this.setCoreMax(INIT_CORE_MAX);
+        this.setCores(INIT_CORES);
+    }
+    
+    /**
+     * Creates a copy of the passed in GameState (including a copy of its grid)
+     * whose randomness comes from the passed in seed from here on; Passing in
+     * the other state's seed makes an exact copy, and passing in any other
+     * seed lets a copy be played forward without knowing how the real game's
+     * enemies will spread; The copy isn't recorded;
+     * 
+     * @param other the game state to copy
+     * @param seed the seed that the copy's randomness comes from
+     */
+    public GameState(GameState other, long seed) {
+        this.seed = seed;
+        this.difficulty = other.difficulty;
+        this.spreadRate = other.spreadRate;
+        this.grid = new GridState(other.grid);
+        this.timeElapsed = other.timeElapsed;
+        this.timeOfLastSpread = other.timeOfLastSpread;
+        this.timeOfLastSave = other.timeOfLastSave;
+        this.numSpreads = other.numSpreads;
+        this.score = other.score;
+        this.endGame = other.endGame;
+        this.soldierMax = other.soldierMax;
+        this.soldiers = other.soldiers;
+        this.materialMax = other.materialMax;
+        this.materials = other.materials;
+        this.coreMax = other.coreMax;
+        this.cores = other.cores;
+    }
+    
+    
+    /**
+     * Converts the passed in game time into a more readable String format:
+     * mm:ss (m = minutes / s = seconds);
+     * 
+     * @param time the game time in nanoseconds
+     * 
+     * @return the game time in the format mm:ss
+     */
+    public static String formatTime(long time) {
+        long diff = TimeUnit.NANOSECONDS.toSeconds(time);
+        long minsL = diff / 60;
+        String mins = "0" + minsL;
+        String secs = "0" + (diff - (minsL * 60));
+        return mins.substring(mins.length() - 2) + ":" + secs.substring(secs.length() - 2);
+    }
+    
+    /**
+     * Returns whether or not the player has at least the passed in amounts of
+     * all three resources;
+     * 
+     * @param soldiers the number of soldiers needed
+     * @param materials the number of building materials needed
+     * @param cores the number of energy cores needed
+     * 
+     * @return whether or not the player has all of the resources
+     */
+    public boolean canSpend(int soldiers, int materials, int cores) {
+        return this.soldiers >= soldiers && this.materials >= materials && this.cores >= cores;
+    }
+    
+    /**
+     * Puts this game into the same state as the passed in one in place,
+     * without allocating anything; The grid is copied into this game's own
+     * grid (which must be the same size), so views of its cells stay valid;
+     * The seed is copied too, but the record isn't: a copied state continues
+     * to be recorded (or not) the way this one was;
+     * 
+     * @param other the game state to copy
+     */
+    public void copyFrom(GameState other) {
+        this.seed = other.seed;
+        this.difficulty = other.difficulty;
+        this.spreadRate = other.spreadRate;
+        this.grid.copyFrom(other.grid);
+        this.timeElapsed = other.timeElapsed;
+        this.timeOfLastSpread = other.timeOfLastSpread;
+        this.timeOfLastSave = other.timeOfLastSave;
+        this.numSpreads = other.numSpreads;
+        this.score = other.score;
+        this.endGame = other.endGame;
+        this.soldierMax = other.soldierMax;
+        this.soldiers = other.soldiers;
+        this.materialMax = other.materialMax;
+        this.materials = other.materials;
+        this.coreMax = other.coreMax;
+        this.cores = other.cores;
+    }
+    
+    /**
+     * Returns the difficulty of the current game;
+     * 
+     * @return the difficulty of the current game
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+    
+    /**
+     * Returns the type of end game that occurred (Win, Loss, Forfeit);
+     * 
+     * @return the type of end game that occurred
+     */
+    public char getEndGame() {
+        return endGame;
+    }
+    
+    /**
+     * Returns views of the cells of the current game map;
+     * 
+     * @return views of the cells of the current game map
+     */
+    public CellState[][] getGameMap() {
+        if (gameMap == null) {
+            gameMap = new CellState[grid.getRows()][grid.getCols()];
+            for (int i = 0; i < gameMap.length; i++) {
+                for (int j = 0; j < gameMap[i].length; j++) {
+                    gameMap[i][j] = new CellState(grid, i, j);
+                }
+            }
+        }
+        return gameMap;
+    }
+    
+    /**
+     * Returns the state of every cell in the current game map;
+     * 
+     * @return the state of every cell in the current game map
+     */
+    public GridState getGrid() {
+        return grid;
+    }
+    
+    /**
+     * Returns the current max number of energy cores the player can have;
+     * 
+     * @return the current max number of energy cores the player can have
+     */
+    public int getCoreMax() {
+        return coreMax;
+    }
+    
+    /**
+     * Returns the current number of energy cores the player has;
+     * 
+     * @return the current number of energy cores the player has
+     */
+    public int getCores() {
+        return cores;
+    }
+    
+    /**
+     * Returns the current max number of building materials the player can have;
+     * 
+     * @return the current max number of building materials the player can have
+     */
+    public int getMaterialMax() {
+        return materialMax;
+    }
+    
+    /**
+     * Returns the current number of building materials the player has;
+     * 
+     * @return the current number of building materials the player has
+     */
+    public int getMaterials() {
+        return materials;
+    }
+    
+    /**
+     * Returns the current max number of soldiers the player can have;
+     * 
+     * @return the current max number of soldiers the player can have
+     */
+    public int getSoldierMax() {
+        return soldierMax;
+    }
+    
+    /**
+     * Returns the current number of soldiers the player has;
+     * 
+     * @return the current number of soldiers the player has
+     */
+    public int getSoldiers() {
+        return soldiers;
+    }
+    
+    /**
+     * Returns the number of cells that have been captured by the player;
+     * 
+     * @return the number of cells that have been captured by the player
+     */
+    public int getNumCellsCapped() {
+        return grid.getNumCaptured();
+    }
+    
+    /**
+     * Returns the number of objectives that have been captured by the player;
+     * 
+     * @return the number of objectives that have been captured by the player
+     */
+    public int getNumObjsCapped() {
+        return grid.getNumObjsCaptured();
+    }
+    
+    /**
+     * Returns the number of enemy spreads that have happened so far;
+     * 
+     * @return the number of enemy spreads that have happened so far
+     */
+    public long getNumSpreads() {
+        return numSpreads;
+    }
+    
+    /**
+     * Returns the player's score;
+     * 
+     * @return the player's score
+     */
+    public int getScore() {
+        calculateScore();
+        return score;
+    }
+    
+    /**
+     * Returns the record of the player's commands that the game can be
+     * replayed from, or null if the game isn't being recorded;
+     * 
+     * @return the record of the player's commands, or null
+     */
+    public GameRecord getRecord() {
+        return record;
+    }
+    
+    /**
+     * Returns the seed that all of the game's randomness comes from;
+     * 
+     * @return the seed that all of the game's randomness comes from
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Returns the spread rate of enemies in nanoseconds (determined by difficulty);
+     * 
+     * @return the spread rate of enemies in nanoseconds
+     */
+    public long getSpreadRate() {
+        return spreadRate;
+    }
+    
+    /**
+     * Returns the time elapsed in the game in nanoseconds;
+     * 
+     * @return the time elapsed in the game in nanoseconds
+     */
+    public long getTimeElapsed() {
+        return timeElapsed;
+    }
+    
+    /**
+     * Returns the wall-clock time (System.currentTimeMillis()) at which the
+     * game was last saved, or 0 if it never has been;
+     * 
+     * @return the wall-clock time at which the game was last saved
+     */
+    public long getTimeOfLastSave() {
+        return timeOfLastSave;
+    }
+    
+    /**
+     * Returns the game time at which the enemies last spread in nanoseconds;
+     * 
+     * @return the game time at which the enemies last spread in nanoseconds
+     */
+    public long getTimeOfLastSpread() {
+        return timeOfLastSpread;
+    }
+    
+    /**
+     * Sets the max number of energy cores the player can have;
+     * 
+     * @param value the max number of energy cores the player can have
+     */
+    public void setCoreMax(int value) {
+        if (value < INIT_CORE_MAX) {
+            throw new IllegalArgumentException("coreMax must be at least " + INIT_CORE_MAX);
+        }
+        
+        this.coreMax = value;
+    }
+    
+    /**
+     * Sets the number of energy cores the player has;
+     * 
+     * @param value the number of energy cores the player has
+     * @return whether or not the cores were successfully set
+     */
+    public boolean setCores(int value) {
+        if (value < 0) {
+            return false; // cores must be non-negative
+        }
+        
+        if (value > coreMax) {
+            this.cores = coreMax;
+            return false; // cores cannot be greater than core max
+        } else {
+            this.cores = value;
+            return true;
+        }
+    }
+    
+    /**
+     * Sets the difficulty of the current game;
+     * 
+     * @param value the difficulty of the current game
+     */
+    public void setDifficulty(String value) {
+        if (value.equals("EASY")) {
+            this.setSpreadRate(EASY_RATE);
+        } else if (value.equals("CHALLENGING")) {
+            this.setSpreadRate(CHALLENGING_RATE);
+        } else if (value.equals("HARD")) {
+            this.setSpreadRate(HARD_RATE);
+        } else if (value.equals("INSANE")) {
+            this.setSpreadRate(INSANE_RATE);
+        } else {
+            throw new IllegalArgumentException(
+                    "difficulty must be EASY, CHALLENGING, HARD, or INSANE");
+        }
+        this.difficulty = value;
+    }
+    
+    /**
+     * Sets the type of end game that occurred (Win, Loss, Forfeit);
+     * 
+     * @param value the type of end game that occurred
+     */
+    public void setEndGame(char value) {
+        if (value != 'W' && value != 'L' && value != 'F' && value != ' ') {
+            throw new IllegalArgumentException("endGame must be 'W', 'L', 'F', or ' '");
+        }
+        
+        this.endGame = value;
+    }
+    
+    /**
+     * Sets the state of every cell in the map for the current game;
+     * 
+     * @param value the state of every cell in the map for the current game
+     */
+    public void setGrid(GridState value) {
+        this.grid = value;
+        this.gameMap = null;
+    }
+    
+    /**
+     * Sets the record that the player's commands are added to (null stops
+     * recording);
+     * 
+     * @param value the record that the player's commands are added to, or null
+     */
+    public void setRecord(GameRecord value) {
+        this.record = value;
+    }
+    
+    /**
+     * Sets the max number of building materials the player can have;
+     * 
+     * @param value the max number of building materials the player can have
+     */
+    public void setMaterialMax(int value) {
+        if (value < INIT_MATERIAL_MAX) {
+            throw new IllegalArgumentException("materialMax must be at least " + INIT_MATERIAL_MAX);
+        }
+        
+        this.materialMax = value;
+    }
+    
+    /**
+     * Sets the number of building materials the player has;
+     * 
+     * @param value the number of building materials the player has
+     * @return whether or not the materials were successfully set
+     */
+    public boolean setMaterials(int value) {
+        if (value < 0) {
+            return false; // materials must be non-negative
+        }
+        
+        if (value > materialMax) {
+            this.materials = materialMax;
+            return false; // materials cannot be greater than material max
+        } else {
+            this.materials = value;
+            return true;
+        }
+    }
+    
+    /**
+     * Sets the max number of soldiers the player can have;
+     * 
+     * @param value the max number of soldiers the player can have
+     */
+    public void setSoldierMax(int value) {
+        if (value < INIT_SOLDIER_MAX) {
+            throw new IllegalArgumentException("soldierMax must be at least " + INIT_SOLDIER_MAX);
+        }
+        
+        this.soldierMax = value;
+    }
+    
+    /**
+     * Sets the number of soldiers the player has;
+     * 
+     * @param value the number of soldiers the player has
+     * @return whether or not the soldiers were successfully set
+     */
+    public boolean setSoldiers(int value) {
+        if (value < 0) {
+            return false; // soldiers must be non-negative
+        }
+        
+        if (value > soldierMax) {
+            this.soldiers = soldierMax;
+            return false; // soldiers cannot be greater than soldier max
+        } else {
+            this.soldiers = value;
+            return true;
+        }
+    }
+    
+    /**
+     * Sets the number of enemy spreads that have happened so far;
+     * 
+     * @param value the number of enemy spreads that have happened so far
+     */
+    public void setNumSpreads(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("number of spreads must be non-negative");
+        }
+        this.numSpreads = value;
+    }
+    
+    /**
+     * Sets the seed that the game's randomness comes from from here on; A
+     * GameEngine running this state switches to the new seed at its next
+     * random choice;
+     * 
+     * @param value the seed that the game's randomness comes from
+     */
+    public void setSeed(long value) {
+        this.seed = value;
+    }
+    
+    /**
+     * Sets the spread rate of enemies in nanoseconds;
+     * 
+     * @param value the spread rate of enemies in nanoseconds
+     */
+    public void setSpreadRate(long value) {
+        this.spreadRate = value;
+    }
+    
+    /**
+     * Sets the time elapsed in nanoseconds;
+     * 
+     * @param value the time elapsed in nanoseconds
+     */
+    public void setTimeElapsed(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("time must be non-negative");
+        }
+        this.timeElapsed = value;
+    }
+    
+    /**
+     * Sets the wall-clock time (System.currentTimeMillis()) at which the game
+     * was last saved;
+     * 
+     * @param value the wall-clock time at which the game was last saved
+     */
+    public void setTimeOfLastSave(long value) {
+        this.timeOfLastSave = value;
+    }
+    
+    /**
+     * Sets the game time at which the enemies last spread in nanoseconds;
+     * 
+     * @param value the game time at which the enemies last spread in
+     *            nanoseconds
+     */
+    public void setTimeOfLastSpread(long value) {
+        this.timeOfLastSpread = value;
+    }
+    
+    /**
+     * Takes the passed in amounts of all three resources from the player if
+     * (and only if) the player has all of them; Either everything is taken or
+     * nothing is, so a cost can never be left half paid;
+     * 
+     * @param soldiers the number of soldiers to take
+     * @param materials the number of building materials to take
+     * @param cores the number of energy cores to take
+     * 
+     * @return whether or not the resources were taken
+     */
+    public boolean spend(int soldiers, int materials, int cores) {
+        if (soldiers < 0 || materials < 0 || cores < 0) {
+            throw new IllegalArgumentException("amounts must be non-negative");
+        }
+        if (!canSpend(soldiers, materials, cores)) {
+            return false;
+        }
+        this.soldiers -= soldiers;
+        this.materials -= materials;
+        this.cores -= cores;
+        return true;
+    }
+    
+    
+    /**
+     * Calculates the score based on many of the factors present in the game;
+     */
+    private void calculateScore() {
+        int numObjsCapped = getNumObjsCapped();
+        int numCellsCapped = getNumCellsCapped();
+        
+        // add up soldiers, materials, cores, capped objectives, capped cells
+        // in their respective proportions
+        double result = soldiers / 5 + materials / 10 + cores / 10 + numObjsCapped * 100
+                + numCellsCapped;
+        
+        // add in any end of game bonuses/penalties
+        if (endGame == 'W') {
+            result += 150;
+        } else if (endGame == 'L') {
+            result -= 10;
+        } else if (endGame == 'F') {
+            result -= 50;
+        }
+        
+        // subtract one point for every 10 seconds of play time
+        result -= timeElapsed / 10000000000L;
+        
+        if (result > 0) {// only multiply the result by the difficulty if it's
+                         // positive
+            // multiply the score by 1 over the spreadRate in decaseconds (10 seconds)
+            result *= 1 / ((double) spreadRate / 10000000000L);
+        }
+        // set the score
+        score = (int) result;
+    }
+    
+    
+}
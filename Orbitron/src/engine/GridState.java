@@ -0,0 +1,996 @@
+package engine;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import staticStorage.CTInfo;
+
+/**
+ * This class holds the live state of every cell of a game map in flat
+ * primitive arrays that are indexed by row * cols + col; Each cell's booleans
+ * are packed into one flag word and its cell type is stored as an index into
+ * CTInfo, so scanning the whole map only walks a few contiguous arrays.
+ * CellState is a lightweight view of one cell of one of these.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class GridState implements Serializable {
+    
+    /**
+     * The maximum number of enemies allowed to occupy any one cell;
+     */
+    public static final int MAX_ENEMIES = 100;
+    
+    /* FLAG BITS */
+    /** The flag bit for whether or not a cell is captured; */
+    public static final int CAPTURED = 1;
+    /** The flag bit for whether or not a cell has been scouted; */
+    public static final int SCOUTED = 1 << 1;
+    /** The flag bit for whether or not a cell is neutral; */
+    public static final int NEUTRAL = 1 << 2;
+    /** The flag bit for whether or not a cell is hostile; */
+    public static final int HOSTILE = 1 << 3;
+    /** The flag bit for whether or not a cell has been destroyed; */
+    public static final int DESTROYED = 1 << 4;
+    /** The flag bit for whether or not a building has been built on a cell; */
+    public static final int BUILT_ON = 1 << 5;
+    /** The flag bit for whether or not a cell can be captured; */
+    public static final int CAPTURABLE = 1 << 6;
+    /** The flag bit for whether or not a cell can be scouted; */
+    public static final int SCOUTABLE = 1 << 7;
+    /** The flag bit for whether or not a cell can be destroyed; */
+    public static final int DESTROYABLE = 1 << 8;
+    
+    /** The type id of the Objective cell type; */
+    public static final int OBJECTIVE_TYPE = CTInfo.getCTIndex("Objective");
+    /** The type id of the Space Port cell type; */
+    public static final int SPACE_PORT_TYPE = CTInfo.getCTIndex("Space Port");
+    
+    /**
+     * The class's serial ID number; (I just made it the date that I made this
+     * class.)
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    /** The names of the cell types indexed by type id; */
+    private static final String[] TYPE_NAMES = CTInfo.getCTNames();
+    /**
+     * The building compatibilities of each cell type indexed by type id; A
+     * building's bit (see Building.getBit()) is set if it can be built on the
+     * type;
+     */
+    private static final int[] TYPE_COMPATIBILITIES = new int[TYPE_NAMES.length];
+    /**
+     * The flag bits that writeChanges() writes; The potential states are left
+     * out because they are worked out again from the others;
+     */
+    private static final int SAVED_FLAGS = CAPTURED | SCOUTED | NEUTRAL | HOSTILE | DESTROYED
+            | BUILT_ON;
+    
+    static {
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            String name = TYPE_NAMES[i];
+            int compat = 0;
+            for (Building building : Building.values()) {
+                compat |= building.isCompatibleWith(name) ? building.getBit() : 0;
+            }
+            TYPE_COMPATIBILITIES[i] = compat;
+        }
+    }
+    
+    
+    /** The number of cells that are currently captured; */
+    private int numCaptured;
+    /** The number of Objective cells that are currently captured; */
+    private int numObjsCaptured;
+    /** The number of rows in the map; */
+    private final int rows;
+    /** The number of columns in the map; */
+    private final int cols;
+    /** The fewest enemies that a hostile cell needs in order to spread; */
+    private int spreadThreshold;
+    
+    /** The id of the structure built on each cell (see Building.getId(); 0 means none); */
+    private final byte[] buildingIds;
+    /** The cells that have changed since the last diff was taken; */
+    private final IndexedCellSet changed;
+    /** What has changed about each cell since the last diff was taken (see CellDiff); */
+    private final byte[] changes;
+    /** The number of captured cells within one step of each cell (itself included); */
+    private final byte[] capturedWithinOne;
+    /** The number of captured cells within two steps of each cell (itself included); */
+    private final byte[] capturedWithinTwo;
+    /** The number of energy cores that each cell currently holds; */
+    private final int[] cores;
+    /** The number of enemies currently in each cell; */
+    private final int[] enemies;
+    /** The packed state flags of each cell; */
+    private final int[] flags;
+    /** The number of building materials that each cell currently holds; */
+    private final int[] materials;
+    /** The number of soldiers that each cell currently holds (as resources); */
+    private final int[] soldiers;
+    /**
+     * The hostile cells with at least spreadThreshold enemies; This is kept up
+     * to date whenever a cell's enemies or hostility change so that an enemy
+     * spread only has to look at the cells that can actually spread;
+     */
+    private final IndexedCellSet spreaders;
+    /**
+     * The cells within two steps of a cell; Captured cells make the cells
+     * within two steps of them scoutable and the cells within one step of them
+     * capturable;
+     */
+    private final Neighbourhood frontier;
+    /** The number of soldiers stationed in each cell that can fend off enemies; */
+    private final int[] stationedSoldiers;
+    /** The type id (index in CTInfo) of each cell; -1 means an unknown type; */
+    private final int[] typeIds;
+    
+    
+    /**
+     * Creates a new GridState with the passed in dimensions; Every cell starts
+     * with no type, no flags set, and no resources or enemies;
+     * 
+     * @param rows the number of rows in the map
+     * @param cols the number of columns in the map
+     */
+    public GridState(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("rows and cols must be positive");
+        }
+        
+        this.rows = rows;
+        this.cols = cols;
+        int size = rows * cols;
+        this.buildingIds = new byte[size];
+        this.changed = new IndexedCellSet(size);
+        this.changes = new byte[size];
+        this.capturedWithinOne = new byte[size];
+        this.capturedWithinTwo = new byte[size];
+        this.cores = new int[size];
+        this.enemies = new int[size];
+        this.flags = new int[size];
+        this.materials = new int[size];
+        this.soldiers = new int[size];
+        this.stationedSoldiers = new int[size];
+        this.typeIds = new int[size];
+        Arrays.fill(typeIds, -1);
+        this.spreaders = new IndexedCellSet(size);
+        this.spreadThreshold = MAX_ENEMIES + 1;
+        this.frontier = new Neighbourhood(Neighbourhood.Metric.VON_NEUMANN, 2, rows, cols);
+    }
+    
+    /**
+     * Creates a new GridState in the same state as the passed in one; Nothing
+     * is shared except the neighbourhood table (which never changes), so the
+     * copy can be played on without touching the original; The copy starts
+     * with no changes to take;
+     * 
+     * @param other the grid to copy
+     */
+    public GridState(GridState other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.numCaptured = other.numCaptured;
+        this.numObjsCaptured = other.numObjsCaptured;
+        this.spreadThreshold = other.spreadThreshold;
+        this.buildingIds = other.buildingIds.clone();
+        this.changed = new IndexedCellSet(other.changes.length);
+        this.changes = new byte[other.changes.length];
+        this.capturedWithinOne = other.capturedWithinOne.clone();
+        this.capturedWithinTwo = other.capturedWithinTwo.clone();
+        this.cores = other.cores.clone();
+        this.enemies = other.enemies.clone();
+        this.flags = other.flags.clone();
+        this.materials = other.materials.clone();
+        this.soldiers = other.soldiers.clone();
+        this.stationedSoldiers = other.stationedSoldiers.clone();
+        this.typeIds = other.typeIds.clone();
+        this.spreaders = new IndexedCellSet(other.spreaders);
+        this.frontier = other.frontier;
+    }
+    
+    
+    /**
+     * Returns a number made from the state of every cell in the map; Two grids
+     * in the same state always have the same checksum, so comparing them is a
+     * quick way to check that a replayed game ended up where the original
+     * did;
+     * 
+     * @return a checksum of the state of every cell in the map
+     */
+    public long checksum() {
+        long sum = rows * 31L + cols;
+        for (int i = 0; i < flags.length; i++) {
+            // only the state that the player can see or that the rules use
+            long cell = flags[i];
+            cell = cell * 31 + enemies[i];
+            cell = cell * 31 + stationedSoldiers[i];
+            cell = cell * 31 + buildingIds[i];
+            cell = cell * 31 + typeIds[i];
+            cell = cell * 31 + soldiers[i];
+            cell = cell * 31 + materials[i];
+            cell = cell * 31 + cores[i];
+            sum = sum * 1000003 + cell;
+        }
+        return sum;
+    }
+    
+    /**
+     * Puts this grid into the same state as the passed in one in place,
+     * without allocating anything; The grid must be the same size; Every cell
+     * whose state changes is marked as changed (so the next diff redraws it),
+     * and views of this grid's cells stay valid and show the copied state;
+     * 
+     * @param other the grid to copy
+     */
+    public void copyFrom(GridState other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("grids must be the same size");
+        }
+        for (int i = 0; i < flags.length; i++) {
+            int what = 0;
+            if (flags[i] != other.flags[i]) {
+                what |= CellDiff.FLAGS;
+            }
+            if (enemies[i] != other.enemies[i]) {
+                what |= CellDiff.ENEMIES;
+            }
+            if (stationedSoldiers[i] != other.stationedSoldiers[i]) {
+                what |= CellDiff.STATIONED;
+            }
+            if (typeIds[i] != other.typeIds[i] || buildingIds[i] != other.buildingIds[i]) {
+                what |= CellDiff.TYPE;
+            }
+            if (soldiers[i] != other.soldiers[i] || materials[i] != other.materials[i]
+                    || cores[i] != other.cores[i]) {
+                what |= CellDiff.RESOURCES;
+            }
+            if (what != 0) {
+                markChanged(i, what);
+            }
+        }
+        
+        int size = flags.length;
+        System.arraycopy(other.buildingIds, 0, buildingIds, 0, size);
+        System.arraycopy(other.capturedWithinOne, 0, capturedWithinOne, 0, size);
+        System.arraycopy(other.capturedWithinTwo, 0, capturedWithinTwo, 0, size);
+        System.arraycopy(other.cores, 0, cores, 0, size);
+        System.arraycopy(other.enemies, 0, enemies, 0, size);
+        System.arraycopy(other.flags, 0, flags, 0, size);
+        System.arraycopy(other.materials, 0, materials, 0, size);
+        System.arraycopy(other.soldiers, 0, soldiers, 0, size);
+        System.arraycopy(other.stationedSoldiers, 0, stationedSoldiers, 0, size);
+        System.arraycopy(other.typeIds, 0, typeIds, 0, size);
+        spreaders.copyFrom(other.spreaders);
+        numCaptured = other.numCaptured;
+        numObjsCaptured = other.numObjsCaptured;
+        spreadThreshold = other.spreadThreshold;
+    }
+    
+    /**
+     * Returns the number of cells in the map that have all of the passed in
+     * flag bits set;
+     * 
+     * @param flag the flag bits to look for
+     * @return the number of cells that have all of the passed in flag bits set
+     */
+    public int countFlag(int flag) {
+        int count = 0;
+        for (int i = 0; i < flags.length; i++) {
+            if ((flags[i] & flag) == flag) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Gives a cell of a brand new grid its type and resources and makes it
+     * neutral, without marking it as changed or touching any of the grid's
+     * sets; This is how map generation fills in big maps from several threads
+     * at once (and how a MapCache reads maps back in bulk): different threads
+     * may fill different cells at the same time, as long as nothing else uses
+     * the grid until they are all done; WARNING: the cell must not have been
+     * set in any other way yet;
+     * 
+     * @param cell the index of the cell
+     * @param type the type id of the cell
+     * @param soldiers the number of soldiers in the cell
+     * @param materials the number of building materials in the cell
+     * @param cores the number of energy cores in the cell
+     */
+    public void fillNeutral(int cell, int type, int soldiers, int materials, int cores) {
+        typeIds[cell] = type;
+        this.soldiers[cell] = soldiers;
+        this.materials[cell] = materials;
+        this.cores[cell] = cores;
+        flags[cell] = NEUTRAL;
+    }
+    
+    /**
+     * Returns the structure built on the cell, or null if there isn't one;
+     * 
+     * @param cell the index of the cell
+     * @return the structure built on the cell, or null
+     */
+    public Building getBuilding(int cell) {
+        return Building.fromId(buildingIds[cell]);
+    }
+    
+    /**
+     * Returns the id of the structure built on the cell (0 means none);
+     * 
+     * @param cell the index of the cell
+     * @return the id of the structure built on the cell
+     */
+    public int getBuildingId(int cell) {
+        return buildingIds[cell];
+    }
+    
+    /**
+     * Returns the number of captured cells within one step of the cell (the
+     * cell itself included);
+     * 
+     * @param cell the index of the cell
+     * @return the number of captured cells within one step of the cell
+     */
+    public int getCapturedWithinOne(int cell) {
+        return capturedWithinOne[cell];
+    }
+    
+    /**
+     * Returns the number of captured cells within two steps of the cell (the
+     * cell itself included);
+     * 
+     * @param cell the index of the cell
+     * @return the number of captured cells within two steps of the cell
+     */
+    public int getCapturedWithinTwo(int cell) {
+        return capturedWithinTwo[cell];
+    }
+    
+    /**
+     * Returns the displayed type of the cell; This is the name of the
+     * structure built on the cell if there is one;
+     * 
+     * @param cell the index of the cell
+     * @return the displayed type of the cell
+     */
+    public String getCellType(int cell) {
+        if (buildingIds[cell] != 0) {
+            return Building.fromId(buildingIds[cell]).getName();
+        }
+        return typeIds[cell] < 0 ? null : TYPE_NAMES[typeIds[cell]];
+    }
+    
+    /**
+     * Returns the column of the cell at the passed in index;
+     * 
+     * @param cell the index of the cell
+     * @return the column of the cell
+     */
+    public int getCol(int cell) {
+        return cell % cols;
+    }
+    
+    /**
+     * Returns the number of columns in the map;
+     * 
+     * @return the number of columns in the map
+     */
+    public int getCols() {
+        return cols;
+    }
+    
+    /**
+     * Returns the number of energy cores held in the cell;
+     * 
+     * @param cell the index of the cell
+     * @return the number of energy cores held in the cell
+     */
+    public int getCores(int cell) {
+        return cores[cell];
+    }
+    
+    /**
+     * Returns the number of enemies in the cell;
+     * 
+     * @param cell the index of the cell
+     * @return the number of enemies in the cell
+     */
+    public int getEnemies(int cell) {
+        return enemies[cell];
+    }
+    
+    /**
+     * Returns the packed state flags of the cell;
+     * 
+     * @param cell the index of the cell
+     * @return the packed state flags of the cell
+     */
+    public int getFlags(int cell) {
+        return flags[cell];
+    }
+    
+    /**
+     * Returns the number of building materials held in the cell;
+     * 
+     * @param cell the index of the cell
+     * @return the number of building materials held in the cell
+     */
+    public int getMaterials(int cell) {
+        return materials[cell];
+    }
+    
+    /**
+     * Returns the number of cells that are currently captured; This is kept up
+     * to date as cells change state, so it costs nothing to call;
+     * 
+     * @return the number of cells that are currently captured
+     */
+    public int getNumCaptured() {
+        return numCaptured;
+    }
+    
+    /**
+     * Returns the number of Objective cells that are currently captured; This
+     * is kept up to date as cells change state, so it costs nothing to call;
+     * 
+     * @return the number of Objective cells that are currently captured
+     */
+    public int getNumObjsCaptured() {
+        return numObjsCaptured;
+    }
+    
+    /**
+     * Returns the row of the cell at the passed in index;
+     * 
+     * @param cell the index of the cell
+     * @return the row of the cell
+     */
+    public int getRow(int cell) {
+        return cell / cols;
+    }
+    
+    /**
+     * Returns the number of cells that can spread enemies (hostile cells with
+     * at least the spread threshold of enemies);
+     * 
+     * @return the number of cells that can spread enemies
+     */
+    public int getNumSpreaders() {
+        return spreaders.size();
+    }
+    
+    /**
+     * Returns the number of rows in the map;
+     * 
+     * @return the number of rows in the map
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Returns the number of cells in the map;
+     * 
+     * @return the number of cells in the map
+     */
+    public int getSize() {
+        return flags.length;
+    }
+    
+    /**
+     * Returns the number of soldiers held in the cell (as resources);
+     * 
+     * @param cell the index of the cell
+     * @return the number of soldiers held in the cell (as resources)
+     */
+    public int getSoldiers(int cell) {
+        return soldiers[cell];
+    }
+    
+    /**
+     * Returns the cell at the passed in position in the set of cells that can
+     * spread enemies; The cells are in no particular order;
+     * 
+     * @param i the position in the set (0 to getNumSpreaders() - 1)
+     * @return the index of the cell
+     */
+    public int getSpreader(int i) {
+        return spreaders.get(i);
+    }
+    
+    /**
+     * Returns the fewest enemies that a hostile cell needs in order to spread;
+     * 
+     * @return the fewest enemies that a hostile cell needs in order to spread
+     */
+    public int getSpreadThreshold() {
+        return spreadThreshold;
+    }
+    
+    /**
+     * Returns the number of soldiers stationed in the cell;
+     * 
+     * @param cell the index of the cell
+     * @return the number of soldiers stationed in the cell
+     */
+    public int getStationedSoldiers(int cell) {
+        return stationedSoldiers[cell];
+    }
+    
+    /**
+     * Returns the type id (index in CTInfo) of the cell; Building on a cell
+     * does not change its type id;
+     * 
+     * @param cell the index of the cell
+     * @return the type id of the cell
+     */
+    public int getTypeId(int cell) {
+        return typeIds[cell];
+    }
+    
+    /**
+     * Returns whether or not the passed in row and column are inside the map;
+     * 
+     * @param row the row to check
+     * @param col the column to check
+     * @return whether or not the passed in row and column are inside the map
+     */
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+    
+    /**
+     * Returns the index of the cell at the passed in row and column;
+     * 
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the index of the cell
+     */
+    public int indexOf(int row, int col) {
+        return row * cols + col;
+    }
+    
+    /**
+     * Returns whether or not the passed in building can be built on the cell
+     * based on the cell's type;
+     * 
+     * @param cell the index of the cell
+     * @param building the building
+     * @return whether or not the building can be built on the cell
+     */
+    public boolean isCompatible(int cell, Building building) {
+        return typeIds[cell] >= 0 && (TYPE_COMPATIBILITIES[typeIds[cell]] & building.getBit()) != 0;
+    }
+    
+    /**
+     * Returns whether or not the cell has all of the passed in flag bits set;
+     * 
+     * @param cell the index of the cell
+     * @param flag the flag bits to check
+     * @return whether or not the cell has all of the passed in flag bits set
+     */
+    public boolean isFlagSet(int cell, int flag) {
+        return (flags[cell] & flag) == flag;
+    }
+    
+    /**
+     * Reads cells written by writeChanges() into the passed in grid (or into a
+     * new empty grid if it is null); Every cell is set through the normal
+     * setters, so the captured counts, the frontier, and the spreaders come
+     * out the same as in the grid that was written, as long as the passed in
+     * grid is in the same state as the one that was passed to writeChanges()
+     * (for example the same map generated again);
+     * 
+     * @param in where to read the cells from
+     * @param base the grid to read the cells into, or null
+     * 
+     * @return the grid that the cells were read into
+     * 
+     * @throws IOException if the cells can't be read or don't fit the grid
+     */
+    public static GridState readChanges(DataInput in, GridState base) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        if (rows < 1 || cols < 1) {
+            throw new InvalidObjectException("a map can't be " + rows + "x" + cols);
+        }
+        GridState grid = base == null ? new GridState(rows, cols) : base;
+        if (grid.rows != rows || grid.cols != cols) {
+            throw new InvalidObjectException("the cells are of a " + rows + "x" + cols + " map");
+        }
+        
+        try {
+            grid.setSpreadThreshold(in.readInt());
+            int count = in.readInt();
+            for (int n = 0; n < count; n++) {
+                int cell = in.readInt();
+                if (cell < 0 || cell >= grid.getSize()) {
+                    throw new InvalidObjectException("no cell has index " + cell);
+                }
+                // the type goes first because setting it removes the building
+                grid.setTypeId(cell, in.readByte());
+                int building = in.readByte();
+                if (building < 0 || building > Building.values().length) {
+                    throw new InvalidObjectException("no building has id " + building);
+                }
+                grid.buildingIds[cell] = (byte) building;
+                int flags = in.readShort() & SAVED_FLAGS;
+                grid.setFlag(cell, SAVED_FLAGS & ~flags, false);
+                grid.setFlag(cell, flags, true);
+                grid.setSoldiers(cell, in.readInt());
+                grid.setMaterials(cell, in.readInt());
+                grid.setCores(cell, in.readInt());
+                grid.setEnemies(cell, in.readInt());
+                grid.setStationedSoldiers(cell, in.readInt());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+        return grid;
+    }
+    
+    /**
+     * Builds the passed in structure on the cell: sets its building id and
+     * marks it as built on; The cell's type id is left alone;
+     * 
+     * @param cell the index of the cell
+     * @param building the structure to build on the cell
+     */
+    public void setBuilding(int cell, Building building) {
+        buildingIds[cell] = (byte) building.getId();
+        markChanged(cell, CellDiff.TYPE);
+        setFlag(cell, BUILT_ON, true);
+    }
+    
+    /**
+     * Sets the displayed type of the cell; If the type is the name of a
+     * building, then the building id is set and the type id is left alone;
+     * WARNING: outside of map generation this should only be called when
+     * building structures on cells;
+     * 
+     * @param cell the index of the cell
+     * @param value the cell type to be changed to
+     */
+    public void setCellType(int cell, String value) {
+        Building building = Building.forNameOrNull(value);
+        if (building != null) {
+            setBuilding(cell, building);
+            return;
+        }
+        setTypeId(cell, CTInfo.getCTIndex(value));
+    }
+    
+    /**
+     * Sets the number of energy cores held in the cell;
+     * 
+     * @param cell the index of the cell
+     * @param value the number of energy cores held in the cell
+     */
+    public void setCores(int cell, int value) {
+        cores[cell] = value;
+        markChanged(cell, CellDiff.RESOURCES);
+    }
+    
+    /**
+     * Sets the number of enemies in the cell;
+     * 
+     * @param cell the index of the cell
+     * @param value the number of enemies
+     * @return whether or not enemies were set to the passed in value or to 0 or
+     *         the max (true means value was set; false means either 0 or max
+     *         was set)
+     */
+    public boolean setEnemies(int cell, int value) {
+        boolean set = value >= 0 && value <= MAX_ENEMIES;
+        int old = enemies[cell];
+        enemies[cell] = Math.max(0, Math.min(MAX_ENEMIES, value));
+        if (enemies[cell] != old) {
+            markChanged(cell, CellDiff.ENEMIES);
+        }
+        updateSpreader(cell);
+        return set;
+    }
+    
+    /**
+     * Sets or clears the passed in flag bits of the cell; Changing whether the
+     * cell is captured, scouted, or destroyed also recalculates the cell's
+     * potential states, and changing whether it is hostile updates whether it
+     * can spread enemies;
+     * 
+     * @param cell the index of the cell
+     * @param flag the flag bits to set or clear
+     * @param value whether the flag bits should be set or cleared
+     */
+    public void setFlag(int cell, int flag, boolean value) {
+        int old = flags[cell];
+        if (value) {
+            flags[cell] |= flag;
+        } else {
+            flags[cell] &= ~flag;
+        }
+        
+        // keep the captured counts and the frontier around the cell up to date
+        if (((old ^ flags[cell]) & CAPTURED) != 0) {
+            countCaptured(cell, value ? 1 : -1);
+            updateFrontier(cell, value ? 1 : -1);
+        } else if ((flag & (SCOUTED | DESTROYED)) != 0) {
+            updatePotentialStates(cell);
+        }
+        if (((old ^ flags[cell]) & HOSTILE) != 0) {
+            updateSpreader(cell);
+        }
+        if (flags[cell] != old) {
+            markChanged(cell, CellDiff.FLAGS);
+        }
+    }
+    
+    /**
+     * Sets the number of building materials held in the cell;
+     * 
+     * @param cell the index of the cell
+     * @param value the number of building materials held in the cell
+     */
+    public void setMaterials(int cell, int value) {
+        materials[cell] = value;
+        markChanged(cell, CellDiff.RESOURCES);
+    }
+    
+    /**
+     * Sets the number of soldiers held in the cell (as resources);
+     * 
+     * @param cell the index of the cell
+     * @param value the number of soldiers held in the cell (as resources)
+     */
+    public void setSoldiers(int cell, int value) {
+        soldiers[cell] = value;
+        markChanged(cell, CellDiff.RESOURCES);
+    }
+    
+    /**
+     * Sets the fewest enemies that a hostile cell needs in order to spread and
+     * works out which cells can spread from scratch; Until this is called no
+     * cell can spread;
+     * 
+     * @param value the fewest enemies that a hostile cell needs in order to
+     *            spread
+     */
+    public void setSpreadThreshold(int value) {
+        spreadThreshold = value;
+        spreaders.clear();
+        for (int cell = 0; cell < flags.length; cell++) {
+            updateSpreader(cell);
+        }
+    }
+    
+    /**
+     * Sets the number of stationed soldiers in the cell;
+     * 
+     * @param cell the index of the cell
+     * @param value the number of stationed soldiers
+     * 
+     * @throws IllegalArgumentException if value is negative
+     */
+    public void setStationedSoldiers(int cell, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("stationedSoldiers must be non-negative");
+        }
+        
+        if (stationedSoldiers[cell] != value) {
+            stationedSoldiers[cell] = value;
+            markChanged(cell, CellDiff.STATIONED);
+        }
+    }
+    
+    /**
+     * Sets the type id (index in CTInfo) of the cell and removes any building
+     * from it; This is how map generation sets cell types without looking
+     * them up by name; WARNING: outside of map generation the type should only
+     * be changed through setCellType();
+     * 
+     * @param cell the index of the cell
+     * @param value the type id of the cell (-1 for an unknown type)
+     */
+    public void setTypeId(int cell, int value) {
+        if (value < -1 || value >= TYPE_NAMES.length) {
+            throw new IllegalArgumentException("no cell type has id " + value);
+        }
+        buildingIds[cell] = 0;
+        markChanged(cell, CellDiff.TYPE);
+        if ((flags[cell] & CAPTURED) != 0) {
+            // keep the captured objective count right if an objective changes type
+            countCaptured(cell, -1);
+            typeIds[cell] = value;
+            countCaptured(cell, 1);
+        } else {
+            typeIds[cell] = value;
+        }
+    }
+    
+    /**
+     * Returns the cells that have changed since the last time that this was
+     * called (or since the grid was created) and what changed about them, and
+     * starts collecting changes again from scratch; Takes time proportional to
+     * the number of changed cells rather than the size of the map;
+     * 
+     * @return the cells that have changed and what changed about them
+     */
+    public CellDiff takeChanges() {
+        int size = changed.size();
+        if (size == 0) {
+            return CellDiff.EMPTY;
+        }
+        int[] cells = new int[size];
+        byte[] what = new byte[size];
+        for (int i = 0; i < size; i++) {
+            int cell = changed.get(i);
+            cells[i] = cell;
+            what[i] = changes[cell];
+            changes[cell] = 0;
+        }
+        changed.clear();
+        return new CellDiff(cells, what);
+    }
+    
+    /**
+     * Writes the cells of this grid that are in a different state than the
+     * same cells of the passed in grid (or every cell if it is null), so that
+     * readChanges() can rebuild this grid from that one; This is how a saved
+     * game only needs its map's key and the cells that have changed since the
+     * map was generated;
+     * 
+     * @param out where to write the cells
+     * @param base the grid (of the same size) to compare against, or null
+     * 
+     * @throws IOException if the cells can't be written
+     */
+    public void writeChanges(DataOutput out, GridState base) throws IOException {
+        if (base != null && (base.rows != rows || base.cols != cols)) {
+            throw new IllegalArgumentException("the grids must be the same size");
+        }
+        
+        int count = 0;
+        for (int cell = 0; cell < flags.length; cell++) {
+            if (base == null || !sameCell(base, cell)) {
+                count++;
+            }
+        }
+        out.writeInt(rows);
+        out.writeInt(cols);
+        out.writeInt(spreadThreshold);
+        out.writeInt(count);
+        for (int cell = 0; cell < flags.length; cell++) {
+            if (base != null && sameCell(base, cell)) {
+                continue;
+            }
+            out.writeInt(cell);
+            out.writeByte(typeIds[cell]);
+            out.writeByte(buildingIds[cell]);
+            out.writeShort(flags[cell] & SAVED_FLAGS);
+            out.writeInt(soldiers[cell]);
+            out.writeInt(materials[cell]);
+            out.writeInt(cores[cell]);
+            out.writeInt(enemies[cell]);
+            out.writeInt(stationedSoldiers[cell]);
+        }
+    }
+    
+    
+    /**
+     * Determines the potential states of the cell from its own state and the
+     * captured cells around it; A cell can be scouted if it hasn't been scouted
+     * and a captured cell is within two steps of it, it can be captured if it
+     * has been scouted, isn't captured, and a captured cell is within one step
+     * of it, and it can be destroyed once it has been scouted (or captured);
+     * 
+     * @param cell the index of the cell
+     */
+    public void updatePotentialStates(int cell) {
+        int f = flags[cell] & ~(CAPTURABLE | SCOUTABLE | DESTROYABLE);
+        boolean captured = (f & CAPTURED) != 0;
+        boolean scouted = (f & SCOUTED) != 0;
+        if (!scouted && capturedWithinTwo[cell] > 0) {
+            f |= SCOUTABLE;
+        }
+        if (scouted && !captured && capturedWithinOne[cell] > 0) {
+            f |= CAPTURABLE;
+        }
+        if (scouted || captured) {
+            f |= DESTROYABLE;
+        }
+        if (flags[cell] != f) {
+            flags[cell] = f;
+            markChanged(cell, CellDiff.FLAGS);
+        }
+    }
+    
+    /**
+     * Adds the passed in amount to the captured counts that the cell is part
+     * of;
+     * 
+     * @param cell the index of the cell
+     * @param amount the amount to add to the counts (1 or -1)
+     */
+    private void countCaptured(int cell, int amount) {
+        numCaptured += amount;
+        if (typeIds[cell] == OBJECTIVE_TYPE) {
+            numObjsCaptured += amount;
+        }
+    }
+    
+    /**
+     * Remembers that the passed in things about the cell have changed until
+     * the next diff is taken;
+     * 
+     * @param cell the index of the cell
+     * @param what what changed (see CellDiff)
+     */
+    private void markChanged(int cell, int what) {
+        changes[cell] |= what;
+        changed.add(cell);
+    }
+    
+    /**
+     * Returns whether or not the passed in cell is in the same state in this
+     * grid as in the passed in one (leaving out the potential states);
+     * 
+     * @param other the grid to compare against
+     * @param cell the index of the cell
+     * 
+     * @return whether or not the cell is in the same state in both grids
+     */
+    private boolean sameCell(GridState other, int cell) {
+        return typeIds[cell] == other.typeIds[cell] && buildingIds[cell] == other.buildingIds[cell]
+                && (flags[cell] & SAVED_FLAGS) == (other.flags[cell] & SAVED_FLAGS)
+                && soldiers[cell] == other.soldiers[cell]
+                && materials[cell] == other.materials[cell] && cores[cell] == other.cores[cell]
+                && enemies[cell] == other.enemies[cell]
+                && stationedSoldiers[cell] == other.stationedSoldiers[cell];
+    }
+    
+    /**
+     * Adds the passed in amount to the captured counts of every cell within two
+     * steps of the passed in cell and updates their potential states;
+     * 
+     * @param cell the index of the cell whose captured flag changed
+     * @param amount 1 if the cell was captured or -1 if it was lost
+     */
+    private void updateFrontier(int cell, int amount) {
+        int row = cell / cols;
+        int col = cell % cols;
+        for (int k = 0; k < frontier.size(); k++) {
+            int other = frontier.neighbour(row, col, k);
+            if (other < 0) { // off the map
+                continue;
+            }
+            capturedWithinTwo[other] += amount;
+            if (frontier.getDistance(row, k) <= 1) {
+                capturedWithinOne[other] += amount;
+            }
+            updatePotentialStates(other);
+        }
+    }
+    
+    /**
+     * Adds the cell to or removes it from the set of cells that can spread
+     * enemies depending on whether it is hostile and has enough enemies;
+     * 
+     * @param cell the index of the cell
+     */
+    private void updateSpreader(int cell) {
+        if ((flags[cell] & HOSTILE) != 0 && enemies[cell] >= spreadThreshold) {
+            spreaders.add(cell);
+        } else {
+            spreaders.remove(cell);
+        }
+    }
+    
+}
@@ -0,0 +1,154 @@
+package engine;
+
+import java.io.Serializable;
+
+/**
+ * A set of grid indices that can add, remove, and look up a cell in constant
+ * time and can be walked in time proportional to the number of cells in it
+ * rather than the size of the map; The cells are kept packed at the front of
+ * one array, and a second array remembers where each cell is so that a removed
+ * cell can be swapped with the last one. The order of the cells is therefore
+ * not the order they were added in.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class IndexedCellSet implements Serializable {
+    
+    /**
+     * The class's serial ID number;
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    
+    /** The cells in the set (only the first size are used); */
+    private final int[] cells;
+    /** The position of each cell in cells plus one (0 means not in the set); */
+    private final int[] positions;
+    /** The number of cells in the set; */
+    private int size;
+    
+    
+    /**
+     * Creates a new empty IndexedCellSet for a map with the passed in number
+     * of cells;
+     * 
+     * @param capacity the number of cells in the map
+     */
+    public IndexedCellSet(int capacity) {
+        this.cells = new int[capacity];
+        this.positions = new int[capacity];
+    }
+    
+    /**
+     * Creates a new IndexedCellSet holding the same cells, in the same order,
+     * as the passed in set;
+     * 
+     * @param other the set to copy
+     */
+    public IndexedCellSet(IndexedCellSet other) {
+        this.cells = other.cells.clone();
+        this.positions = other.positions.clone();
+        this.size = other.size;
+    }
+    
+    
+    /**
+     * Adds the passed in cell to the set if it isn't in it already;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return whether or not the cell was added
+     */
+    public boolean add(int cell) {
+        if (positions[cell] != 0) {
+            return false;
+        }
+        cells[size] = cell;
+        positions[cell] = ++size;
+        return true;
+    }
+    
+    /**
+     * Removes every cell from the set;
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[cells[i]] = 0;
+        }
+        size = 0;
+    }
+    
+    /**
+     * Makes this set hold the same cells, in the same order, as the passed in
+     * set without allocating anything; Both sets must be for maps with the
+     * same number of cells;
+     * 
+     * @param other the set to copy
+     */
+    public void copyFrom(IndexedCellSet other) {
+        if (other.cells.length != cells.length) {
+            throw new IllegalArgumentException("sets must be for maps of the same size");
+        }
+        clear();
+        System.arraycopy(other.cells, 0, cells, 0, other.size);
+        for (int i = 0; i < other.size; i++) {
+            positions[cells[i]] = i + 1;
+        }
+        size = other.size;
+    }
+    
+    /**
+     * Returns whether or not the passed in cell is in the set;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return whether or not the cell is in the set
+     */
+    public boolean contains(int cell) {
+        return positions[cell] != 0;
+    }
+    
+    /**
+     * Returns the cell at the passed in position in the set;
+     * 
+     * @param i the position in the set (0 to size() - 1)
+     * 
+     * @return the grid index of the cell at that position
+     */
+    public int get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("no cell at " + i);
+        }
+        return cells[i];
+    }
+    
+    /**
+     * Removes the passed in cell from the set if it is in it; The last cell in
+     * the set takes its place;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return whether or not the cell was removed
+     */
+    public boolean remove(int cell) {
+        int position = positions[cell];
+        if (position == 0) {
+            return false;
+        }
+        int last = cells[--size];
+        cells[position - 1] = last;
+        positions[last] = position;
+        positions[cell] = 0;
+        return true;
+    }
+    
+    /**
+     * Returns the number of cells in the set;
+     * 
+     * @return the number of cells in the set
+     */
+    public int size() {
+        return size;
+    }
+    
+}
@@ -0,0 +1,400 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A PlayerStrategy that decides every move with Monte Carlo tree search over
+ * the game rules; Each search plays thousands of short games forward from a
+ * copy of the current state, trying every scout, capture, bombard, build, and
+ * station move that the player can afford along with ending the turn (letting
+ * the enemies spread), and picks the move that the search tried the most. The
+ * copy is restored from a StateBuffer before every game, so no game allocates
+ * a new state, and every game gets its own seed, so the search can't see how
+ * the real game's enemies are going to spread and has to play the odds like a
+ * person would.
+ * 
+ * <pre>
+ * One iteration of the search:
+ * 
+ * 1) selection - from the root, follow the child with the best UCT value
+ *    until reaching a node that still has untried moves
+ * 2) expansion - try one of that node's untried moves as a new child
+ * 3) rollout - play a few turns from there with some random moves and
+ *    otherwise the EXPAND strategy
+ * 4) backpropagation - add the rollout's result to every node on the way up
+ * </pre>
+ * 
+ * With more than one thread, each thread searches its own tree from the same
+ * root (root parallelization) and the visit counts of the root's moves are
+ * added together at the end; The trees share nothing, so the threads never
+ * wait on each other.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class MctsStrategy implements PlayerStrategy {
+    
+    /** How much the search favours less tried moves (UCT's constant); */
+    private static final double EXPLORATION = Math.sqrt(2);
+    /** The most moves that are made in one turn before the turn is ended; */
+    private static final int MAX_MOVES_PER_TURN = 20;
+    /** The chance that a rollout makes another random move in a turn; */
+    private static final double ROLLOUT_MOVE_CHANCE = 0.5;
+    /**
+     * The number of enemy spreads after the root that every rollout is played
+     * to before its result is scored;
+     */
+    private static final int HORIZON = 6;
+    /** The number of soldiers that a station move adds to a cell; */
+    private static final int STATION_STEP = 5;
+    
+    
+    /**
+     * One node of a search tree: the game after the moves on the path from the
+     * root to it; The moves from a node are listed the first time it is
+     * reached, and the same moves are tried whenever it is reached again
+     * (moves that can no longer be made just do nothing);
+     */
+    private static final class Node {
+        
+        /** The nodes that have been reached from this one; */
+        private final List<Node> children = new ArrayList<>();
+        /** The move that led to this node (null ends the turn); */
+        private final Command move;
+        /** The node that this one was reached from, or null for the root; */
+        private final Node parent;
+        /** The total result of every rollout through this node; */
+        private double total;
+        /** The moves from this node that haven't been tried yet; */
+        private List<Command> untried;
+        /** The number of rollouts through this node; */
+        private int visits;
+        
+        /**
+         * Creates a new Node reached from the passed in node by the passed in
+         * move;
+         * 
+         * @param move the move that led to the node (null ends the turn)
+         * @param parent the node that the new one was reached from
+         */
+        private Node(Command move, Node parent) {
+            this.move = move;
+            this.parent = parent;
+        }
+        
+        /**
+         * Returns the child with the best UCT value (its average result scaled
+         * to between 0 and 1 plus a bonus for being tried less than its
+         * siblings);
+         * 
+         * @param min the worst result seen so far in the search
+         * @param max the best result seen so far in the search
+         * 
+         * @return the child with the best UCT value
+         */
+        private Node select(double min, double max) {
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(visits);
+            double range = max > min ? max - min : 1;
+            for (Node child : children) {
+                double value = (child.total / child.visits - min) / range
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    best = child;
+                    bestValue = value;
+                }
+            }
+            return best;
+        }
+    
+    }
+    
+    
+    /** The number of search iterations used to decide each move; */
+    private final int iterations;
+    /** Where the seeds of the searches come from; */
+    private final SplittableRandom random;
+    /** The number of trees that each search is split over; */
+    private final int threads;
+    
+    
+    /**
+     * Creates a new MctsStrategy;
+     * 
+     * @param iterations the number of search iterations used to decide each
+     *            move (split between the threads)
+     * @param threads the number of threads that each search is split over (1
+     *            searches on the calling thread)
+     * @param seed the seed that the searches' randomness comes from
+     */
+    public MctsStrategy(int iterations, int threads, long seed) {
+        if (iterations < 1 || threads < 1) {
+            throw new IllegalArgumentException("iterations and threads must be positive");
+        }
+        this.iterations = iterations;
+        this.threads = threads;
+        this.random = new SplittableRandom(seed);
+    }
+    
+    
+    /**
+     * Searches for the best move that the player can make right now;
+     * 
+     * @param engine the engine running the game (only read, never changed)
+     * 
+     * @return the best move, or null if the best thing to do is end the turn
+     *         and let the enemies spread
+     */
+    public Command chooseMove(GameEngine engine) {
+        List<Command> moves = moves(engine);
+        if (moves.size() == 1 || engine.isGameOver()) {
+            return null;
+        }
+        
+        GameState root = engine.getState();
+        int[] visits;
+        if (threads == 1) {
+            visits = search(root, moves, iterations, random.nextLong());
+        } else {
+            List<Callable<int[]>> searches = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int share = iterations / threads + (i < iterations % threads ? 1 : 0);
+                long seed = random.nextLong();
+                searches.add(() -> search(root, moves, Math.max(share, 1), seed));
+            }
+            visits = new int[moves.size()];
+            try {
+                for (Future<int[]> tree : ForkJoinPool.commonPool().invokeAll(searches)) {
+                    int[] treeVisits = tree.get();
+                    for (int i = 0; i < visits.length; i++) {
+                        visits[i] += treeVisits[i];
+                    }
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("the search failed", e);
+            }
+        }
+        
+        int best = 0;
+        for (int i = 1; i < visits.length; i++) {
+            if (visits[i] > visits[best]) {
+                best = i;
+            }
+        }
+        return moves.get(best);
+    }
+    
+    /**
+     * Makes the move chosen by the search, unless the search would rather end
+     * the turn;
+     * 
+     * @param engine the engine running the game
+     * 
+     * @return whether or not a move was made
+     */
+    @Override
+    public boolean move(GameEngine engine) {
+        Command move = chooseMove(engine);
+        return move != null && move.apply(engine);
+    }
+    
+    /**
+     * Makes moves chosen by the search until the search would rather end the
+     * turn (or a move fails, or MAX_MOVES_PER_TURN moves have been made);
+     * 
+     * @param engine the engine running the game
+     */
+    @Override
+    public void play(GameEngine engine) {
+        for (int i = 0; i < MAX_MOVES_PER_TURN && !engine.isGameOver(); i++) {
+            if (!move(engine)) {
+                return;
+            }
+        }
+    }
+    
+    
+    /**
+     * Makes the passed in move on the passed in engine; The null move ends the
+     * turn by advancing the game to the next enemy spread;
+     * 
+     * @param engine the engine to make the move on
+     * @param move the move to make, or null to end the turn
+     */
+    private static void makeMove(GameEngine engine, Command move) {
+        if (move == null) {
+            engine.advanceTo(engine.getNextSpreadTime());
+        } else {
+            move.apply(engine);
+        }
+    }
+    
+    /**
+     * Returns every move that the player can make in the passed in game with
+     * the null move (ending the turn) first; Only moves that the player can
+     * afford are listed, one build of each structure is listed (on the first
+     * captured cell that it can go on), and soldiers are only stationed in
+     * captured cells on the edge of the player's territory;
+     * 
+     * @param engine the engine running the game
+     * 
+     * @return the moves that the player can make
+     */
+    private static List<Command> moves(GameEngine engine) {
+        GridState grid = engine.getGrid();
+        GameState state = engine.getState();
+        int soldiers = state.getSoldiers();
+        int cores = state.getCores();
+        boolean[] built = new boolean[Building.values().length];
+        
+        List<Command> moves = new ArrayList<>();
+        moves.add(null);
+        for (int cell = 0; cell < grid.getSize(); cell++) {
+            int flags = grid.getFlags(cell);
+            int enemies = grid.getEnemies(cell);
+            if ((flags & GridState.CAPTURABLE) != 0 && soldiers >= enemies / 2 + 1) {
+                moves.add(Command.capture(view(grid, cell), false));
+            }
+            if ((flags & GridState.SCOUTABLE) != 0 && soldiers >= 1) {
+                moves.add(Command.scout(view(grid, cell), false));
+            }
+            if ((flags & GridState.HOSTILE) != 0 && (flags & GridState.DESTROYABLE) != 0
+                    && grid.getCapturedWithinOne(cell) > 0 && cores > enemies) {
+                moves.add(Command.bombard(view(grid, cell), enemies + 1, false));
+            }
+            if ((flags & GridState.CAPTURED) == 0) {
+                continue;
+            }
+            if ((flags & GridState.BUILT_ON) == 0) {
+                for (Building building : Building.values()) {
+                    if (!built[building.ordinal()] && grid.isCompatible(cell, building)
+                            && engine.canBuild(building)) {
+                        built[building.ordinal()] = true;
+                        moves.add(Command.build(view(grid, cell), building.getName(), false));
+                    }
+                }
+            }
+            // a cell with all four neighbours captured is safe from spreads
+            if (soldiers >= STATION_STEP && grid.getCapturedWithinOne(cell) < 5) {
+                moves.add(Command.stationSoldiers(view(grid, cell),
+                        grid.getStationedSoldiers(cell) + STATION_STEP, false));
+            }
+        }
+        return moves;
+    }
+    
+    /**
+     * Plays the game on until the passed in number of enemy spreads have
+     * happened (or the game ends) and returns how much the player's score
+     * changed since the root; Each turn makes a few random moves and then
+     * plays like EXPAND, so the rollouts are cheap but still play about as
+     * well as a simple player; The score already counts winning and losing,
+     * and every rollout is scored at the same game time, so the results of
+     * different lines of play can be compared directly;
+     * 
+     * @param engine the engine running the copy being played
+     * @param random where the random moves come from
+     * @param numSpreads the number of enemy spreads to play until
+     * @param rootScore the player's score at the root of the search
+     * 
+     * @return how much the player's score changed since the root
+     */
+    private static double rollout(GameEngine engine, SplittableRandom random, long numSpreads,
+            int rootScore) {
+        GameState state = engine.getState();
+        while (state.getNumSpreads() < numSpreads && !engine.isGameOver()) {
+            while (!engine.isGameOver() && random.nextDouble() < ROLLOUT_MOVE_CHANCE) {
+                List<Command> moves = moves(engine);
+                if (moves.size() == 1) {
+                    break;
+                }
+                moves.get(1 + random.nextInt(moves.size() - 1)).apply(engine);
+            }
+            ScriptedStrategy.EXPAND.play(engine);
+            makeMove(engine, null);
+        }
+        return state.getScore() - rootScore;
+    }
+    
+    /**
+     * Searches one tree from the passed in state and returns the number of
+     * times that each of the root's moves was tried;
+     * 
+     * @param root the state to search from (only copied, never changed)
+     * @param rootMoves the moves that can be made from the root
+     * @param iterations the number of iterations to search for
+     * @param seed the seed that the search's randomness comes from
+     * 
+     * @return the number of times that each root move was tried (in the same
+     *         order as rootMoves)
+     */
+    private static int[] search(GameState root, List<Command> rootMoves, int iterations,
+            long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int rootScore = root.getScore();
+        long horizon = root.getNumSpreads() + HORIZON;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        Node top = new Node(null, null);
+        top.untried = new ArrayList<>(rootMoves);
+        // every iteration plays on the same copy, restored from the root first
+        StateBuffer start = new StateBuffer();
+        start.take(root);
+        GameState copy = new GameState(root, root.getSeed());
+        GameEngine engine = new GameEngine(copy);
+        
+        for (int i = 0; i < iterations; i++) {
+            // each iteration's copy has its own unknown future spreads
+            start.restore(copy);
+            copy.setSeed(random.nextLong());
+            Node node = top;
+            while (node.untried.isEmpty() && !node.children.isEmpty() && !engine.isGameOver()) {
+                node = node.select(min, max);
+                makeMove(engine, node.move);
+            }
+            if (!node.untried.isEmpty() && !engine.isGameOver()) {
+                Command move = node.untried.remove(random.nextInt(node.untried.size()));
+                Node child = new Node(move, node);
+                node.children.add(child);
+                makeMove(engine, move);
+                child.untried = engine.isGameOver() ? Collections.<Command> emptyList()
+                        : moves(engine);
+                node = child;
+            }
+            
+            double result = rollout(engine, random, horizon, rootScore);
+            min = Math.min(min, result);
+            max = Math.max(max, result);
+            for (; node != null; node = node.parent) {
+                node.visits++;
+                node.total += result;
+            }
+        }
+        
+        int[] visits = new int[rootMoves.size()];
+        for (Node child : top.children) {
+            visits[rootMoves.indexOf(child.move)] = child.visits;
+        }
+        return visits;
+    }
+    
+    /**
+     * Returns a view of the passed in cell that a command can be made from;
+     * 
+     * @param grid the map that the cell is on
+     * @param cell the grid index of the cell
+     * 
+     * @return a view of the cell
+     */
+    private static CellState view(GridState grid, int cell) {
+        return new CellState(grid, grid.getRow(cell), grid.getCol(cell));
+    }
+    
+}
@@ -0,0 +1,284 @@
+package engine;
+
+import java.io.Serializable;
+import java.util.function.IntConsumer;
+
+/**
+ * A precomputed table of the cells within some number of steps of a cell on a
+ * map of a particular size; The table is built once from row, column, and
+ * index offsets so that looking at a cell's neighbours never does any
+ * distance math, never allocates, and only bounds checks the cells near the
+ * edge of the map. Entry 0 is always the cell itself and the rest are ordered
+ * by distance, then row, then column.
+ * 
+ * <pre>
+ * VON_NEUMANN (radius 2)   MOORE (radius 1)   HEX (radius 1, odd rows shifted right)
+ *     X X 2 X X               1 1 1             1 1
+ *     X 2 1 2 X               1 0 1            1 0 1
+ *     2 1 0 1 2               1 1 1             1 1
+ *     X 2 1 2 X
+ *     X X 2 X X
+ * </pre>
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class Neighbourhood implements Serializable {
+    
+    /**
+     * The ways of measuring the number of steps from one cell to another;
+     */
+    public enum Metric {
+        /** Horizontal and vertical steps only (a diamond; Manhattan distance); */
+        VON_NEUMANN,
+        /** Diagonal steps count as one step too (a square; Chebyshev distance); */
+        MOORE,
+        /** Steps on a hex map laid out in rows with the odd rows shifted right; */
+        HEX;
+        
+        /**
+         * Returns the number of steps from one cell to another under this
+         * metric;
+         * 
+         * @param r1 the row of the first cell
+         * @param c1 the column of the first cell
+         * @param r2 the row of the second cell
+         * @param c2 the column of the second cell
+         * 
+         * @return the number of steps from the first cell to the second
+         */
+        public int distance(int r1, int c1, int r2, int c2) {
+            int dr = Math.abs(r1 - r2);
+            int dc = Math.abs(c1 - c2);
+            switch (this) {
+                case VON_NEUMANN:
+                    return dr + dc;
+                case MOORE:
+                    return Math.max(dr, dc);
+                default:
+                    // convert the offset coordinates into cube coordinates
+                    int x1 = c1 - (r1 - (r1 & 1)) / 2;
+                    int x2 = c2 - (r2 - (r2 & 1)) / 2;
+                    int dx = Math.abs(x1 - x2);
+                    int dy = Math.abs((-x1 - r1) - (-x2 - r2));
+                    return Math.max(dx, Math.max(dy, dr));
+            }
+        }
+    }
+    
+    
+    /**
+     * The class's serial ID number;
+     */
+    private static final long serialVersionUID = 101726L;
+    
+    
+    /** The number of columns in the map that this table is for; */
+    private final int cols;
+    /** The distance of each entry from the centre cell (by row parity); */
+    private final int[][] distances;
+    /** The index offsets of each entry (by row parity); */
+    private final int[][] indexOffsets;
+    /** The metric that this table was built with; */
+    private final Metric metric;
+    /** The furthest distance from the centre cell in this table; */
+    private final int radius;
+    /** The column offsets of each entry (by row parity); */
+    private final int[][] colOffsets;
+    /** The row offsets of each entry (by row parity); */
+    private final int[][] rowOffsets;
+    /** The number of rows in the map that this table is for; */
+    private final int rows;
+    
+    
+    /**
+     * Creates a new Neighbourhood of every cell within the passed in radius of
+     * a cell under the passed in metric on a map of the passed in size;
+     * 
+     * @param metric the way of measuring steps
+     * @param radius the furthest number of steps to include (0 or more)
+     * @param rows the number of rows in the map
+     * @param cols the number of columns in the map
+     */
+    public Neighbourhood(Metric metric, int radius, int rows, int cols) {
+        if (metric == null) {
+            throw new IllegalArgumentException("metric must not be null");
+        }
+        if (radius < 0 || rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("radius must be non-negative and the map non-empty");
+        }
+        
+        this.metric = metric;
+        this.radius = radius;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowOffsets = new int[2][];
+        this.colOffsets = new int[2][];
+        this.distances = new int[2][];
+        this.indexOffsets = new int[2][];
+        // hex neighbours depend on whether the centre is on an even or odd row
+        for (int parity = 0; parity < 2; parity++) {
+            buildTable(parity);
+        }
+    }
+    
+    
+    /**
+     * Returns whether or not the second cell is within this table's radius of
+     * the first cell;
+     * 
+     * @param r1 the row of the first cell
+     * @param c1 the column of the first cell
+     * @param r2 the row of the second cell
+     * @param c2 the column of the second cell
+     * 
+     * @return whether or not the second cell is within the radius of the first
+     */
+    public boolean contains(int r1, int c1, int r2, int c2) {
+        return metric.distance(r1, c1, r2, c2) <= radius;
+    }
+    
+    /**
+     * Calls the passed in action with the index of every cell in the
+     * neighbourhood of the passed in cell that is on the map (the cell itself
+     * included);
+     * 
+     * @param cell the index of the centre cell
+     * @param action what to do with each neighbour's index
+     */
+    public void forEach(int cell, IntConsumer action) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        for (int k = 0; k < size(); k++) {
+            int other = neighbour(row, col, k);
+            if (other >= 0) {
+                action.accept(other);
+            }
+        }
+    }
+    
+    /**
+     * Returns the distance of the passed in entry from the centre cell;
+     * 
+     * @param row the row of the centre cell (only matters for HEX)
+     * @param k the number of the entry
+     * 
+     * @return the distance of the entry from the centre cell
+     */
+    public int getDistance(int row, int k) {
+        return distances[row & 1][k];
+    }
+    
+    /**
+     * Returns the metric that this table was built with;
+     * 
+     * @return the metric that this table was built with
+     */
+    public Metric getMetric() {
+        return metric;
+    }
+    
+    /**
+     * Returns the furthest distance from the centre cell in this table;
+     * 
+     * @return the furthest distance from the centre cell in this table
+     */
+    public int getRadius() {
+        return radius;
+    }
+    
+    /**
+     * Returns the index of the passed in entry of the neighbourhood of the
+     * cell at the passed in row and column, or -1 if that entry is off the map;
+     * Cells at least a radius away from every edge skip the bounds check;
+     * 
+     * @param row the row of the centre cell
+     * @param col the column of the centre cell
+     * @param k the number of the entry (0 is the centre cell itself)
+     * 
+     * @return the index of the neighbour or -1 if it is off the map
+     */
+    public int neighbour(int row, int col, int k) {
+        int parity = row & 1;
+        if (row < radius || row >= rows - radius || col < radius || col >= cols - radius) {
+            int r = row + rowOffsets[parity][k];
+            int c = col + colOffsets[parity][k];
+            if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                return -1;
+            }
+        }
+        return row * cols + col + indexOffsets[parity][k];
+    }
+    
+    /**
+     * Writes the index of every cell in the neighbourhood of the passed in
+     * cell that is on the map (the cell itself included) into the passed in
+     * array and returns how many there were;
+     * 
+     * @param cell the index of the centre cell
+     * @param out the array to write the indices into; it must hold at least
+     *            size() entries
+     * 
+     * @return the number of indices written
+     */
+    public int neighbours(int cell, int[] out) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        int count = 0;
+        for (int k = 0; k < size(); k++) {
+            int other = neighbour(row, col, k);
+            if (other >= 0) {
+                out[count++] = other;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the number of entries in the table (the cell itself included);
+     * 
+     * @return the number of entries in the table
+     */
+    public int size() {
+        return rowOffsets[0].length;
+    }
+    
+    
+    /**
+     * Fills in the offset tables for centre cells on rows of the passed in
+     * parity;
+     * 
+     * @param parity 0 for even rows or 1 for odd rows
+     */
+    private void buildTable(int parity) {
+        int side = 2 * radius + 1;
+        int[] dr = new int[side * side];
+        int[] dc = new int[side * side];
+        int[] dist = new int[side * side];
+        int count = 0;
+        // closest entries first; within a distance, row-major order
+        for (int d = 0; d <= radius; d++) {
+            for (int i = -radius; i <= radius; i++) {
+                for (int j = -radius; j <= radius; j++) {
+                    if (metric.distance(parity, 0, parity + i, j) == d) {
+                        dr[count] = i;
+                        dc[count] = j;
+                        dist[count] = d;
+                        count++;
+                    }
+                }
+            }
+        }
+        
+        rowOffsets[parity] = new int[count];
+        colOffsets[parity] = new int[count];
+        distances[parity] = new int[count];
+        indexOffsets[parity] = new int[count];
+        for (int k = 0; k < count; k++) {
+            rowOffsets[parity][k] = dr[k];
+            colOffsets[parity][k] = dc[k];
+            distances[parity][k] = dist[k];
+            indexOffsets[parity][k] = dr[k] * cols + dc[k];
+        }
+    }
+    
+}
@@ -0,0 +1,190 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the objectives on a GridState: the cells that regenerate
+ * enemies every enemy spread and that the player has to capture to win; A map
+ * can have any number of objectives, and everything here costs time in the
+ * number of objectives rather than the size of the map.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class ObjectiveRegistry {
+    
+    /** The grid indices of the objectives (only the first size are used); */
+    private int[] cells;
+    /** The curve that decides how many enemies each objective regenerates; */
+    private RegenCurve curve;
+    /** The map that the objectives are on; */
+    private final GridState grid;
+    /** The number of objectives; */
+    private int size;
+    
+    
+    /**
+     * Creates a new ObjectiveRegistry holding every cell of the objective type
+     * on the passed in map;
+     * 
+     * @param grid the map that the objectives are on
+     * @param curve the curve that decides how many enemies each objective
+     *            regenerates
+     */
+    public ObjectiveRegistry(GridState grid, RegenCurve curve) {
+        this.grid = grid;
+        this.cells = new int[4];
+        this.setCurve(curve);
+        for (int cell = 0; cell < grid.getSize(); cell++) {
+            if (grid.getTypeId(cell) == GridState.OBJECTIVE_TYPE) {
+                add(cell);
+            }
+        }
+    }
+    
+    
+    /**
+     * Adds the passed in cell as an objective if it isn't one already;
+     * 
+     * @param cell the grid index of the new objective
+     */
+    public void add(int cell) {
+        if (contains(cell)) {
+            return;
+        }
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size * 2);
+        }
+        cells[size++] = cell;
+    }
+    
+    /**
+     * Returns whether or not every objective has been captured (a map with no
+     * objectives can't be won by capturing them);
+     * 
+     * @return whether or not every objective has been captured
+     */
+    public boolean allCaptured() {
+        return size > 0 && getNumCaptured() == size;
+    }
+    
+    /**
+     * Returns whether or not the passed in cell is an objective;
+     * 
+     * @param cell the grid index of the cell
+     * 
+     * @return whether or not the cell is an objective
+     */
+    public boolean contains(int cell) {
+        for (int i = 0; i < size; i++) {
+            if (cells[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the grid index of the objective at the passed in position;
+     * 
+     * @param i the position of the objective in this registry
+     * 
+     * @return the grid index of the objective
+     */
+    public int get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("no objective " + i);
+        }
+        return cells[i];
+    }
+    
+    /**
+     * Returns the curve that decides how many enemies each objective
+     * regenerates;
+     * 
+     * @return the curve that decides how many enemies each objective
+     *         regenerates
+     */
+    public RegenCurve getCurve() {
+        return curve;
+    }
+    
+    /**
+     * Returns the number of objectives that the player has captured;
+     * 
+     * @return the number of objectives that the player has captured
+     */
+    public int getNumCaptured() {
+        int captured = 0;
+        for (int i = 0; i < size; i++) {
+            if (grid.isFlagSet(cells[i], GridState.CAPTURED)) {
+                captured++;
+            }
+        }
+        return captured;
+    }
+    
+    /**
+     * Regenerates the enemies in each objective that the player hasn't
+     * captured according to the curve; Each objective draws from its own
+     * stream so the result doesn't depend on the order of the objectives;
+     * 
+     * @param random the game's source of randomness
+     * @param tick the number of the enemy spread that is taking place
+     */
+    public void regen(GameRandom random, long tick) {
+        for (int i = 0; i < size; i++) {
+            int obj = cells[i];
+            int enemies = grid.getEnemies(obj);
+            if (!grid.isFlagSet(obj, GridState.CAPTURED) && enemies < GridState.MAX_ENEMIES) {
+                int regenerated = curve.regen(enemies, GridState.MAX_ENEMIES,
+                        random.stream(GameRandom.REGEN, tick, obj));
+                // setEnemies keeps the total within the maximum
+                grid.setEnemies(obj, enemies + Math.max(0, regenerated));
+            }
+        }
+    }
+    
+    /**
+     * Regenerates the enemies in each objective that the player hasn't
+     * captured as if the passed in number of enemy spreads had happened with
+     * nothing else going on (see RegenCurve.regenOver()); Used to catch up on
+     * a long time in one go;
+     * 
+     * @param random the game's source of randomness
+     * @param tick the number of the first enemy spread being caught up on
+     * @param spreads the number of enemy spreads to catch up on
+     */
+    public void regenOver(GameRandom random, long tick, long spreads) {
+        for (int i = 0; i < size; i++) {
+            int obj = cells[i];
+            int enemies = grid.getEnemies(obj);
+            if (!grid.isFlagSet(obj, GridState.CAPTURED) && enemies < GridState.MAX_ENEMIES) {
+                int regenerated = curve.regenOver(enemies, GridState.MAX_ENEMIES, spreads,
+                        random.stream(GameRandom.REGEN, tick, obj));
+                grid.setEnemies(obj, enemies + regenerated);
+            }
+        }
+    }
+    
+    /**
+     * Sets the curve that decides how many enemies each objective regenerates;
+     * 
+     * @param value the new curve
+     */
+    public void setCurve(RegenCurve value) {
+        if (value == null) {
+            throw new IllegalArgumentException("curve must not be null");
+        }
+        this.curve = value;
+    }
+    
+    /**
+     * Returns the number of objectives;
+     * 
+     * @return the number of objectives
+     */
+    public int size() {
+        return size;
+    }
+    
+}
@@ -0,0 +1,39 @@
+package engine;
+
+/**
+ * Plays the player's side of a game without anybody at the controls; A
+ * headless game gives its strategy one move at a time, spaced out in game time
+ * like a real player's clicks (see BalanceRunner), so a strategy can only get
+ * as much done between enemy spreads as a player could; Searches that think
+ * in turns instead let the strategy make every move it wants before the
+ * enemies spread again.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public interface PlayerStrategy {
+    
+    /**
+     * Makes at most one of the player's moves (capturing, scouting, building,
+     * etc.) through the engine; Called on the thread that is running the game,
+     * so the engine can be used directly;
+     * 
+     * @param engine the engine running the game
+     * 
+     * @return whether or not a move was made (false if there is nothing that
+     *         the strategy wants to do right now)
+     */
+    boolean move(GameEngine engine);
+    
+    /**
+     * Makes the player's moves for one turn: moves until there is nothing left
+     * that the strategy wants to do (or the game ends);
+     * 
+     * @param engine the engine running the game
+     */
+    default void play(GameEngine engine) {
+        while (!engine.isGameOver() && move(engine)) {
+            // keep moving
+        }
+    }
+    
+}
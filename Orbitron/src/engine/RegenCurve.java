@@ -0,0 +1,132 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Decides how many enemies a hostile objective regenerates during each enemy
+ * spread; The engine clamps the result to the maximum number of enemies that
+ * a cell can hold, so a curve doesn't have to.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+@FunctionalInterface
+public interface RegenCurve {
+    
+    /**
+     * Returns the number of enemies that an objective regenerates during one
+     * enemy spread;
+     * 
+     * @param enemies the number of enemies in the objective before it
+     *            regenerates
+     * @param maxEnemies the maximum number of enemies that a cell can hold
+     * @param rand the random number generator to draw from
+     * 
+     * @return the number of enemies to add to the objective
+     */
+    int regen(int enemies, int maxEnemies, SplittableRandom rand);
+    
+    /**
+     * Returns the total number of enemies that an objective regenerates over
+     * the passed in number of enemy spreads, for catching up on a long time
+     * in one go; By default the curve is run one spread at a time but stops
+     * as soon as the objective is full, so it costs time in the number of
+     * spreads that it takes to fill the objective rather than the number of
+     * spreads; Curves that can work the total out directly override this;
+     * 
+     * @param enemies the number of enemies in the objective before it
+     *            regenerates
+     * @param maxEnemies the maximum number of enemies that a cell can hold
+     * @param spreads the number of enemy spreads to regenerate over
+     * @param rand the random number generator to draw from
+     * 
+     * @return the number of enemies to add to the objective (never more than
+     *         it is missing)
+     */
+    default int regenOver(int enemies, int maxEnemies, long spreads, SplittableRandom rand) {
+        int total = enemies;
+        for (long i = 0; i < spreads && total < maxEnemies; i++) {
+            total = Math.min(maxEnemies, total + Math.max(0, regen(total, maxEnemies, rand)));
+        }
+        return Math.max(0, total - enemies);
+    }
+    
+    
+    /**
+     * Returns a curve that regenerates a uniformly random number of enemies
+     * no matter how many the objective already has;
+     * 
+     * @param min the fewest enemies regenerated per spread
+     * @param max one more than the most enemies regenerated per spread
+     * 
+     * @return a flat curve between min and max
+     */
+    static RegenCurve uniform(int min, int max) {
+        if (min < 0 || max <= min) {
+            throw new IllegalArgumentException("need 0 <= min < max");
+        }
+        return new RegenCurve() {
+            
+            @Override
+            public int regen(int enemies, int maxEnemies, SplittableRandom rand) {
+                return rand.nextInt(max - min) + min;
+            }
+            
+            @Override
+            public int regenOver(int enemies, int maxEnemies, long spreads,
+                    SplittableRandom rand) {
+                int missing = Math.max(0, maxEnemies - enemies);
+                // even the fewest enemies every spread would fill the objective
+                if (min > 0 && spreads >= (missing + min - 1) / min) {
+                    return missing;
+                }
+                if (max - min == 1) {
+                    return (int) Math.min(missing, spreads * min);
+                }
+                return RegenCurve.super.regenOver(enemies, maxEnemies, spreads, rand);
+            }
+        
+        };
+    }
+    
+    /**
+     * Returns a curve that regenerates a fraction of the enemies that the
+     * objective is missing, so a nearly empty objective recovers quickly and a
+     * nearly full one slowly;
+     * 
+     * @param fraction the fraction (0 to 1) of the missing enemies regenerated
+     *            per spread
+     * 
+     * @return a curve that regenerates a fraction of the missing enemies
+     */
+    static RegenCurve proportional(double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("fraction must be in (0, 1]");
+        }
+        return (enemies, maxEnemies, rand) -> (int) Math.ceil((maxEnemies - enemies) * fraction);
+    }
+    
+    /**
+     * Returns a curve that refills the objective completely every spread (this
+     * is how objectives behaved when each one regenerated once per cell on the
+     * map);
+     * 
+     * @return a curve that refills the objective every spread
+     */
+    static RegenCurve refill() {
+        return new RegenCurve() {
+            
+            @Override
+            public int regen(int enemies, int maxEnemies, SplittableRandom rand) {
+                return maxEnemies - enemies;
+            }
+            
+            @Override
+            public int regenOver(int enemies, int maxEnemies, long spreads,
+                    SplittableRandom rand) {
+                return spreads > 0 ? Math.max(0, maxEnemies - enemies) : 0;
+            }
+        
+        };
+    }
+    
+}
@@ -0,0 +1,163 @@
+package engine;
+
+/**
+ * Simple fixed ways of playing the game that headless runs use to stand in
+ * for real players; They only capture, scout, and station soldiers, and they
+ * always make the same moves in the same situation, so a game played by one
+ * of them is decided by its seed alone.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public enum ScriptedStrategy implements PlayerStrategy {
+    
+    /** Never does anything; Shows how long the Space Port lasts on its own; */
+    IDLE {
+        @Override
+        public boolean move(GameEngine engine) {
+            // the enemies get a free run at the Space Port
+            return false;
+        }
+    },
+    
+    /** Captures the cheapest cells it can reach and scouts everything it can; */
+    EXPAND {
+        @Override
+        public boolean move(GameEngine engine) {
+            return expand(engine, -1);
+        }
+    },
+    
+    /**
+     * Heads straight for the nearest uncaptured objective, capturing and
+     * scouting only the cells that bring it closer;
+     */
+    RUSH {
+        @Override
+        public boolean move(GameEngine engine) {
+            return expand(engine, nearestObjective(engine));
+        }
+    },
+    
+    /**
+     * Keeps a garrison stationed in the Space Port and expands like EXPAND with
+     * whatever soldiers are left over;
+     */
+    DEFEND {
+        @Override
+        public boolean move(GameEngine engine) {
+            CellState spacePort = engine.getSpacePort();
+            int stationed = spacePort.getStationedSoldiers();
+            int extra = Math.min(GARRISON - stationed, engine.getState().getSoldiers());
+            if (extra > 0 && engine.changeStationedSoldiers(spacePort, stationed + extra, false)) {
+                return true;
+            }
+            return expand(engine, -1);
+        }
+    };
+    
+    
+    /** The number of soldiers that DEFEND keeps stationed in the Space Port; */
+    private static final int GARRISON = 10;
+    /** The number of soldiers that it costs to scout a cell; */
+    private static final int SCOUT_COST = 1;
+    
+    
+    /**
+     * Makes one move towards taking over the map: captures a cell if the
+     * player can afford one, and otherwise scouts one; Without a target the
+     * cheapest capturable cell is captured and any scoutable cell is scouted;
+     * With a target the capturable cell closest to it is captured, and the
+     * scoutable cell closest to it is only scouted if it is closer than every
+     * capturable cell (otherwise the soldiers are saved for that capture);
+     * 
+     * @param engine the engine running the game
+     * @param target the grid index of the cell to head for, or -1 for none
+     * 
+     * @return whether or not a move was made
+     */
+    private static boolean expand(GameEngine engine, int target) {
+        GridState grid = engine.getGrid();
+        GameState state = engine.getState();
+        int capture = -1;
+        long captureRank = Long.MAX_VALUE;
+        int nearestCapturable = Integer.MAX_VALUE;
+        int scout = -1;
+        int scoutDistance = Integer.MAX_VALUE;
+        for (int cell = 0; cell < grid.getSize(); cell++) {
+            int distance = target < 0 ? 0 : distance(grid, cell, target);
+            if (grid.isFlagSet(cell, GridState.CAPTURABLE)) {
+                int cost = grid.getEnemies(cell) / 2 + 1;
+                long rank = (long) distance * GridState.MAX_ENEMIES + cost;
+                nearestCapturable = Math.min(nearestCapturable, distance);
+                if (state.getSoldiers() >= cost && rank < captureRank) {
+                    capture = cell;
+                    captureRank = rank;
+                }
+            }
+            if (grid.isFlagSet(cell, GridState.SCOUTABLE) && distance < scoutDistance) {
+                scout = cell;
+                scoutDistance = distance;
+            }
+        }
+        
+        if (capture >= 0) {
+            return engine.captureCell(view(grid, capture), false);
+        }
+        if (scout >= 0 && state.getSoldiers() >= SCOUT_COST
+                && (target < 0 || scoutDistance < nearestCapturable)) {
+            return engine.scoutCell(view(grid, scout), false);
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the number of steps between the two passed in cells;
+     * 
+     * @param grid the map that the cells are on
+     * @param a the grid index of one cell
+     * @param b the grid index of the other cell
+     * 
+     * @return the number of steps between the cells
+     */
+    private static int distance(GridState grid, int a, int b) {
+        return Math.abs(grid.getRow(a) - grid.getRow(b))
+                + Math.abs(grid.getCol(a) - grid.getCol(b));
+    }
+    
+    /**
+     * Returns the uncaptured objective that is the fewest steps from the Space
+     * Port, or -1 if there isn't one;
+     * 
+     * @param engine the engine running the game
+     * 
+     * @return the grid index of the nearest uncaptured objective, or -1
+     */
+    private static int nearestObjective(GameEngine engine) {
+        GridState grid = engine.getGrid();
+        ObjectiveRegistry objectives = engine.getObjectives();
+        int spacePort = engine.getSpacePort().getIndex();
+        int nearest = -1;
+        for (int i = 0; i < objectives.size(); i++) {
+            int cell = objectives.get(i);
+            if (!grid.isFlagSet(cell, GridState.CAPTURED) && (nearest < 0
+                    || distance(grid, cell, spacePort) < distance(grid, nearest, spacePort))) {
+                nearest = cell;
+            }
+        }
+        return nearest;
+    }
+    
+    /**
+     * Returns a view of the passed in cell that the engine's methods can be
+     * called with;
+     * 
+     * @param grid the map that the cell is on
+     * @param cell the grid index of the cell
+     * 
+     * @return a view of the cell
+     */
+    private static CellState view(GridState grid, int cell) {
+        return new CellState(grid, grid.getRow(cell), grid.getCol(cell));
+    }
+    
+}
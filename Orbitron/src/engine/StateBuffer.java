@@ -0,0 +1,85 @@
+package engine;
+
+/**
+ * A reusable place to keep a snapshot of a whole game; Its storage is
+ * allocated once, the first time, to fit a game, and after that taking a
+ * snapshot or restoring one only copies arrays (no allocating, no
+ * serializing, and nothing from JavaFX), so it is cheap enough to do every
+ * frame or thousands of times a second. Restoring puts the snapshot back into
+ * a GameState in place, so any engine, views, or GameCells attached to the
+ * state see the restored game straight away, and every cell that the restore
+ * changes is marked for redrawing. Used for undo, previewing a move, search
+ * rollouts, and saving a game without holding up the GameClock's thread.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public final class StateBuffer {
+    
+    /** The snapshot (a game state that is never played on), or null; */
+    private GameState snapshot;
+    
+    
+    /**
+     * Creates a new empty StateBuffer; Its storage is allocated by the first
+     * snapshot taken;
+     */
+    public StateBuffer() {
+        this.snapshot = null;
+    }
+    
+    
+    /**
+     * Returns the game state held in the buffer; It must only be read (for
+     * example to write it to a save file), never played on;
+     * 
+     * @return the game state held in the buffer
+     * 
+     * @throws IllegalStateException if no snapshot has been taken
+     */
+    public GameState getState() {
+        if (snapshot == null) {
+            throw new IllegalStateException("no snapshot has been taken");
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Returns whether or not a snapshot has been taken;
+     * 
+     * @return whether or not a snapshot has been taken
+     */
+    public boolean isEmpty() {
+        return snapshot == null;
+    }
+    
+    /**
+     * Puts the game back into the state of the last snapshot taken, in
+     * place; The game must be the same size as the one that the snapshot was
+     * taken of; Only the thread that changes the game may call this;
+     * 
+     * @param state the game state to restore the snapshot into
+     * 
+     * @throws IllegalStateException if no snapshot has been taken
+     */
+    public void restore(GameState state) {
+        state.copyFrom(getState());
+    }
+    
+    /**
+     * Copies the passed in game into the buffer, replacing any snapshot
+     * already in it; The record of the game's commands isn't copied; Only the
+     * thread that changes the game may call this;
+     * 
+     * @param state the game state to take a snapshot of
+     */
+    public void take(GameState state) {
+        GridState grid = state.getGrid();
+        if (snapshot == null || snapshot.getGrid().getRows() != grid.getRows()
+                || snapshot.getGrid().getCols() != grid.getCols()) {
+            snapshot = new GameState(state, state.getSeed());
+        } else {
+            snapshot.copyFrom(state);
+        }
+    }
+    
+}
@@ -1,5 +1,12 @@
 package main;
 
+import java.util.function.Function;
+
+import dynamicStorage.MapSize;
+import engine.CellState;
+import engine.GridState;
+import javafx.animation.SequentialTransition;
+import javafx.beans.value.ChangeListener;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -17,8 +24,8 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Popup;
@@ -26,6 +33,7 @@ import staticStorage.Animations;
 import staticStorage.CellGraphics;
 import supportingClasses.GameCell;
 import supportingClasses.GameCellContainer;
+import supportingClasses.MapViewport;
 
 /**
  * This class controls all of the UI elements displayed while in the game scene.
@@ -36,15 +44,6 @@ import supportingClasses.GameCellContainer;
  */
 public class GameUIController {
     
-    /** The width of the GridPane that displays the cells; */
-    private static final double GRID_WIDTH = 2250.0;
-    /** The height of the GridPane that displays the cells; */
-    private static final double GRID_HEIGHT = 1500.0;
-    /** The number of rows in the GridPane; */
-    private static final int GRID_ROWS = 10;
-    /** The number of columns in the GridPane; */
-    private static final int GRID_COLS = 15;
-    
     /** The root node of the game UI (from FXML); */
     @FXML // root node
     public AnchorPane gameUIRoot;
@@ -55,7 +54,7 @@ public class GameUIController {
     private ScrollPane scrollPane;
     
     @FXML // holds the game map
-    private GridPane grid;
+    private Pane mapPane;
     
     /** The chat box in the game UI (from FXML); */
     @FXML // chat
@@ -104,10 +103,10 @@ public class GameUIController {
     private GameLogic logic;
     
     /** The Space Port for the current game; */
-    private GameCell spacePort;
+    private CellState spacePort;
     
-    /** The game map for the current game; */
-    private GameCell[][] gameMap;
+    /** Shows the part of the current game's map that is in view; */
+    private MapViewport viewport;
     
     /** The cell that is currently under inspection by the player; */
     private GameCell activeCell;
@@ -122,7 +121,7 @@ public class GameUIController {
     private GameCell previousHoveredCell;
     
     /** The cell that is currently set to be "hot"; */
-    private GameCell hotCell;
+    private CellState hotCell;
     
     
     /** The custom context menu; */
@@ -150,6 +149,22 @@ public class GameUIController {
         instance = this;
     }
     
+    /**
+     * Updates the cells in view whenever the map is scrolled or the window is
+     * resized; This is called by the FXMLLoader once the fields from FXML have
+     * been set;
+     */
+    public void initialize() {
+        ChangeListener<Object> drawVisible = (observable, oldValue, newValue) -> {
+            if (viewport != null) {
+                viewport.update();
+            }
+        };
+        scrollPane.hvalueProperty().addListener(drawVisible);
+        scrollPane.vvalueProperty().addListener(drawVisible);
+        scrollPane.viewportBoundsProperty().addListener(drawVisible);
+    }
+    
     /**
      * Returns the GameUIController;
      * 
@@ -160,39 +175,57 @@ public class GameUIController {
     }
     
     /**
-     * Returns the GridPane where the GameCells are drawn;
+     * Returns the Pane where the GameCells are drawn;
      * 
-     * @return the GridPane where the GameCells are drawn
+     * @return the Pane where the GameCells are drawn
      */
-    public GridPane getGrid() {
-        return this.grid;
+    public Pane getMapPane() {
+        return this.mapPane;
     }
     
     /**
-     * Returns the ScrollPane which holds the GridPane;
+     * Returns the ScrollPane which holds the map's Pane;
      * 
-     * @return the ScrollPane which holds the GridPane
+     * @return the ScrollPane which holds the map's Pane
      */
     public ScrollPane getScrollPane() {
         return this.scrollPane;
     }
     
+    /**
+     * Returns the viewport that shows the part of the current game's map that
+     * is in view;
+     * 
+     * @return the viewport of the current game's map
+     */
+    public MapViewport getViewport() {
+        return this.viewport;
+    }
+    
     /**
      * Sets the Space Port of the current game;
      * 
      * @param sp the Space Port of the current game
      */
-    public void setSpacePort(GameCell sp) {
+    public void setSpacePort(CellState sp) {
         this.spacePort = sp;
     }
     
     /**
-     * Sets the game map for the current game;
+     * Sets the game map for the current game and shows it at full size; Only
+     * the cells in view get GameCells, which are moved over to other cells as
+     * the map is scrolled;
      * 
-     * @param gm the game map for the current game
+     * @param gm the grid of the game map for the current game
      */
-    public void setGameMap(GameCell[][] gm) {
-        this.gameMap = gm;
+    public void setGameMap(GridState gm) {
+        zoomedOut = false;
+        viewport = new MapViewport(gm, scrollPane, mapPane, MapSize.CELL_SIZE, cell -> {
+            // sets the action of each GameCell
+            cell.setOnMouseClicked(e -> handleGameCellClicks(e, false));
+            cell.setOnMouseEntered(e -> addHighlight(e));
+            cell.setOnMouseExited(e -> removeHighlight(e));
+        });
     }
     
     /**
@@ -206,12 +239,12 @@ public class GameUIController {
     
     
     /**
-     * Pauses the game by stopping the logic's bgThread and bringing up a pause
+     * Pauses the game by pausing the logic's game clock and bringing up a pause
      * menu;
      */
     public void pauseGame() {
         if (!gameUIRoot.getChildren().contains(pausePane)) {
-            logic.stopBgThread();
+            logic.pauseClock();
             // TODO add options and the ability to save and return to main menu in the pause menu
             // set up the pause pane
             pausePane.getChildren().clear();
@@ -222,7 +255,7 @@ public class GameUIController {
             Button resumeBtn = new Button();
             resumeBtn.setText("RESUME");
             resumeBtn.setOnAction(e -> {
-                logic.startBgThread();
+                logic.resumeClock();
                 gameUIRoot.getChildren().remove(pausePane);
             });
             AnchorPane.setTopAnchor(resumeBtn, 25.0);
@@ -245,15 +278,21 @@ public class GameUIController {
     /**
      * Tells the game logic to save the game and depending on if the save is
      * successful or not, this method will append an appropriate message to
-     * KAL's chat;
+     * KAL's chat; Replays aren't saved;
      */
     public void saveGame() {
-        if (logic.saveGame()) {
-            chatBox.appendText("\n--Session saved successfully!!");
-            
-        } else {
-            chatBox.appendText("\n--Session failed to save :(");
+        if (logic.isReplay()) {
+            chatBox.appendText("\n--Replays can't be saved");
+            return;
         }
+        logic.saveGame(saved -> {
+            if (saved) {
+                chatBox.appendText("\n--Session saved successfully!!");
+            
+            } else {
+                chatBox.appendText("\n--Session failed to save :(");
+            }
+        });
     }
     
     
@@ -263,54 +302,19 @@ public class GameUIController {
     public void changeView() {
         
         if (!zoomedOut) { // if map is full size
-            grid.setMaxHeight(scrollPane.getHeight() - 18);
-            grid.setMaxWidth(scrollPane.getWidth() - 18);
-            grid.setMaxHeight(scrollPane.getHeight() - 18);
-            grid.setMaxWidth(scrollPane.getWidth() - 18);
             zoomedOut = true;
             
-            // iterate through row
-            for (int i = 0; i < gameMap.length; i++) {
-                // iterate through column
-                for (int j = 0; j < gameMap[i].length; j++) {
-                    // set size of each GameCell
-                    gameMap[i][j].setHeight((scrollPane.getHeight() - 18) / GRID_ROWS);
-                    gameMap[i][j].setWidth((scrollPane.getWidth() - 18) / GRID_COLS);
-                    
-                    /* REDRAW GRAPHICS FOR EACH GAME CELL */
-                    /*
-                     * CellDrawer drawer = new CellDrawer(gameMap[i][j], false);
-                     * drawer.drawGraphics();
-                     */
-                    CellGraphics.drawGraphics(gameMap[i][j], false);
-                }
-            }
+            // shrink the cells so that the whole map fits in view (the map
+            // scrolls if that would make them too small to see)
+            GridState gm = viewport.getGrid();
+            double fit = Math.min((scrollPane.getHeight() - 18) / gm.getRows(),
+                    (scrollPane.getWidth() - 18) / gm.getCols());
+            viewport.setCellSize(Math.max(MapViewport.MIN_CELL_SIZE, fit));
         } else if (zoomedOut) { // if map is compressed
-            // resize GridPane
-            grid.setMaxHeight(grid.getPrefHeight());
-            grid.setMaxWidth(grid.getPrefWidth());
-            grid.setMaxHeight(grid.getPrefHeight());
-            grid.setMaxWidth(grid.getPrefWidth());
             zoomedOut = false;
             
             // resize GameCells
-            // iterate through row
-            for (int i = 0; i < gameMap.length; i++) {
-                // iterate through column
-                for (int j = 0; j < gameMap[i].length; j++) {
-                    // set size of each GameCell
-                    gameMap[i][j].setHeight(GRID_HEIGHT / GRID_ROWS);
-                    gameMap[i][j].setWidth(GRID_WIDTH / GRID_COLS);
-                    
-                    /* REDRAW GRAPHICS FOR EACH GAME CELL */
-                    /*
-                     * CellDrawer drawer = new CellDrawer(gameMap[i][j], false);
-                     * drawer.drawGraphics();
-                     */
-                    CellGraphics.drawGraphics(gameMap[i][j], false);
-                    
-                } // end of inner for loop
-            } // end of outer for loop
+            viewport.setCellSize(MapSize.CELL_SIZE);
         } // end of else if
     }
     
@@ -320,8 +324,12 @@ public class GameUIController {
      * @param e the ActionEvent produced by a button that called this method
      */
     public void returnToMainMenu(ActionEvent e) {
-        logic.stopBgThread();
-        saveGame();
+        // the save is queued behind the pause and ahead of the shut down
+        logic.pauseClock();
+        if (!logic.isReplay()) {
+            saveGame();
+        }
+        logic.shutDownClock();
         chatBox.clear();
         chatBox.appendText(
                 "--Hi! I'm KAL, your personal A.I.!! I'll help you throughout your screening session.");
@@ -330,6 +338,35 @@ public class GameUIController {
     }
     
     
+    /**
+     * Freezes the game's time (0x speed) without bringing up the pause menu;
+     */
+    public void setSpeedFrozen() {
+        logic.setClockSpeed(0);
+    }
+    
+    /**
+     * Runs the game at normal (1x) speed;
+     */
+    public void setSpeedNormal() {
+        logic.setClockSpeed(1);
+    }
+    
+    /**
+     * Runs the game at double (2x) speed;
+     */
+    public void setSpeedDouble() {
+        logic.setClockSpeed(2);
+    }
+    
+    /**
+     * Runs the game at eight times (8x) normal speed;
+     */
+    public void setSpeedFast() {
+        logic.setClockSpeed(8);
+    }
+    
+    
     /**
      * Immediately centers view on the Space Port;
      * 
@@ -340,7 +377,7 @@ public class GameUIController {
         if (zoomedOut) {
             changeView();
         }
-        Animations.getAnimJumpToCell(spacePort, scrollPane).play();
+        Animations.getAnimJumpToCell(spacePort, viewport.getCellSize(), scrollPane).play();
     }
     
     
@@ -356,7 +393,7 @@ public class GameUIController {
             if (zoomedOut) {
                 changeView();
             }
-            Animations.getAnimJumpToCell(hotCell, scrollPane).play();
+            Animations.getAnimJumpToCell(hotCell, viewport.getCellSize(), scrollPane).play();
         }
     }
     
@@ -514,7 +551,8 @@ public class GameUIController {
     
     /**
      * Jumps to a cell if it has been double-clicked on; Shows a customized
-     * context menu if a cell is right-clicked on;
+     * context menu if a cell is right-clicked on (unless the game is a replay,
+     * which can only be watched);
      * 
      * @param e the MouseEvent
      * @param tutorialMode whether or not the tutorial is taking place (wherever
@@ -536,12 +574,13 @@ public class GameUIController {
                 if (zoomedOut) {
                     changeView();
                 }
-                Animations.getAnimJumpToCell(activeCell, scrollPane).play();
+                Animations.getAnimJumpToCell(logic.getActiveCell(), viewport.getCellSize(),
+                        scrollPane).play();
             }
         }
         
         // produce the context menu if right-clicked
-        if (e.getButton().equals(MouseButton.SECONDARY)) {
+        if (e.getButton().equals(MouseButton.SECONDARY) && !logic.isReplay()) {
             showContextMenu(e, tutorialMode);
             
         }
@@ -552,7 +591,7 @@ public class GameUIController {
      * Shows the tutorial pane while pausing the game;
      */
     public void showTutorialPane() {
-        logic.stopBgThread();
+        logic.pauseClock();
         // remove any extra panes that may be on the screen
         gameUIRoot.getChildren().remove(1, gameUIRoot.getChildren().size());
         // resets the tutorialPane
@@ -564,7 +603,7 @@ public class GameUIController {
         AnchorPane.setTopAnchor(endBtn, 25.0);
         AnchorPane.setLeftAnchor(endBtn, 25.0);
         endBtn.setOnAction(e2 -> {
-            logic.startBgThread();
+            logic.resumeClock();
             gameUIRoot.getChildren().remove(tutorialPane);
         });
         
@@ -598,8 +637,8 @@ public class GameUIController {
         // create space port
         GameCell page0SpacePort = new GameCell("Space Port", 0, 0, true, true, false, false, false,
                 0, 0, 0, 0, false, false, false);
-        page0SpacePort.setHeight(GameLogic.GRID_HEIGHT / GameLogic.GRID_ROWS);
-        page0SpacePort.setWidth(GameLogic.GRID_WIDTH / GameLogic.GRID_COLS);
+        page0SpacePort.setHeight(MapSize.CELL_SIZE);
+        page0SpacePort.setWidth(MapSize.CELL_SIZE);
         CellGraphics.drawGraphics(page0SpacePort, false);
         AnchorPane.setTopAnchor(page0SpacePort, 50.0);
         AnchorPane.setRightAnchor(page0SpacePort, 0.0);
@@ -610,8 +649,8 @@ public class GameUIController {
         // create objective
         GameCell page0Objective = new GameCell("Objective", 0, 1, false, true, false, true, false,
                 0, 0, 0, 100, false, false, false);
-        page0Objective.setHeight(GameLogic.GRID_HEIGHT / GameLogic.GRID_ROWS);
-        page0Objective.setWidth(GameLogic.GRID_WIDTH / GameLogic.GRID_COLS);
+        page0Objective.setHeight(MapSize.CELL_SIZE);
+        page0Objective.setWidth(MapSize.CELL_SIZE);
         CellGraphics.drawGraphics(page0Objective, false);
         AnchorPane.setTopAnchor(page0Objective, 225.0);
         AnchorPane.setRightAnchor(page0Objective, 0.0);
@@ -646,8 +685,8 @@ public class GameUIController {
         GameCell page1Cell = new GameCell("Apartments", 0, 0, false, false, true, false, false, 0,
                 0, 0, 0, false, true, false);
         page1Cell.setOnMouseClicked(e -> handleGameCellClicks(e, true));
-        page1Cell.setHeight(GameLogic.GRID_HEIGHT / GameLogic.GRID_ROWS);
-        page1Cell.setWidth(GameLogic.GRID_WIDTH / GameLogic.GRID_COLS);
+        page1Cell.setHeight(MapSize.CELL_SIZE);
+        page1Cell.setWidth(MapSize.CELL_SIZE);
         CellGraphics.drawGraphics(page1Cell, false);
         // create a GameCellContainer for the cell
         GameCellContainer page1CellContainer = new GameCellContainer(0, 0, page1Cell);
@@ -676,8 +715,8 @@ public class GameUIController {
         GameCell page2Cell = new GameCell("Apartments", 0, 0, true, true, false, false, false, 0, 0,
                 0, 0, false, false, false);
         page2Cell.setOnMouseClicked(e -> handleGameCellClicks(e, true));
-        page2Cell.setHeight(GameLogic.GRID_HEIGHT / GameLogic.GRID_ROWS);
-        page2Cell.setWidth(GameLogic.GRID_WIDTH / GameLogic.GRID_COLS);
+        page2Cell.setHeight(MapSize.CELL_SIZE);
+        page2Cell.setWidth(MapSize.CELL_SIZE);
         CellGraphics.drawGraphics(page2Cell, false);
         // create a GameCellContainer for the cell
         GameCellContainer page2CellContainer = new GameCellContainer(0, 0, page2Cell);
@@ -708,8 +747,8 @@ public class GameUIController {
         GameCell page3Cell = new GameCell("Apartments", 0, 0, true, true, false, false, false, 0, 0,
                 0, 0, false, false, false);
         page3Cell.setOnMouseClicked(e -> handleGameCellClicks(e, true));
-        page3Cell.setHeight(GameLogic.GRID_HEIGHT / GameLogic.GRID_ROWS);
-        page3Cell.setWidth(GameLogic.GRID_WIDTH / GameLogic.GRID_COLS);
+        page3Cell.setHeight(MapSize.CELL_SIZE);
+        page3Cell.setWidth(MapSize.CELL_SIZE);
         CellGraphics.drawGraphics(page3Cell, false);
         // create a GameCellContainer for the cell
         GameCellContainer page3CellContainer = new GameCellContainer(0, 0, page3Cell);
@@ -743,8 +782,8 @@ public class GameUIController {
         GameCell page4Cell = new GameCell("Apartments", 0, 0, false, true, false, true, false, 0, 0,
                 0, 5, false, false, true);
         page4Cell.setOnMouseClicked(e -> handleGameCellClicks(e, true));
-        page4Cell.setHeight(GameLogic.GRID_HEIGHT / GameLogic.GRID_ROWS);
-        page4Cell.setWidth(GameLogic.GRID_WIDTH / GameLogic.GRID_COLS);
+        page4Cell.setHeight(MapSize.CELL_SIZE);
+        page4Cell.setWidth(MapSize.CELL_SIZE);
         CellGraphics.drawGraphics(page4Cell, false);
         // create a GameCellContainer for the cell
         GameCellContainer page4CellContainer = new GameCellContainer(0, 0, page4Cell);
@@ -846,12 +885,16 @@ public class GameUIController {
         customContextMenu.getContent().clear();
         
         // perform game logic for scouting a cell
-        if (logic.scoutCell(tutorialMode)) {
-            // play scout animation if logic is successful
-            Animations.getAnimScout(activeContainer).play();
-        } else {
-            chatBox.appendText("\n--You need at least one soldier to scout a cell!");
-        }
+        GameCellContainer container = activeContainer;
+        CellState cell = logic.getActiveCell();
+        logic.scoutCell(tutorialMode, scouted -> {
+            if (scouted) {
+                // play scout animation if logic is successful
+                playOn(container, cell, Animations::getAnimScout);
+            } else {
+                chatBox.appendText("\n--You need at least one soldier to scout a cell!");
+            }
+        });
     }
     
     
@@ -870,12 +913,16 @@ public class GameUIController {
         customContextMenu.getContent().clear();
         
         // perform game logic for capturing a cell
-        if (logic.captureCell(tutorialMode)) {
-            // play capture animation if logic is successful
-            Animations.getAnimCapture(activeContainer).play();
-        } else {
-            chatBox.appendText("\n--You need more soldiers to capture that cell!");
-        }
+        GameCellContainer container = activeContainer;
+        CellState cell = logic.getActiveCell();
+        logic.captureCell(tutorialMode, captured -> {
+            if (captured) {
+                // play capture animation if logic is successful
+                playOn(container, cell, Animations::getAnimCapture);
+            } else {
+                chatBox.appendText("\n--You need more soldiers to capture that cell!");
+            }
+        });
     }
     
     
@@ -896,12 +943,16 @@ public class GameUIController {
         customContextMenu.getContent().clear();
         
         // perform game logic for bombarding a cell
-        if (logic.bombardCell(bombardCost, tutorialMode)) {
-            // play bombard animation if logic is successful
-            Animations.getAnimBombard(activeContainer).play();
-        } else {
-            chatBox.appendText("\n--You need more cores to bombard that cell!");
-        }
+        GameCellContainer container = activeContainer;
+        CellState cell = logic.getActiveCell();
+        logic.bombardCell(bombardCost, tutorialMode, bombarded -> {
+            if (bombarded) {
+                // play bombard animation if logic is successful
+                playOn(container, cell, Animations::getAnimBombard);
+            } else {
+                chatBox.appendText("\n--You need more cores to bombard that cell!");
+            }
+        });
     }
     
     /**
@@ -917,59 +968,73 @@ public class GameUIController {
         // close the context menu
         customContextMenu.hide();
         customContextMenu.getContent().clear();
+        GameCellContainer container = activeContainer;
+        CellState cell = logic.getActiveCell();
         
         
         if (((Button) e.getSource()).getText().equals("Housing")) {
             System.out.println("Housing Built");
-            if (logic.build("Housing", tutorialMode)) {
-                // play build animation if logic is successful
-                Animations.getAnimBuild(activeContainer).play();
-            } else {
-                chatBox.appendText("\n--You need more materials to build that!");
-            }
+            logic.build("Housing", tutorialMode, built -> {
+                if (built) {
+                    // play build animation if logic is successful
+                    playOn(container, cell, Animations::getAnimBuild);
+                } else {
+                    chatBox.appendText("\n--You need more materials to build that!");
+                }
+            });
         } else if (((Button) e.getSource()).getText().equals("Robo Factory")) {
             System.out.println("Robotics Factory Built");
-            if (logic.build("Robotics Factory", tutorialMode)) {
-                // play build animation if logic is successful
-                Animations.getAnimBuild(activeContainer).play();
-            } else {
-                chatBox.appendText("\n--You either need more materials to build that or "
-                        + "you don't have enough cores and materials to convert to soldiers!");
-            }
+            logic.build("Robotics Factory", tutorialMode, built -> {
+                if (built) {
+                    // play build animation if logic is successful
+                    playOn(container, cell, Animations::getAnimBuild);
+                } else {
+                    chatBox.appendText("\n--You either need more materials to build that or "
+                            + "you don't have enough cores and materials to convert to soldiers!");
+                }
+            });
         } else if (((Button) e.getSource()).getText().equals("Storage")) {
             System.out.println("Storage Built");
-            if (logic.build("Storage", tutorialMode)) {
-                // play build animation if logic is successful
-                Animations.getAnimBuild(activeContainer).play();
-            } else {
-                chatBox.appendText("\n--You need more materials to build that!");
-            }
+            logic.build("Storage", tutorialMode, built -> {
+                if (built) {
+                    // play build animation if logic is successful
+                    playOn(container, cell, Animations::getAnimBuild);
+                } else {
+                    chatBox.appendText("\n--You need more materials to build that!");
+                }
+            });
         } else if (((Button) e.getSource()).getText().equals("Steel Mill")) {
             System.out.println("Steel Mill Built");
-            if (logic.build("Steel Mill", tutorialMode)) {
-                // play build animation if logic is successful
-                Animations.getAnimBuild(activeContainer).play();
-            } else {
-                chatBox.appendText("\n--You either need more materials to build that or "
-                        + "you don't have enough cores and soldiers to convert to materials!");
-            }
+            logic.build("Steel Mill", tutorialMode, built -> {
+                if (built) {
+                    // play build animation if logic is successful
+                    playOn(container, cell, Animations::getAnimBuild);
+                } else {
+                    chatBox.appendText("\n--You either need more materials to build that or "
+                            + "you don't have enough cores and soldiers to convert to materials!");
+                }
+            });
         } else if (((Button) e.getSource()).getText().equals("Energy Grid")) {
             System.out.println("Energy Grid Built");
-            if (logic.build("Energy Grid", tutorialMode)) {
-                // play build animation if logic is successful
-                Animations.getAnimBuild(activeContainer).play();
-            } else {
-                chatBox.appendText("\n--You need more materials to build that!");
-            }
+            logic.build("Energy Grid", tutorialMode, built -> {
+                if (built) {
+                    // play build animation if logic is successful
+                    playOn(container, cell, Animations::getAnimBuild);
+                } else {
+                    chatBox.appendText("\n--You need more materials to build that!");
+                }
+            });
         } else if (((Button) e.getSource()).getText().equals("Solar Farm")) {
             System.out.println("Solar Farm Built");
-            if (logic.build("Solar Farm", tutorialMode)) {
-                // play build animation if logic is successful
-                Animations.getAnimBuild(activeContainer).play();
-            } else {
-                chatBox.appendText("\n--You either need more materials to build that or "
-                        + "you don't have enough soldiers and materials to convert to cores!");
-            }
+            logic.build("Solar Farm", tutorialMode, built -> {
+                if (built) {
+                    // play build animation if logic is successful
+                    playOn(container, cell, Animations::getAnimBuild);
+                } else {
+                    chatBox.appendText("\n--You either need more materials to build that or "
+                            + "you don't have enough soldiers and materials to convert to cores!");
+                }
+            });
         }
     }
     
@@ -1004,11 +1069,12 @@ public class GameUIController {
             
             // add set as Hot Cell option if activeCell is any cell but the
             // Space Port
-            if (!activeCell.equals(spacePort)) {
+            CellState cell = logic.getActiveCell();
+            if (cell.getIndex() != spacePort.getIndex()) {
                 Button setHotCellBtn = new Button();
                 setHotCellBtn.setText("Hot Cell");
                 setHotCellBtn.setOnAction(e2 -> {
-                    hotCell = activeCell;
+                    hotCell = cell;
                     customContextMenu.hide();
                     customContextMenu.getContent().clear();
                 });
@@ -1057,9 +1123,15 @@ public class GameUIController {
                 Image btnIcon = new Image("res/icons/check.png", 16, 16, false, false);
                 Button stationedBtn = new Button("", new ImageView(btnIcon));
                 stationedBtn.setOnAction(e2 -> {
+                    GameCellContainer container = activeContainer;
+                    CellState cell = logic.getActiveCell();
                     logic.changeStationedSoldiers(stationedSpin.getValue().intValue(),
-                            tutorialMode);
-                    CellGraphics.drawGraphics(activeCell, false);
+                            tutorialMode, stationed -> {
+                                GameCellContainer shown = containerOf(container, cell);
+                                if (shown != null) {
+                                    CellGraphics.drawGraphics(shown.getGameCell(), false);
+                                }
+                            });
                 });
                 
                 stationedSoldiersContainer.getChildren().addAll(stationedLbl, stationedSpin,
@@ -1204,7 +1276,7 @@ public class GameUIController {
      */
     private void showDetailsPane(ActionEvent e) {
         // stop the game timer
-        logic.stopBgThread();
+        logic.pauseClock();
         
         // hide the context menu
         customContextMenu.hide();
@@ -1220,7 +1292,7 @@ public class GameUIController {
         AnchorPane.setTopAnchor(backBtn, 25.0);
         AnchorPane.setLeftAnchor(backBtn, 25.0);
         backBtn.setOnAction(e2 -> {
-            logic.startBgThread();
+            logic.resumeClock();
             gameUIRoot.getChildren().remove(detailsPane);
         });
         
@@ -1262,9 +1334,9 @@ public class GameUIController {
      * @param event the onClick MouseEvent from the activeCell
      */
     private void determineActiveCell(MouseEvent event) {
-        logic.setActiveCell((GameCell) event.getSource());
-        this.activeCell = logic.getActiveCell();
+        this.activeCell = (GameCell) event.getSource();
         this.activeContainer = (GameCellContainer) activeCell.getParent();
+        logic.setActiveCell(activeCell.getState());
 //////////////////// FOR DEBUGGING ONLY\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\\
         /*
          * System.out.println(); System.out.print("cellType: " +
@@ -1297,5 +1369,40 @@ public class GameUIController {
     
     }
     
+    /**
+     * Returns the container that shows the passed in cell, or null if the
+     * cell is out of view; This is the passed in container (the one that
+     * showed the cell when the player acted on it) unless the map has been
+     * scrolled since and the container has been moved over to another cell;
+     * 
+     * @param container the container that showed the cell
+     * @param cell the cell
+     * 
+     * @return the container that shows the cell, or null if it is out of view
+     */
+    private GameCellContainer containerOf(GameCellContainer container, CellState cell) {
+        if (container.getGameCell().getState() == cell) {
+            return container;
+        }
+        return viewport.getContainer(cell.getRow(), cell.getCol());
+    }
+    
+    /**
+     * Plays an animation over the passed in cell if it is still in view;
+     * 
+     * @param container the container that showed the cell when the player
+     *            acted on it
+     * @param cell the cell to play the animation over
+     * @param animation makes the animation for the container that shows the
+     *            cell
+     */
+    private void playOn(GameCellContainer container, CellState cell,
+            Function<GameCellContainer, SequentialTransition> animation) {
+        GameCellContainer shown = containerOf(container, cell);
+        if (shown != null) {
+            animation.apply(shown).play();
+        }
+    }
+    
     
 }
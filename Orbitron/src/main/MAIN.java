@@ -5,6 +5,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.List;
 import java.util.Optional;
 
 import dynamicStorage.PrefsHighScores;
@@ -170,6 +171,14 @@ public class MAIN extends Application {
             // display the stage
             stage.show();
             
+            // "--replay <save slot> [speed]" plays back a recorded game
+            List<String> args = getParameters().getRaw();
+            if (args.size() >= 2 && args.get(0).equals("--replay")) {
+                int speed = args.size() >= 3 ? Integer.parseInt(args.get(2)) : 1;
+                MainMenuUIController.getInstance().watchReplay(Integer.parseInt(args.get(1)),
+                        speed);
+            }
+        
         } catch (Exception e) {
             e.printStackTrace();
         }
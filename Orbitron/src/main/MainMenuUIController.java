@@ -3,8 +3,11 @@ package main;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.concurrent.TimeUnit;
 
 import dynamicStorage.GameInfo;
+import dynamicStorage.MapSize;
+import engine.GameRecord;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
@@ -18,6 +21,7 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import supportingClasses.GamePool;
 
 /**
  * This class controls all of the UI elements displayed while in the main menu
@@ -27,6 +31,10 @@ import javafx.scene.layout.VBox;
  */
 public class MainMenuUIController {
     
+    /** The fastest that a recorded game can be played back (times real time); */
+    public static final int MAX_REPLAY_SPEED = 64;
+    
+    
     /* FXML identifiable objects */
     @FXML // root node
     private AnchorPane mainMenuRoot;
@@ -69,6 +77,12 @@ public class MainMenuUIController {
      */
     private AnchorPane aboutPane = new AnchorPane();
     
+    /**
+     * Makes new games in the background while the player is setting one up,
+     * so that pressing BEGIN doesn't have to wait for the map;
+     */
+    private final GamePool gamePool = new GamePool(GamePool.DEFAULT_CAPACITY);
+    
     /**
      * Stores the instance of the class so that other classes can reference it;
      */
@@ -170,12 +184,17 @@ public class MainMenuUIController {
         // creates a check box for the sound effects
         CheckBox sfxCheck = new CheckBox("SFX");
         sfxCheck.setOnAction(e2 -> MAIN.prefsHighScores.setSFXOn(sfxCheck.isSelected()));
+        // creates a check box for catching loaded games up on the time away
+        CheckBox catchUpCheck = new CheckBox("CATCH UP");
+        catchUpCheck.setSelected(MAIN.prefsHighScores.isCatchUpOn());
+        catchUpCheck.setOnAction(
+                e2 -> MAIN.prefsHighScores.setCatchUpOn(catchUpCheck.isSelected()));
         // creates a container to hold the options
         VBox options = new VBox(25);
         options.setAlignment(Pos.CENTER_RIGHT);
         AnchorPane.setRightAnchor(options, 100.0);
         AnchorPane.setTopAnchor(options, 150.0);
-        options.getChildren().addAll(optionsTitle, musicCheck, sfxCheck);
+        options.getChildren().addAll(optionsTitle, musicCheck, sfxCheck, catchUpCheck);
         
         // creates a button that shows info about the game
         Button aboutBtn = new Button("ABOUT THE GAME");
@@ -275,13 +294,30 @@ public class MainMenuUIController {
             diffChooser.setPrefSize(250.0, 50.0);
             diffChooser.getItems().addAll("EASY", "CHALLENGING", "HARD", "INSANE");
             diffChooser.setValue("CHALLENGING");
+            Label sizeLbl = new Label("Map Size: ");
+            sizeLbl.setPrefSize(350.0, 50.0);
+            sizeLbl.setId("newSaveLabel");
+            // for the player to choose the size of the map
+            ChoiceBox<String> sizeChooser = new ChoiceBox<>();
+            sizeChooser.setId("sizeChooser");
+            sizeChooser.setPrefSize(250.0, 50.0);
+            sizeChooser.getItems().addAll(MapSize.STANDARD.toString(), MapSize.LARGE.toString(),
+                    MapSize.HUGE.toString());
+            sizeChooser.setValue(MapSize.STANDARD.toString());
+            // start making a game of the chosen kind while the player types
+            // their name (and again whenever they choose another kind)
+            Runnable prepareGame = () -> gamePool.prepare(diffChooser.getValue(),
+                    MapSize.parse(sizeChooser.getValue()));
+            prepareGame.run();
+            diffChooser.valueProperty().addListener((obs, old, value) -> prepareGame.run());
+            sizeChooser.valueProperty().addListener((obs, old, value) -> prepareGame.run());
             Button beginGameBtn = new Button("BEGIN");
             beginGameBtn.setPrefSize(100.0, 30.0);
             
             VBox gameSetUpContainer = new VBox();
             gameSetUpContainer.setVisible(false);
             gameSetUpContainer.setSpacing(10.0);
-            gameSetUpContainer.getChildren().addAll(saveTitleLbl, nameLbl, nameFld, diffLbl, diffChooser, beginGameBtn);
+            gameSetUpContainer.getChildren().addAll(saveTitleLbl, nameLbl, nameFld, diffLbl, diffChooser, sizeLbl, sizeChooser, beginGameBtn);
             AnchorPane.setTopAnchor(gameSetUpContainer, 100.0);
             AnchorPane.setLeftAnchor(gameSetUpContainer, 400.0);
             // add the game set up nodes to the save selector but they don't
@@ -300,7 +336,8 @@ public class MainMenuUIController {
                 beginGameBtn.setOnAction(e3 -> {
                     String playerName = nameFld.getText();
                     String difficulty = diffChooser.getValue();
-                    createNewSave(1, playerName, difficulty);
+                    MapSize size = MapSize.parse(sizeChooser.getValue());
+                    createNewSave(1, playerName, difficulty, size);
                 });
             });
             save1Btn.setOnMouseEntered(e2 -> {
@@ -322,7 +359,8 @@ public class MainMenuUIController {
                 beginGameBtn.setOnAction(e3 -> {
                     String playerName = nameFld.getText();
                     String difficulty = diffChooser.getValue();
-                    createNewSave(2, playerName, difficulty);
+                    MapSize size = MapSize.parse(sizeChooser.getValue());
+                    createNewSave(2, playerName, difficulty, size);
                 });
             });
             save2Btn.setOnMouseEntered(e2 -> {
@@ -344,7 +382,8 @@ public class MainMenuUIController {
                 beginGameBtn.setOnAction(e3 -> {
                     String playerName = nameFld.getText();
                     String difficulty = diffChooser.getValue();
-                    createNewSave(3, playerName, difficulty);
+                    MapSize size = MapSize.parse(sizeChooser.getValue());
+                    createNewSave(3, playerName, difficulty, size);
                 });
             });
             save3Btn.setOnMouseEntered(e2 -> {
@@ -565,17 +604,64 @@ public class MainMenuUIController {
         }
     }
     
+    /**
+     * Plays back the game recorded in the given save slot on the game UI at
+     * the passed in speed; The replay is a new game created the same way as
+     * the recorded one, and the recorded commands are run at the game times
+     * that they were first run at, so it ends in the same state as the
+     * recorded game; The player can only watch it: their actions are turned
+     * away and it is never saved;
+     * 
+     * @param saveSlot the save slot that holds the recorded game
+     * @param speed how many times faster than real time to play it back (1 to
+     *            MAX_REPLAY_SPEED)
+     */
+    public void watchReplay(int saveSlot, int speed) {
+        GameRecord record = null;
+        try {
+            FileInputStream fileIn = new FileInputStream("serialized-objects/save" + saveSlot + ".ser");
+            ObjectInputStream in = new ObjectInputStream(fileIn);
+            record = ((GameInfo) in.readObject()).getGameState().getRecord();
+            in.close();
+            fileIn.close();
+        } catch (IOException e) {
+            System.out.println("No Save File");
+            return;
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (record == null) {
+            System.out.println("That game wasn't recorded");
+            return;
+        }
+        
+        GameInfo info = new GameInfo(0, "REPLAY", record.getDifficulty(),
+                new MapSize(record.getRows(), record.getCols()), record.getSeed());
+        // the replay itself isn't recorded
+        info.getGameState().setRecord(null);
+        GameLogic logic = new GameLogic(info);
+        GameUIController.getInstance().setLogic(logic);
+        mainMenuRoot.getChildren().remove(saveSelector);
+        MAIN.mainStage.setScene(MAIN.gameUIScene);
+        logic.playRecord(record);
+        logic.setClockSpeed(Math.max(1, Math.min(MAX_REPLAY_SPEED, speed)));
+        logic.resumeClock();
+    }
+    
+    
     /**
      * Creates a new game in the given save slot;
      * 
      * @param saveSlot the save slot in which to create a new game
      * @param playerName the player's name for the new game
      * @param difficulty the difficulty for the new game
+     * @param size the size of the map for the new game
      */
-    private void createNewSave(int saveSlot, String playerName, String difficulty) {
-        // create GameInfo object which stores all of the game's data in the
-        // given save slot
-        GameInfo info = new GameInfo(saveSlot, playerName, difficulty);
+    private void createNewSave(int saveSlot, String playerName, String difficulty, MapSize size) {
+        // take the GameInfo object (which stores all of the game's data) that
+        // was made in the background while the player set the game up
+        GameInfo info = gamePool.take(saveSlot, playerName, difficulty, size);
         // create a GameLogic object which runs off of the GameInfo object
         GameLogic logic = new GameLogic(info);
         // load the GameLogic object into the game UI
@@ -614,9 +700,13 @@ public class MainMenuUIController {
                 // create a GameLogic object which runs off of the GameInfo
                 // object
                 GameLogic logic = new GameLogic(info);
-                // redraw the game map
-                // this has to be done after creating the GameLogic
-                info.redrawGameMap();
+                // fast-forward the game by the time since it was saved (the
+                // clock runs this before it starts the game's time again)
+                long timeOfLastSave = info.getGameState().getTimeOfLastSave();
+                if (MAIN.prefsHighScores.isCatchUpOn() && timeOfLastSave > 0) {
+                    long awayTime = Math.max(0, System.currentTimeMillis() - timeOfLastSave);
+                    logic.catchUp(TimeUnit.MILLISECONDS.toNanos(awayTime), null);
+                }
                 // load the GameLogic object into the game UI
                 GameUIController.getInstance().setLogic(logic);
                 // close the saveSelector pane
@@ -624,7 +714,7 @@ public class MainMenuUIController {
                 // set the scene to display the game UI
                 MAIN.mainStage.setScene(MAIN.gameUIScene);
                 // start game timer
-                logic.startBgThread();
+                logic.resumeClock();
             }
         } catch (IOException e) {
             // don't do anything because there is no save file
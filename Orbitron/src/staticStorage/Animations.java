@@ -1,5 +1,6 @@
 package staticStorage;
 
+import engine.CellState;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.SequentialTransition;
@@ -382,18 +383,23 @@ public final class Animations {
     
     /**
      * The animation for moving the view from one cell to another automatically;
+     * The view is centred on the cell (as far as the edges of the map allow)
+     * whatever the size of the map and of the cells;
      * 
      * @param activeCell the cell to center the view on
+     * @param cellSize the width (and height) of the cells in view
      * @param scrollPane the ScrollPane object that holds the grid of cells
      * @return the animation for moving from one cell to another automatically
      */
-    public static SequentialTransition getAnimJumpToCell(GameCell activeCell,
+    public static SequentialTransition getAnimJumpToCell(CellState activeCell, double cellSize,
             ScrollPane scrollPane) {
         
-        double hValue = ((scrollPane.getHmax() / 10) * activeCell.getCol()
-                - (scrollPane.getHmax() / 10) * 2);
-        double vValue = ((scrollPane.getVmax() / 6.75) * activeCell.getRow()
-                - (scrollPane.getVmax() / 6.75));
+        int rows = activeCell.getGrid().getRows();
+        int cols = activeCell.getGrid().getCols();
+        double hValue = scrollValueToCentre((activeCell.getCol() + 0.5) * cellSize,
+                cols * cellSize, scrollPane.getViewportBounds().getWidth(), scrollPane.getHmax());
+        double vValue = scrollValueToCentre((activeCell.getRow() + 0.5) * cellSize,
+                rows * cellSize, scrollPane.getViewportBounds().getHeight(), scrollPane.getVmax());
         
         KeyValue kv1 = new KeyValue(scrollPane.hvalueProperty(), hValue);
         
@@ -409,4 +415,24 @@ public final class Animations {
     }
     
     
+    /**
+     * Returns the scroll value that puts the passed in position in the middle
+     * of the viewport (clamped to the ends of the scroll bar);
+     * 
+     * @param centre the position (in pixels) to centre the view on
+     * @param content the length (in pixels) of the content being scrolled
+     * @param viewport the length (in pixels) of the visible part of the content
+     * @param max the scroll value at the far end of the content
+     * @return the scroll value that centres the view on the position
+     */
+    private static double scrollValueToCentre(double centre, double content, double viewport,
+            double max) {
+        if (content <= viewport) {
+            return 0;
+        }
+        double fraction = (centre - viewport / 2) / (content - viewport);
+        return Math.max(0, Math.min(1, fraction)) * max;
+    }
+    
+    
 }
@@ -63,13 +63,15 @@ public class CellGraphics {
     
     
     /**
-     * Draws the graphics for the passed in GameCell;
+     * Draws the graphics for the passed in GameCell; The cell is marked as
+     * drawn;
      * 
      * @param cell the cell's whose graphics are to drawn
      * @param hover whether or not to draw the cell in its "hovered-over" form
      */
     public static void drawGraphics(GameCell cell, boolean hover) {
         initializeFields(cell, hover);
+        cell.setDrawn(true);
         // establish some useful measurement variables for all cells
         double roadWidth = canvasHeight / 14; // the width of the "roads" that
                                               // surround each cell
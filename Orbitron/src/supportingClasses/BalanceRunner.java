@@ -0,0 +1,345 @@
+package supportingClasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+import dynamicStorage.MapSize;
+import engine.GameEngine;
+import engine.GameState;
+import engine.MctsStrategy;
+import engine.PlayerStrategy;
+import engine.ScriptedStrategy;
+
+/**
+ * Plays thousands of headless games at once to show how the difficulties
+ * actually play out; Every difficulty is played by every ScriptedStrategy on
+ * the same set of seeds (so the results can be compared map for map), the
+ * games are spread over all of the machine's cores, and the win rate, time
+ * until the Space Port falls, and score of each difficulty and strategy are
+ * reported along with how many games were played per second; A strategy gets
+ * one move every few seconds of game time, like a player clicking away, so
+ * how quickly the enemies spread on each difficulty decides how much it can
+ * get done in between. The MctsStrategy bot can be played too by giving it a
+ * number of search iterations per move. Can be run from the command line:
+ * BalanceRunner [games per difficulty and strategy] [map size] [threads]
+ * [longest game in minutes] [bot iterations] [seconds per move].
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class BalanceRunner {
+    
+    /** The difficulties that are played; */
+    private static final String[] DIFFICULTIES = { "EASY", "CHALLENGING", "HARD", "INSANE" };
+    /** The default number of games played per difficulty and strategy; */
+    private static final int DEF_GAMES = 1000;
+    /** The default longest game time that a game is played for in minutes; */
+    private static final int DEF_MAX_MINUTES = 60;
+    /** The default game time between a strategy's moves in seconds; */
+    private static final double DEF_MOVE_SECONDS = 2;
+    
+    
+    /**
+     * How one headless game ended;
+     */
+    public static final class Outcome {
+        
+        /** How the game ended ('W', 'L', or ' ' if it ran out of time); */
+        private final char endGame;
+        /** The number of cells that the player ended up with; */
+        private final int numCellsCapped;
+        /** The player's score at the end of the game; */
+        private final int score;
+        /** The game time that the game ended at in nanoseconds; */
+        private final long time;
+        
+        /**
+         * Records how the passed in game ended;
+         * 
+         * @param state the state of the finished game
+         */
+        private Outcome(GameState state) {
+            this.endGame = state.getEndGame();
+            this.numCellsCapped = state.getNumCellsCapped();
+            this.score = state.getScore();
+            this.time = state.getTimeElapsed();
+        }
+        
+        /**
+         * Returns how the game ended: 'W' for a win, 'L' for a loss, or ' ' if
+         * the game was still going when it ran out of time;
+         * 
+         * @return how the game ended
+         */
+        public char getEndGame() {
+            return endGame;
+        }
+        
+        /**
+         * Returns the number of cells that the player ended up with;
+         * 
+         * @return the number of cells that the player ended up with
+         */
+        public int getNumCellsCapped() {
+            return numCellsCapped;
+        }
+        
+        /**
+         * Returns the player's score at the end of the game;
+         * 
+         * @return the player's score at the end of the game
+         */
+        public int getScore() {
+            return score;
+        }
+        
+        /**
+         * Returns the game time that the game ended at in nanoseconds;
+         * 
+         * @return the game time that the game ended at
+         */
+        public long getTime() {
+            return time;
+        }
+    
+    }
+    
+    
+    /**
+     * Runs every difficulty against every ScriptedStrategy (and the
+     * MctsStrategy bot if it is given any iterations) and prints a report of
+     * the results;
+     * 
+     * @param args [games per difficulty and strategy] [map size as ROWSxCOLS]
+     *            [threads] [longest game in minutes] [bot iterations per move]
+     *            [seconds of game time per move]
+     * 
+     * @throws InterruptedException if interrupted while waiting for the games
+     * @throws ExecutionException if a game threw an exception
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int games = DEF_GAMES;
+        MapSize size = MapSize.STANDARD;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxMinutes = DEF_MAX_MINUTES;
+        int botIterations = 0;
+        double moveSeconds = DEF_MOVE_SECONDS;
+        try {
+            if (args.length > 0) {
+                games = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                size = MapSize.parse(args[1]);
+            }
+            if (args.length > 2) {
+                threads = Integer.parseInt(args[2]);
+            }
+            if (args.length > 3) {
+                maxMinutes = Integer.parseInt(args[3]);
+            }
+            if (args.length > 4) {
+                botIterations = Integer.parseInt(args[4]);
+            }
+            if (args.length > 5) {
+                moveSeconds = Double.parseDouble(args[5]);
+            }
+            if (!(moveSeconds > 0)) {
+                throw new IllegalArgumentException("seconds per move must be positive");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("usage: BalanceRunner [games per difficulty and strategy] "
+                    + "[map size ROWSxCOLS] [threads] [longest game in minutes] "
+                    + "[bot iterations per move] [seconds of game time per move]");
+            return;
+        }
+        long maxTime = TimeUnit.MINUTES.toNanos(maxMinutes);
+        long moveTime = (long) (moveSeconds * TimeUnit.SECONDS.toNanos(1));
+        // each game gets its own strategy (made from the game's seed)
+        List<String> names = new ArrayList<>();
+        List<LongFunction<PlayerStrategy>> strategies = new ArrayList<>();
+        for (ScriptedStrategy strategy : ScriptedStrategy.values()) {
+            names.add(strategy.toString());
+            strategies.add(seed -> strategy);
+        }
+        if (botIterations > 0) {
+            int iterations = botIterations;
+            names.add("MCTS");
+            strategies.add(seed -> new MctsStrategy(iterations, 1, seed));
+        }
+        
+        System.out.println("Playing " + games + " games on a " + size + " map for each of "
+                + DIFFICULTIES.length + " difficulties and " + strategies.size()
+                + " strategies on " + threads + " threads (at most " + maxMinutes
+                + " minutes of game time each, one move every " + moveSeconds + " seconds)");
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        int numPlayed = 0;
+        try {
+            List<List<Future<Outcome>>> results = new ArrayList<>();
+            for (String difficulty : DIFFICULTIES) {
+                for (LongFunction<PlayerStrategy> strategy : strategies) {
+                    results.add(submit(pool, difficulty, size, strategy, games, maxTime,
+                            moveTime));
+                }
+            }
+            
+            for (int d = 0; d < DIFFICULTIES.length; d++) {
+                for (int s = 0; s < strategies.size(); s++) {
+                    Outcome[] outcomes = gather(results.get(d * strategies.size() + s));
+                    report(DIFFICULTIES[d], names.get(s), outcomes);
+                    numPlayed += outcomes.length;
+                }
+            }
+        } finally {
+            // the pool's threads would otherwise keep the JVM alive after a failed game
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games in %.1f s (%.0f games per second)%n", numPlayed, seconds,
+                numPlayed / seconds);
+    }
+    
+    /**
+     * Plays one headless game to the end (or until it runs out of time); The
+     * strategy gets one move at the start of the game and then one more every
+     * moveTime of game time (whether or not it made one last time), with the
+     * enemies spreading in between as usual;
+     * 
+     * @param difficulty the difficulty of the game
+     * @param size the size of the game's map
+     * @param seed the seed that the game's map and randomness come from
+     * @param strategy what plays the player's side of the game
+     * @param maxTime the longest game time to play for in nanoseconds
+     * @param moveTime the game time between the strategy's moves in
+     *            nanoseconds
+     * 
+     * @return how the game ended
+     */
+    public static Outcome play(String difficulty, MapSize size, long seed,
+            PlayerStrategy strategy, long maxTime, long moveTime) {
+        if (moveTime <= 0) {
+            throw new IllegalArgumentException("moveTime must be positive");
+        }
+        
+        GameState state = new GameState(difficulty, new MapGenerator(size, seed).generateGrid(),
+                seed);
+        GameEngine engine = new GameEngine(state);
+        while (!engine.isGameOver() && state.getTimeElapsed() < maxTime) {
+            strategy.move(engine);
+            engine.advanceTo(Math.min(state.getTimeElapsed() + moveTime, maxTime));
+        }
+        return new Outcome(state);
+    }
+    
+    
+    /**
+     * Waits for each of the passed in games to finish and returns how they
+     * ended;
+     * 
+     * @param played the games being played
+     * 
+     * @return how each game ended, in the same order
+     * 
+     * @throws InterruptedException if interrupted while waiting for the games
+     * @throws ExecutionException if a game threw an exception
+     */
+    private static Outcome[] gather(List<Future<Outcome>> played)
+            throws InterruptedException, ExecutionException {
+        Outcome[] outcomes = new Outcome[played.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = played.get(i).get();
+        }
+        return outcomes;
+    }
+    
+    /**
+     * Returns the value at the passed in fraction of the way through the
+     * sorted values;
+     * 
+     * @param sorted the values in ascending order
+     * @param fraction how far through the values to look (0 to 1)
+     * 
+     * @return the value at that fraction
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.round(fraction * (sorted.length - 1))];
+    }
+    
+    /**
+     * Prints the win rate, loss times, scores, and captured cells of the
+     * passed in games;
+     * 
+     * @param difficulty the difficulty that the games were played on
+     * @param strategy the name of the strategy that played them
+     * @param outcomes how each game ended
+     */
+    private static void report(String difficulty, String strategy, Outcome[] outcomes) {
+        int wins = 0;
+        int losses = 0;
+        long cells = 0;
+        long[] lossTimes = new long[outcomes.length];
+        long[] scores = new long[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            Outcome outcome = outcomes[i];
+            if (outcome.getEndGame() == 'W') {
+                wins++;
+            } else if (outcome.getEndGame() == 'L') {
+                lossTimes[losses++] = outcome.getTime();
+            }
+            scores[i] = outcome.getScore();
+            cells += outcome.getNumCellsCapped();
+        }
+        Arrays.sort(scores);
+        lossTimes = Arrays.copyOf(lossTimes, losses);
+        Arrays.sort(lossTimes);
+        
+        int n = Math.max(outcomes.length, 1);
+        String lost = losses == 0 ? "        never        "
+                : GameState.formatTime(percentile(lossTimes, 0.25)) + " "
+                        + GameState.formatTime(percentile(lossTimes, 0.5)) + " "
+                        + GameState.formatTime(percentile(lossTimes, 0.75));
+        String scored = outcomes.length == 0 ? ""
+                : scores[0] + " / " + percentile(scores, 0.25) + " / " + percentile(scores, 0.5)
+                        + " / " + percentile(scores, 0.75) + " / " + scores[scores.length - 1];
+        System.out.printf("%-11s %-6s win %5.1f%%  loss %5.1f%%  lost at %s  cells %5.1f  "
+                + "score %s%n", difficulty, strategy, 100.0 * wins / n, 100.0 * losses / n, lost,
+                (double) cells / n, scored);
+    }
+    
+    /**
+     * Submits one task per game for the passed in difficulty and strategy to
+     * the pool; Game i is played on seed i, so every difficulty and strategy
+     * is played on the same maps;
+     * 
+     * @param pool the pool that plays the games
+     * @param difficulty the difficulty of the games
+     * @param size the size of the games' maps
+     * @param strategy makes what plays the player's side of each game from
+     *            the game's seed
+     * @param games the number of games to play
+     * @param maxTime the longest game time to play each game for in
+     *            nanoseconds
+     * @param moveTime the game time between the strategy's moves in
+     *            nanoseconds
+     * 
+     * @return the outcomes of the games, in order of seed, once they finish
+     */
+    private static List<Future<Outcome>> submit(ExecutorService pool, String difficulty,
+            MapSize size, LongFunction<PlayerStrategy> strategy, int games, long maxTime,
+            long moveTime) {
+        List<Future<Outcome>> played = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            long seed = i;
+            played.add(pool.submit(
+                    () -> play(difficulty, size, seed, strategy.apply(seed), maxTime, moveTime)));
+        }
+        return played;
+    }
+    
+}
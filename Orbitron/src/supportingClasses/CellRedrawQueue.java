@@ -0,0 +1,86 @@
+package supportingClasses;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+import engine.CellDiff;
+import engine.IndexedCellSet;
+import javafx.application.Platform;
+
+/**
+ * Carries the CellDiffs that the GameClock's thread takes after every step
+ * over to the JavaFX application thread and redraws the changed cells there;
+ * However many diffs arrive between two frames, only one Platform.runLater is
+ * waiting at a time, and when it runs every diff that has arrived is merged
+ * so that each changed cell is redrawn once. A burst of hundreds of changes
+ * therefore costs one hand-off and one redraw per cell instead of one of each
+ * per change.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class CellRedrawQueue {
+    
+    /** The cells that need redrawing (only touched on the UI thread); */
+    private final IndexedCellSet dirty;
+    /** The diffs that have arrived since the last redraw; */
+    private final ConcurrentLinkedQueue<CellDiff> pending;
+    /** What redraws one cell given its grid index (run on the UI thread); */
+    private final IntConsumer redraw;
+    /** Whether or not a redraw is already waiting to run on the UI thread; */
+    private final AtomicBoolean scheduled;
+    
+    
+    /**
+     * Creates a new CellRedrawQueue for a map with the passed in number of
+     * cells;
+     * 
+     * @param size the number of cells in the map
+     * @param redraw what redraws one cell given its grid index (run on the UI
+     *            thread)
+     */
+    public CellRedrawQueue(int size, IntConsumer redraw) {
+        this.dirty = new IndexedCellSet(size);
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.redraw = redraw;
+        this.scheduled = new AtomicBoolean();
+    }
+    
+    
+    /**
+     * Queues the passed in diff to be redrawn on the UI thread; Safe to call
+     * from any thread and never waits on the UI thread;
+     * 
+     * @param diff the cells that changed
+     */
+    public void offer(CellDiff diff) {
+        if (diff.isEmpty()) {
+            return;
+        }
+        pending.offer(diff);
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::flush);
+        }
+    }
+    
+    
+    /**
+     * Merges every diff that has arrived and redraws each changed cell once;
+     * Run on the UI thread;
+     */
+    private void flush() {
+        // anything that arrives from here on schedules another flush
+        scheduled.set(false);
+        CellDiff diff;
+        while ((diff = pending.poll()) != null) {
+            for (int i = 0; i < diff.size(); i++) {
+                dirty.add(diff.getCell(i));
+            }
+        }
+        for (int i = 0; i < dirty.size(); i++) {
+            redraw.accept(dirty.get(i));
+        }
+        dirty.clear();
+    }
+    
+}
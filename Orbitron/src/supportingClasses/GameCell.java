@@ -1,146 +1,40 @@
 package supportingClasses;
 
-import java.io.Serializable;
-
+import engine.CellState;
 import javafx.scene.canvas.Canvas;
-import staticStorage.CTInfo;
 
 /**
- * This class is the basis for all game play. These hold in-game information and
- * display graphics.
+ * This class is the basis for all game play. These display the graphics for a
+ * cell of the game map; all of the in-game information that they show is held
+ * in the CellState that they wrap so the game rules can run without JavaFX.
  * 
  * @author Stanton Parham (stparham@ncsu.edu)
  */
-public class GameCell extends Canvas implements Serializable {
-    
-    /**
-     * The class's serial ID number; (I just made it the date that I made this
-     * class serializable.)
-     */
-    private static final long serialVersionUID = 041616L;
+public class GameCell extends Canvas {
     
     
     /**
      * The maximum number of enemies allowed to occupy any one cell;
      */
-    public static final int MAX_ENEMIES = 100;
-    
-    
-    /* BASIC INFO */
-    // hold the basic info of the cell
-    /**
-     * The cell type represented as a String;
-     */
-    private String cellType;
-    /**
-     * The index of the cell's type in CTInfo.CTVals;
-     */
-    private int cellTypeIndex;
-    /**
-     * The cell's row number in the map grid;
-     */
-    private int row;
-    /**
-     * The cell's column number in the map grid;
-     */
-    private int col;
-    
-    /* CURRENT STATE BOOLEANS */
-    // hold the state of the cell
-    /**
-     * Whether or not the cell is captured;
-     */
-    private boolean captured;
-    /**
-     * Whether or not the cell has been scouted;
-     */
-    private boolean scouted;
-    /**
-     * Whether or not the cell is neutral;
-     */
-    private boolean neutral;
-    /**
-     * Whether or not the cell is hostile;
-     */
-    private boolean hostile;
-    /**
-     * Whether or not the cell has been destroyed;
-     */
-    private boolean destroyed;
-    /**
-     * Whether or not a building has been built on this cell;
-     */
-    private boolean builtOn;
+    public static final int MAX_ENEMIES = CellState.MAX_ENEMIES;
     
-    /* POTENTIAL STATE BOOLEANS */
-    // tell whether or not a cell can change its state to another
-    /**
-     * Whether or not the cell can be captured;
-     */
-    private boolean capturable;
-    /**
-     * Whether or not the cell can be scouted;
-     */
-    private boolean scoutable;
-    /**
-     * Whether or not the cell can be destroyed;
-     */
-    private boolean destroyable;
     
-    /* RESOURCE/ENEMY VALS */
-    // hold the values for the number of resources and enemies in the cell
-    /**
-     * The number of soldiers that the cell currently holds;
-     */
-    private int soldiers;
-    /**
-     * The number of building materials that the cell currently holds;
-     */
-    private int materials;
-    /**
-     * The number of energy cores that the cell currently holds;
-     */
-    private int cores;
-    /**
-     * The number of enemies currently in the cell;
-     */
-    private int enemies;
     /**
-     * The number of soldiers stationed in this cell that can fend off enemies;
+     * The in-game information that this cell displays;
      */
-    private int stationedSoldiers;
+    private CellState state;
     
-    /* CELL CONVERSION BOOLEANS */
-    /**
-     * Whether or not the cell can be converted into a housing cell;
-     */
-    private boolean housingCompatible = false;
     /**
-     * Whether or not the cell can be converted into a robotics factory cell;
+     * Whether or not this cell's canvas shows its current state (cells are
+     * only drawn once they come into view);
      */
-    private boolean rFactoryCompatible = false;
-    /**
-     * Whether or not the cell can be converted into a storage cell;
-     */
-    private boolean storageCompatible = false;
-    /**
-     * Whether or not the cell can be converted into a steel mill cell;
-     */
-    private boolean sMillCompatible = false;
-    /**
-     * Whether or not the cell can be converted into an energy grid cell;
-     */
-    private boolean eGridCompatible = false;
-    /**
-     * Whether or not the cell can be converted into a solar farm cell;
-     */
-    private boolean sFarmCompatible = false;
+    private boolean drawn;
     
     
     /**
      * Creates a new GameCell object using the given cell type, row, and column;
-     * This should be the main constructor used (especially when generating
-     * maps);
+     * This should be the main constructor used when a cell is not part of a
+     * game map (the tutorial cells for example);
      * 
      * @param cellType the type of game cell
      * @param row the cell's row in a grid layout
@@ -162,41 +56,27 @@ public class GameCell extends Canvas implements Serializable {
     public GameCell(String cellType, int row, int col, boolean captured, boolean scouted,
             boolean neutral, boolean hostile, boolean destroyed, int soldiers, int materials,
             int cores, int enemies, boolean capturable, boolean scoutable, boolean destroyable) {
+        this(new CellState(cellType, row, col, captured, scouted, neutral, hostile, destroyed,
+                soldiers, materials, cores, enemies, capturable, scoutable, destroyable));
+    }
+    
+    /**
+     * Creates a new GameCell that displays the given cell state;
+     * 
+     * @param state the in-game information that this cell displays
+     */
+    public GameCell(CellState state) {
         super();
-        this.cellType = cellType;
-        this.cellTypeIndex = CTInfo.getCTIndex(cellType);
-        this.row = row;
-        this.col = col;
-        this.setCaptured(captured);
-        this.setScouted(scouted);
-        this.setNeutral(neutral);
-        this.setHostile(hostile);
-        this.setDestroyed(destroyed);
-        this.setCapturable(capturable);
-        this.setScoutable(scoutable);
-        this.setDestroyable(destroyable);
-        this.setSoldiers(soldiers);
-        this.setMaterials(materials);
-        this.setCores(cores);
-        this.setEnemies(enemies);
-        
-        this.housingCompatible = CTInfo.isHousingCompatible(cellType);
-        this.rFactoryCompatible = CTInfo.isRFactoryCompatible(cellType);
-        this.storageCompatible = CTInfo.isStorageCompatible(cellType);
-        this.sMillCompatible = CTInfo.isSMillCompatible(cellType);
-        this.eGridCompatible = CTInfo.isEGridCompatible(cellType);
-        this.sFarmCompatible = CTInfo.isSFarmCompatible(cellType);
-    }
-    
-    /**
-     * Constructs a new GameCell with the given row and column number (only used
-     * for storing a row and col value for MapGenerator);
-     * 
-     * @param row the row of the cell
-     * @param col the column of the cell
-     */
-    protected GameCell(int row, int col) {
-        this(null, row, col, false, false, false, false, false, 0, 0, 0, 0, false, false, false);
+        this.state = state;
+    }
+    
+    /**
+     * Returns the in-game information that this cell displays;
+     * 
+     * @return the in-game information that this cell displays
+     */
+    public CellState getState() {
+        return state;
     }
     
     /**
@@ -205,7 +85,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the type of this cell
      */
     public String getCellType() {
-        return cellType;
+        return state.getCellType();
     }
     
     /**
@@ -214,7 +94,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the index of this cell's type in CTInfo.CTVals
      */
     public int getCellTypeIndex() {
-        return cellTypeIndex;
+        return state.getCellTypeIndex();
     }
     
     /**
@@ -223,7 +103,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the row of this cell
      */
     public int getRow() {
-        return row;
+        return state.getRow();
     }
     
     /**
@@ -232,7 +112,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the column of this cell
      */
     public int getCol() {
-        return col;
+        return state.getCol();
     }
     
     /**
@@ -241,7 +121,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is captured
      */
     public boolean isCaptured() {
-        return captured;
+        return state.isCaptured();
     }
     
     /**
@@ -250,7 +130,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is scouted
      */
     public boolean isScouted() {
-        return scouted;
+        return state.isScouted();
     }
     
     /**
@@ -259,7 +139,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is neutral
      */
     public boolean isNeutral() {
-        return neutral;
+        return state.isNeutral();
     }
     
     /**
@@ -268,7 +148,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is hostile
      */
     public boolean isHostile() {
-        return hostile;
+        return state.isHostile();
     }
     
     /**
@@ -277,7 +157,16 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is destroyed
      */
     public boolean isDestroyed() {
-        return destroyed;
+        return state.isDestroyed();
+    }
+    
+    /**
+     * Returns whether or not this cell's canvas shows its current state;
+     * 
+     * @return whether or not this cell has been drawn since it last changed
+     */
+    public boolean isDrawn() {
+        return drawn;
     }
     
     /**
@@ -286,7 +175,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is able to be captured
      */
     public boolean isCapturable() {
-        return capturable;
+        return state.isCapturable();
     }
     
     /**
@@ -295,7 +184,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is able to be scouted
      */
     public boolean isScoutable() {
-        return scoutable;
+        return state.isScoutable();
     }
     
     /**
@@ -304,7 +193,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is able to be destroyed
      */
     public boolean isDestroyable() {
-        return destroyable;
+        return state.isDestroyable();
     }
     
     /**
@@ -313,7 +202,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell is built on
      */
     public boolean isBuiltOn() {
-        return builtOn;
+        return state.isBuiltOn();
     }
     
     /**
@@ -322,7 +211,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the number of soldiers held in this cell (as a resource)
      */
     public int getSoldiers() {
-        return soldiers;
+        return state.getSoldiers();
     }
     
     /**
@@ -331,7 +220,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the number of building materials held in this cell
      */
     public int getMaterials() {
-        return materials;
+        return state.getMaterials();
     }
     
     /**
@@ -340,7 +229,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the number of energy cores held in this cell
      */
     public int getCores() {
-        return cores;
+        return state.getCores();
     }
     
     /**
@@ -349,7 +238,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the number of enemies in this cell
      */
     public int getEnemies() {
-        return enemies;
+        return state.getEnemies();
     }
     
     /**
@@ -358,7 +247,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return the number of stationed soldiers in this cell
      */
     public int getStationedSoldiers() {
-        return stationedSoldiers;
+        return state.getStationedSoldiers();
     }
     
     /**
@@ -367,7 +256,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell can have Housing built on it
      */
     public boolean isHousingCompatible() {
-        return housingCompatible;
+        return state.isHousingCompatible();
     }
     
     /**
@@ -376,7 +265,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell can have a Robotics Factory built on it
      */
     public boolean isRFactoryCompatible() {
-        return rFactoryCompatible;
+        return state.isRFactoryCompatible();
     }
     
     /**
@@ -385,7 +274,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell can have Storage built on it
      */
     public boolean isStorageCompatible() {
-        return storageCompatible;
+        return state.isStorageCompatible();
     }
     
     /**
@@ -394,7 +283,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell can have a Steel Mill built on it
      */
     public boolean isSMillCompatible() {
-        return sMillCompatible;
+        return state.isSMillCompatible();
     }
     
     /**
@@ -403,7 +292,7 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell can have an Energy Grid built on it
      */
     public boolean isEGridCompatible() {
-        return eGridCompatible;
+        return state.isEGridCompatible();
     }
     
     /**
@@ -412,7 +301,17 @@ public class GameCell extends Canvas implements Serializable {
      * @return whether or not this cell can have a Solar Farm built on it
      */
     public boolean isSFarmCompatible() {
-        return sFarmCompatible;
+        return state.isSFarmCompatible();
+    }
+    
+    /**
+     * Changes the in-game information that this cell displays (it has to be
+     * drawn again to show it);
+     * 
+     * @param state the in-game information that this cell displays
+     */
+    public void setState(CellState state) {
+        this.state = state;
     }
     
     /**
@@ -422,7 +321,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value the cell type to be changed to
      */
     public void setCellType(String value) {
-        this.cellType = value;
+        state.setCellType(value);
     }
     
     /**
@@ -431,8 +330,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is captured
      */
     public void setCaptured(boolean value) {
-        captured = value;
-        recalcPotentialStates();
+        state.setCaptured(value);
     }
     
     /**
@@ -441,8 +339,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is scouted
      */
     public void setScouted(boolean value) {
-        scouted = value;
-        recalcPotentialStates();
+        state.setScouted(value);
     }
     
     /**
@@ -451,7 +348,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is neutral
      */
     public void setNeutral(boolean value) {
-        neutral = value;
+        state.setNeutral(value);
     }
     
     /**
@@ -460,7 +357,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is hostile
      */
     public void setHostile(boolean value) {
-        hostile = value;
+        state.setHostile(value);
     }
     
     /**
@@ -469,8 +366,17 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is destroyed
      */
     public void setDestroyed(boolean value) {
-        destroyed = value;
-        recalcPotentialStates();
+        state.setDestroyed(value);
+    }
+    
+    /**
+     * Sets whether or not this cell's canvas shows its current state;
+     * 
+     * @param value whether or not this cell has been drawn since it last
+     *            changed
+     */
+    public void setDrawn(boolean value) {
+        this.drawn = value;
     }
     
     /**
@@ -479,7 +385,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is able to be captured
      */
     public void setCapturable(boolean value) {
-        capturable = value;
+        state.setCapturable(value);
     }
     
     /**
@@ -488,7 +394,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is able to be scouted
      */
     public void setScoutable(boolean value) {
-        scoutable = value;
+        state.setScoutable(value);
     }
     
     /**
@@ -497,7 +403,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is able to be destroyed
      */
     public void setDestroyable(boolean value) {
-        destroyable = value;
+        state.setDestroyable(value);
     }
     
     /**
@@ -506,7 +412,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value whether or not this cell is built on
      */
     public void setBuiltOn(boolean value) {
-        builtOn = value;
+        state.setBuiltOn(value);
     }
     
     /**
@@ -515,7 +421,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value the number of soldiers held in this cell (as resources)
      */
     public void setSoldiers(int value) {
-        soldiers = value;
+        state.setSoldiers(value);
     }
     
     /**
@@ -524,7 +430,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value the number of building materials held in this cell
      */
     public void setMaterials(int value) {
-        materials = value;
+        state.setMaterials(value);
     }
     
     /**
@@ -533,7 +439,7 @@ public class GameCell extends Canvas implements Serializable {
      * @param value the number of energy cores held in this cell
      */
     public void setCores(int value) {
-        cores = value;
+        state.setCores(value);
     }
     
     /**
@@ -545,18 +451,7 @@ public class GameCell extends Canvas implements Serializable {
      *         was set)
      */
     public boolean setEnemies(int value) {
-        if (value < 0) {
-            enemies = 0;
-            return false;
-        }
-        
-        if (value > MAX_ENEMIES) {
-            enemies = MAX_ENEMIES;
-            return false;
-        } else {
-            enemies = value;
-            return true;
-        }
+        return state.setEnemies(value);
     }
     
     /**
@@ -570,37 +465,7 @@ public class GameCell extends Canvas implements Serializable {
      *         passed in value
      */
     public boolean setStationedSoldiers(int value) {
-        if (value < 0) {
-            throw new IllegalArgumentException("stationedSoldiers must be non-negative");
-        }
-        
-        stationedSoldiers = value;
-        return true;
-    }
-    
-    
-    /**
-     * Determines the potential states of the cell based on the current state of
-     * the cell;
-     */
-    private void recalcPotentialStates() {
-        if (this.captured) { // if captured (and by definition also scouted)
-            this.capturable = false;
-            this.scoutable = false;
-            this.destroyable = true;
-        } else if (this.scouted) { // if just scouted
-            /*
-             * when a cell is scouted, its potential for being captured is still
-             * dependent on other factors so I'm not including a capturable
-             * assignment here
-             */
-            this.scoutable = false;
-            this.destroyable = true;
-        } else if (this.destroyed) { // if cell has been destroyed
-            this.capturable = false;
-            this.scoutable = false;
-            this.destroyable = false;
-        }
+        return state.setStationedSoldiers(value);
     }
     
 }
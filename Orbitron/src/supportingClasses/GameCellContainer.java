@@ -48,6 +48,16 @@ public class GameCellContainer extends Pane {
     }
     
     
+    /**
+     * Returns the GameCell that this GameCellContainer holds;
+     * 
+     * @return the GameCell that this GameCellContainer holds
+     */
+    public GameCell getGameCell() {
+        return (GameCell) getChildren().get(0);
+    }
+    
+    
     /**
      * Returns the row of this GameCellContainer;
      * 
@@ -58,4 +68,18 @@ public class GameCellContainer extends Pane {
     }
     
     
+    /**
+     * Moves this GameCellContainer over to the cell at the passed in row and
+     * column of the game map (the map's viewport reuses containers as it is
+     * scrolled);
+     * 
+     * @param row the new row of this GameCellContainer in the game map
+     * @param col the new column of this GameCellContainer in the game map
+     */
+    public void moveTo(int row, int col) {
+        this.row = row;
+        this.col = col;
+    }
+    
+    
 }
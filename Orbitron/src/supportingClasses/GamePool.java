@@ -0,0 +1,151 @@
+package supportingClasses;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dynamicStorage.GameInfo;
+import dynamicStorage.MapSize;
+
+/**
+ * Makes new games ahead of time on a background thread so that starting one
+ * doesn't have to wait for its map to be generated; The main menu asks for a
+ * game of the difficulty and size that the player has chosen while they are
+ * still typing their name, and takes it when they press BEGIN. At most one
+ * game of each difficulty and size is kept, and only the most recently asked
+ * for kinds up to the pool's capacity (a big map takes a lot of memory).
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class GamePool {
+    
+    /** The number of games that the main menu's pool keeps ready; */
+    public static final int DEFAULT_CAPACITY = 2;
+    
+    
+    /** The most games that are kept ready at once; */
+    private final int capacity;
+    /**
+     * The games that are ready (or being made) by kind, from the least to the
+     * most recently asked for;
+     */
+    private final LinkedHashMap<String, Future<GameInfo>> games;
+    /** The background thread that the games are made on; */
+    private final ExecutorService worker;
+    
+    
+    /**
+     * Creates a new empty GamePool with its own background thread;
+     * 
+     * @param capacity the most games to keep ready at once
+     */
+    public GamePool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        
+        this.capacity = capacity;
+        this.games = new LinkedHashMap<>(16, 0.75f, true);
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Orbitron Game Pool");
+            // never keep the game open or slow down the UI
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+    
+    
+    /**
+     * Starts making a game of the passed in difficulty and size in the
+     * background unless one is already ready (or being made); The least
+     * recently asked for games are thrown away if there are too many;
+     * 
+     * @param difficulty the difficulty of the game
+     * @param size the size of the game's map
+     */
+    public synchronized void prepare(String difficulty, MapSize size) {
+        String kind = kindOf(difficulty, size);
+        if (games.get(kind) != null) {
+            return;
+        }
+        games.put(kind, worker.submit(() -> make(difficulty, size)));
+        Iterator<Map.Entry<String, Future<GameInfo>>> eldest = games.entrySet().iterator();
+        while (games.size() > capacity) {
+            eldest.next().getValue().cancel(false);
+            eldest.remove();
+        }
+    }
+    
+    /**
+     * Returns a new game of the passed in difficulty and size for the passed
+     * in save slot and player; A ready game is used if there is one (waiting
+     * for it if it is still being made, which is still quicker than starting
+     * over), otherwise one is made on the calling thread; Nothing else is made
+     * until the next time that a game is asked for, so the background thread
+     * stays idle while the game is played;
+     * 
+     * @param saveSlot the save slot that the game will save to
+     * @param playerName the player's name
+     * @param difficulty the difficulty of the game
+     * @param size the size of the game's map
+     * 
+     * @return the new game, with its map already generated
+     */
+    public GameInfo take(int saveSlot, String playerName, String difficulty, MapSize size) {
+        Future<GameInfo> ready;
+        synchronized (this) {
+            ready = games.remove(kindOf(difficulty, size));
+        }
+        
+        GameInfo info = null;
+        if (ready != null) {
+            try {
+                info = ready.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        if (info == null) {
+            info = make(difficulty, size);
+        }
+        info.setSaveSlot(saveSlot);
+        info.setPlayerName(playerName);
+        return info;
+    }
+    
+    
+    /**
+     * Returns the name of the kind of game with the passed in difficulty and
+     * size;
+     * 
+     * @param difficulty the difficulty of the game
+     * @param size the size of the game's map
+     * 
+     * @return the name of the kind of game
+     */
+    private static String kindOf(String difficulty, MapSize size) {
+        return difficulty + " " + size;
+    }
+    
+    /**
+     * Makes a new game of the passed in difficulty and size (generating its
+     * map); The game UI only makes GameCells for the cells in view, so there
+     * are no cells to make ahead of time;
+     * 
+     * @param difficulty the difficulty of the game
+     * @param size the size of the game's map
+     * 
+     * @return the new game
+     */
+    private static GameInfo make(String difficulty, MapSize size) {
+        return new GameInfo(0, "", difficulty, size);
+    }
+    
+}
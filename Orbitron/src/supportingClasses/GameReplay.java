@@ -0,0 +1,116 @@
+package supportingClasses;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
+import dynamicStorage.GameInfo;
+import dynamicStorage.MapKey;
+import dynamicStorage.MapSize;
+import engine.GameEngine;
+import engine.GameRecord;
+import engine.GameState;
+import engine.GridState;
+
+/**
+ * Plays recorded games over again without any graphics, as fast as the CPU
+ * allows; Used to reproduce a bug report from a long session in a moment, and
+ * to turn real games into benchmarks for enemy spreading and capturing. Can be
+ * run from the command line with the path to a save file (or a saved
+ * GameRecord): it replays the game, reports how long that took, and checks
+ * that the replay ended in the same state as the saved game.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class GameReplay {
+    
+    
+    /**
+     * Creates the game that the passed in record was recorded from, as it was
+     * before anything happened in it; The map comes from the shared MapCache,
+     * so replaying the same game again doesn't generate its map again;
+     * 
+     * @param record the recorded game
+     * 
+     * @return the state of the game before anything happened in it
+     */
+    public static GameState newGame(GameRecord record) {
+        GridState grid = MapCache.getShared().get(
+                new MapKey(new MapSize(record.getRows(), record.getCols()), record.getSeed()));
+        return new GameState(record.getDifficulty(), grid, record.getSeed());
+    }
+    
+    /**
+     * Plays the passed in recorded game over again from the start without any
+     * graphics, as fast as possible;
+     * 
+     * @param record the recorded game
+     * 
+     * @return the state that the game ended up in
+     */
+    public static GameState replay(GameRecord record) {
+        GameState state = newGame(record);
+        record.replay(new GameEngine(state));
+        return state;
+    }
+    
+    /**
+     * Replays the game saved in the file at the passed in path (a saved
+     * GameInfo or GameRecord) and reports how long it took and whether it
+     * ended in the same state as the saved game;
+     * 
+     * @param args the path to the save file
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("usage: GameReplay <save file or record file>");
+            return;
+        }
+        
+        GameState saved = null;
+        GameRecord record;
+        try {
+            FileInputStream fileIn = new FileInputStream(args[0]);
+            ObjectInputStream in = new ObjectInputStream(fileIn);
+            Object read = in.readObject();
+            in.close();
+            fileIn.close();
+            if (read instanceof GameInfo) {
+                saved = ((GameInfo) read).getGameState();
+                record = saved.getRecord();
+            } else {
+                record = (GameRecord) read;
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (record == null) {
+            System.out.println("That game wasn't recorded");
+            return;
+        }
+        
+        long start = System.nanoTime();
+        GameState replayed = replay(record);
+        long wallTime = System.nanoTime() - start;
+        System.out.println(record.getNumCommands() + " commands and "
+                + replayed.getNumSpreads() + " enemy spreads over "
+                + GameInfo.convertTimeToString(replayed.getTimeElapsed()) + " of game time in "
+                + wallTime / 1000000 + " ms");
+        System.out.println("Ended: " + replayed.getEndGame() + "  Score: " + replayed.getScore()
+                + "  Cells: " + replayed.getNumCellsCapped() + "  Objectives: "
+                + replayed.getNumObjsCapped());
+        if (saved != null) {
+            boolean same = saved.getTimeElapsed() == replayed.getTimeElapsed()
+                    && saved.getScore() == replayed.getScore()
+                    && saved.getEndGame() == replayed.getEndGame()
+                    && saved.getSoldiers() == replayed.getSoldiers()
+                    && saved.getMaterials() == replayed.getMaterials()
+                    && saved.getCores() == replayed.getCores()
+                    && saved.getGrid().checksum() == replayed.getGrid().checksum();
+            System.out.println(same ? "The replay matches the saved game"
+                    : "The replay does NOT match the saved game");
+        }
+    }
+    
+}
@@ -0,0 +1,308 @@
+package supportingClasses;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dynamicStorage.MapKey;
+import dynamicStorage.MapSize;
+import engine.GridState;
+
+/**
+ * Keeps the maps generated for recent map keys so that getting the same map
+ * again (loading a save, replaying a game, or playing a favourite seed again)
+ * is a lookup instead of a MapGenerator run; Maps are kept in memory up to a
+ * total number of cells, dropping the least recently used ones first, and are
+ * also written to a directory up to a number of files, deleting the least
+ * recently used ones first, so they are still there the next time that the
+ * game is started. On disk a map is its terrain (the type and resources of
+ * every cell, written in bulk so that reading it back is much quicker than
+ * generating it) followed by the few cells that start out differently (see
+ * GridState.writeChanges()). Maps are handed out as copies, so games can be
+ * played on them without touching the kept ones, or as they are kept for
+ * anything that only reads them (see getBase()). Saves are written on other
+ * threads than the UI, so every method that touches the kept maps is
+ * synchronized.
+ *
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class MapCache {
+
+    /** The most cells that the shared cache keeps in memory; */
+    public static final long SHARED_MAX_CELLS = 1 << 21;
+    /** The most maps that the shared cache keeps on disk; */
+    public static final int SHARED_MAX_FILES = 16;
+
+    /** The directory that the shared cache keeps its maps in; */
+    private static final String SHARED_DIRECTORY = "serialized-objects/maps";
+    /** The end of the name of every file that a cache keeps a map in; */
+    private static final String SUFFIX = ".map";
+    /** The number of bytes of terrain that each cell takes on disk (a type and three resources); */
+    private static final int TERRAIN_BYTES = 1 + 3 * Short.BYTES;
+
+    /** The cache that the game uses; */
+    private static MapCache shared;
+
+
+    /** The number of cells in the maps kept in memory; */
+    private long cells;
+    /** The directory that maps are kept in on disk, or null to only keep them in memory; */
+    private final File directory;
+    /** The maps kept in memory from the least to the most recently used; */
+    private final LinkedHashMap<MapKey, GridState> maps;
+    /** The most cells that are kept in memory; */
+    private final long maxCells;
+    /** The most maps that are kept on disk; */
+    private final int maxFiles;
+    /** The number of maps that had to be generated because they weren't kept; */
+    private int numGenerated;
+
+
+    /**
+     * Creates a new empty MapCache;
+     *
+     * @param maxCells the most cells (summed over all of the maps) to keep in
+     *            memory
+     * @param directory the directory to keep maps in on disk, or null to only
+     *            keep them in memory
+     * @param maxFiles the most maps to keep on disk
+     */
+    public MapCache(long maxCells, File directory, int maxFiles) {
+        if (maxCells < 0 || maxFiles < 0) {
+            throw new IllegalArgumentException("maxCells and maxFiles must be non-negative");
+        }
+
+        this.maxCells = maxCells;
+        this.directory = directory;
+        this.maxFiles = maxFiles;
+        this.maps = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+
+    /**
+     * Returns the cache that the game uses, which keeps its maps in the
+     * serialized-objects/maps directory;
+     *
+     * @return the cache that the game uses
+     */
+    public static synchronized MapCache getShared() {
+        if (shared == null) {
+            shared = new MapCache(SHARED_MAX_CELLS, new File(SHARED_DIRECTORY), SHARED_MAX_FILES);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns a copy of the map that the passed in key generates, from memory
+     * or disk if it is kept and from a new MapGenerator run otherwise; The map
+     * is kept afterwards either way;
+     *
+     * @param key the key of the map
+     *
+     * @return a copy of the map that the key generates
+     *
+     * @throws IllegalArgumentException if the map isn't kept and was generated
+     *             with a ruleset that can't be generated any more
+     */
+    public GridState get(MapKey key) {
+        return new GridState(getBase(key));
+    }
+
+    /**
+     * Returns the map that the passed in key generates without copying it,
+     * from memory or disk if it is kept and from a new MapGenerator run
+     * otherwise; The map is kept afterwards either way; The map handed out may
+     * be the one kept in memory, so it must only be read (copy it to play on
+     * it). A map bigger than the whole memory budget is only kept on disk, so
+     * anything that needs it again should hold on to it rather than get it
+     * again;
+     *
+     * @param key the key of the map
+     *
+     * @return the map that the key generates, which must not be changed
+     *
+     * @throws IllegalArgumentException if the map isn't kept and was generated
+     *             with a ruleset that can't be generated any more
+     */
+    public synchronized GridState getBase(MapKey key) {
+        GridState map = maps.get(key);
+        if (map == null) {
+            map = read(key);
+            if (map == null) {
+                map = new MapGenerator(key).generateGrid();
+                numGenerated++;
+                write(key, map);
+            }
+            keep(key, map);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the number of maps that had to be generated because they
+     * weren't kept;
+     *
+     * @return the number of maps that had to be generated
+     */
+    public synchronized int getNumGenerated() {
+        return numGenerated;
+    }
+
+
+    /**
+     * Returns the file that the map with the passed in key is kept in on disk;
+     *
+     * @param key the key of the map
+     *
+     * @return the file that the map is kept in
+     */
+    private File fileOf(MapKey key) {
+        return new File(directory, key + SUFFIX);
+    }
+
+    /**
+     * Keeps the passed in map in memory, dropping the least recently used maps
+     * until the cells fit; A map that is bigger than the whole budget isn't
+     * kept in memory at all;
+     *
+     * @param key the key of the map
+     * @param map the map
+     */
+    private void keep(MapKey key, GridState map) {
+        if (map.getSize() > maxCells) {
+            return;
+        }
+        maps.put(key, map);
+        cells += map.getSize();
+        Iterator<Map.Entry<MapKey, GridState>> eldest = maps.entrySet().iterator();
+        while (cells > maxCells) {
+            cells -= eldest.next().getValue().getSize();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Reads the map with the passed in key from disk;
+     *
+     * @param key the key of the map
+     *
+     * @return the map, or null if it isn't kept on disk (or can't be read)
+     */
+    private GridState read(MapKey key) {
+        if (directory == null) {
+            return null;
+        }
+        File file = fileOf(key);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            int rows = in.readInt();
+            int cols = in.readInt();
+            MapSize size = key.getSize();
+            if (rows != size.getRows() || cols != size.getCols()) {
+                throw new IOException(file + " holds a " + rows + "x" + cols + " map");
+            }
+            byte[] terrain = new byte[size.getSize() * TERRAIN_BYTES];
+            in.readFully(terrain);
+            GridState map = GridState.readChanges(in,
+                    terrainOf(rows, cols, ByteBuffer.wrap(terrain)));
+            // keep the most recently used maps on disk the longest
+            file.setLastModified(System.currentTimeMillis());
+            return map;
+        } catch (IOException e) {
+            e.printStackTrace();
+            // generate it again rather than read a broken file every time
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Returns a new grid in which every cell is neutral and has the type and
+     * resources from the passed in terrain;
+     *
+     * @param rows the number of rows in the map
+     * @param cols the number of columns in the map
+     * @param terrain the type of every cell followed by the soldiers, the
+     *            building materials, and the energy cores of every cell
+     *
+     * @return the grid of the terrain
+     */
+    private static GridState terrainOf(int rows, int cols, ByteBuffer terrain) {
+        GridState grid = new GridState(rows, cols);
+        int size = grid.getSize();
+        for (int cell = 0; cell < size; cell++) {
+            grid.fillNeutral(cell, terrain.get(cell), terrain.getShort(size + cell * Short.BYTES),
+                    terrain.getShort(size * 3 + cell * Short.BYTES),
+                    terrain.getShort(size * 5 + cell * Short.BYTES));
+        }
+        return grid;
+    }
+
+    /**
+     * Writes the passed in map to disk, deleting the least recently used maps
+     * until there are no more than maxFiles; A map whose resources don't fit
+     * in the terrain isn't written;
+     *
+     * @param key the key of the map
+     * @param map the map
+     */
+    private void write(MapKey key, GridState map) {
+        if (directory == null || maxFiles == 0
+                || !(directory.isDirectory() || directory.mkdirs())) {
+            return;
+        }
+
+        int size = map.getSize();
+        ByteBuffer terrain = ByteBuffer.allocate(size * TERRAIN_BYTES);
+        for (int cell = 0; cell < size; cell++) {
+            int soldiers = map.getSoldiers(cell);
+            int materials = map.getMaterials(cell);
+            int cores = map.getCores(cell);
+            if (Math.max(soldiers, Math.max(materials, cores)) > Short.MAX_VALUE
+                    || Math.min(soldiers, Math.min(materials, cores)) < 0) {
+                return;
+            }
+            terrain.put(cell, (byte) map.getTypeId(cell));
+            terrain.putShort(size + cell * Short.BYTES, (short) soldiers);
+            terrain.putShort(size * 3 + cell * Short.BYTES, (short) materials);
+            terrain.putShort(size * 5 + cell * Short.BYTES, (short) cores);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fileOf(key))))) {
+            out.writeInt(map.getRows());
+            out.writeInt(map.getCols());
+            out.write(terrain.array());
+            // the Space Port and the Objectives aren't just terrain
+            map.writeChanges(out, terrainOf(map.getRows(), map.getCols(), terrain));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fileOf(key).delete();
+            return;
+        }
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files != null && files.length > maxFiles) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            for (int i = 0; i < files.length - maxFiles; i++) {
+                files[i].delete();
+            }
+        }
+    }
+
+}
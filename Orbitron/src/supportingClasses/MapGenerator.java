@@ -1,17 +1,22 @@
 package supportingClasses;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import main.GameLogic;
+import dynamicStorage.MapKey;
+import dynamicStorage.MapSize;
+import engine.GameRandom;
+import engine.GridState;
 import staticStorage.CTInfo;
-import staticStorage.CellGraphics;
 
 /**
- * This class randomly generates a new game map based on the values that it is
- * constructed with (it's pretty much hard-coded for a map size of 10 rows by 15
- * columns though). The random map generation process conforms to some very
+ * This class randomly generates a new game map of the size that it is
+ * constructed with. The random map generation process conforms to some very
  * strict limitations so that every map produced by this class is in every way
- * playable by the user.
+ * playable by the user. The structure below is drawn for the standard map size;
+ * on bigger maps every area and default location is stretched by the same
+ * proportion, and each cell type can be used proportionally more times.
  * 
  * <pre>
  * 
@@ -28,7 +33,7 @@ import staticStorage.CellGraphics;
  * The "A" is the cell at which the first Objective is established if there isn't already one.
  * The "B" is the cell at which the second Objective is established if there aren't already two.
  * The "C" is the cell at which the third Objective is established if there aren't already three.
- *
+ * 
  *                   C O L #
  *           0 1 2 3 4 5 6 7 8 9 0 1 2 3 4
  *         0 s s s s + + + + O O O O O O O 
@@ -43,37 +48,82 @@ import staticStorage.CellGraphics;
  *         9 O O O O O C O O O O O O O O O
  * </pre>
  * 
+ * Big maps are generated differently so that the work can be shared between
+ * threads: the Space Port and the Objectives are placed first (anywhere in
+ * their areas), then the map is split into bands of rows that are filled in
+ * at the same time on a fork/join pool, each from its own random stream and
+ * with its share of every type's use limit, and finally the cells along the
+ * seams between the bands (and any type that went over its limit) are fixed
+ * up so that the rules hold across the whole map; The bands only depend on
+ * the size of the map, so the same size and seed always generate the same map
+ * no matter how many threads there are.
+ * 
  * 
  * @author Stanton Parham (stparham@ncsu.edu)
  */
 public class MapGenerator {
     /**
-     * The maximum number of each cell type that can be created in the game map;
-     * For example if there were 4 Gas Stations already established, a 5th Gas
-     * Station would be able to be established, however, no more Gas Stations
-     * may be established after that.
+     * The version of the map generation rules; Saves and cached maps only
+     * keep the key of their map (see MapKey), so this must be raised whenever
+     * a change to this class generates a different map for the same size and
+     * seed;
+     */
+    public static final int RULESET = 1;
+    /**
+     * The maximum number of each cell type that can be created in a standard
+     * size game map; For example if there were 4 Gas Stations already
+     * established, a 5th Gas Station would be able to be established, however,
+     * no more Gas Stations may be established after that. Bigger maps allow
+     * proportionally more of each cell type.
      */
     private static final int CELL_TYPE_MAX_NUM = 5;
-    /** The default location of the space port; */
-    private static final GameCell DEF_SPACE_PORT = new GameCell(3, 3);
-    /** The default location of the first objective; */
-    private static final GameCell DEF_OBJ_A = new GameCell(3, 14);
-    /** The default location of the second objective; */
-    private static final GameCell DEF_OBJ_B = new GameCell(6, 11);
-    /** The default location of the third objective; */
-    private static final GameCell DEF_OBJ_C = new GameCell(9, 5);
+    /** The number of Objectives established in every game map; */
+    private static final int NUM_OF_OBJECTIVES = 3;
+    /** The number of cells (about) in each band of a big map; */
+    private static final int CHUNK_CELLS = 1 << 15;
+    /** The number of cells from which a map is generated in bands; */
+    private static final int PARALLEL_MIN_CELLS = 1 << 18;
+    /** The number of times that a random spot is tried for each Objective; */
+    private static final int OBJECTIVE_TRIES = 64;
     
     /** The number of rows in the game map to be created; */
     private int rows;
     /** The number of columns in the game map to be created; */
     private int columns;
-    /** The width (in pixels) of the game map to be created; */
-    private double width;
-    /** The height (in pixels) of the game map to be created; */
-    private double height;
+    /** The grid that holds the state of every cell of the last map created; */
+    private GridState grid;
+    /** The seed that the game map is generated from; */
+    private long seed;
+    /** The size of the game map to be created; */
+    private MapSize size;
+    /** The pool that the bands of big maps are filled in on; */
+    private ForkJoinPool pool;
+    /** The random streams of the map being generated; */
+    private GameRandom random;
+    /** The number of bands that the map being generated is split into; */
+    private int numChunks;
+    /** The number of cells of each type that each band has filled in; */
+    private int[][] chunkCounts;
     
     /** The master array for the cell types; */
     private static String[] cellTypes = CTInfo.getCTNames();
+    /** Every cell type other than the Space Port and the Objective (one bit per type); */
+    private static final long ORDINARY_TYPES = (cellTypes.length >= Long.SIZE ? -1L
+            : (1L << cellTypes.length) - 1) & ~bit(GridState.SPACE_PORT_TYPE)
+            & ~bit(GridState.OBJECTIVE_TYPE);
+    
+    /** The most soldiers that a cell of each type can start with; */
+    private static final int[] SOLDIER_MAXS = CTInfo.getCTSoldierMaxs();
+    /** The fewest soldiers that a cell of each type can start with; */
+    private static final int[] SOLDIER_MINS = CTInfo.getCTSoldierMins();
+    /** The most building materials that a cell of each type can start with; */
+    private static final int[] MATERIAL_MAXS = CTInfo.getCTMaterialMaxs();
+    /** The fewest building materials that a cell of each type can start with; */
+    private static final int[] MATERIAL_MINS = CTInfo.getCTMaterialMins();
+    /** The most energy cores that a cell of each type can start with; */
+    private static final int[] CORE_MAXS = CTInfo.getCTCoreMaxs();
+    /** The fewest energy cores that a cell of each type can start with; */
+    private static final int[] CORE_MINS = CTInfo.getCTCoreMins();
     
     /**
      * Tracks the number of cells of each type that have already been generated;
@@ -82,261 +132,651 @@ public class MapGenerator {
     
     
     /**
-     * Creates a new MapGenerator that generates on the basis of the parameters;
+     * Creates a new MapGenerator that generates maps of the passed in size;
+     * 
+     * @param size the size of the game map to be created
+     */
+    public MapGenerator(MapSize size) {
+        this(size, new SplittableRandom().nextLong());
+    }
+    
+    /**
+     * Creates a new MapGenerator that generates maps of the passed in size;
+     * The same size and seed always generate the same map;
      * 
-     * @param numOfRows the number of rows in the grid
-     * @param numOfColumns the number of columns in the grid
-     * @param gridHeight the height of the grid in pixels
-     * @param gridWidth the width of the grid in pixels
+     * @param size the size of the game map to be created
+     * @param seed the seed that the map is generated from
      */
-    public MapGenerator(int numOfRows, int numOfColumns, double gridHeight, double gridWidth) {
-        rows = numOfRows;
-        columns = numOfColumns;
-        height = gridHeight;
-        width = gridWidth;
+    public MapGenerator(MapSize size, long seed) {
+        this.size = size;
+        rows = size.getRows();
+        columns = size.getCols();
+        this.seed = seed;
+        this.pool = ForkJoinPool.commonPool();
     }
     
+    /**
+     * Creates a new MapGenerator that generates the map with the passed in
+     * key;
+     * 
+     * @param key the key of the map to be created
+     * 
+     * @throws IllegalArgumentException if the key is of another ruleset than
+     *             this one
+     */
+    public MapGenerator(MapKey key) {
+        this(key.getSize(), key.getSeed());
+        if (key.getRuleset() != RULESET) {
+            throw new IllegalArgumentException("maps of ruleset " + key.getRuleset()
+                    + " can't be generated by ruleset " + RULESET);
+        }
+    }
+    
+    
+    /**
+     * Returns the grid that holds the state of every cell of the last map that
+     * was generated;
+     * 
+     * @return the grid of the last map that was generated
+     */
+    public GridState getGrid() {
+        return grid;
+    }
+    
+    /**
+     * Returns the key of the game map to be created;
+     * 
+     * @return the key of the game map to be created
+     */
+    public MapKey getKey() {
+        return new MapKey(size, seed);
+    }
+    
+    /**
+     * Returns the seed that the game map is generated from;
+     * 
+     * @return the seed that the game map is generated from
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Returns the size of the game map to be created;
+     * 
+     * @return the size of the game map to be created
+     */
+    public MapSize getSize() {
+        return size;
+    }
     
     /**
      * Performs all of the logic in generating a new game map and then returns
-     * it;
+     * the grid that holds it; Nothing is drawn, so this works for maps of any
+     * size;
      * 
-     * @return a newly generated game map
+     * Cells are filled in row by row, and each cell's type is drawn uniformly
+     * from its domain: the set of types that break none of the rules, kept as
+     * one bit per type; Every type that is placed is taken out of the domains
+     * of the cells after it that it touches (the cells to its right and below
+     * it), and a type that has been used as much as it can be is taken out of
+     * every domain, so each type is drawn exactly once rather than redrawn
+     * until it happens to fit. If a cell's domain ends up empty (every type
+     * that can still be used touches the cell), the use limit is the one rule
+     * that gives way: the cell gets whichever of the types that don't touch it
+     * has been used least; There are always more types than a cell has
+     * neighbours, so this always terminates. Big maps are filled in the same
+     * way, but in bands on several threads (see the class description);
+     * 
+     * @return the grid of a newly generated game map
      */
-    public GameCell[][] generateGameMap() {
-        Random randNumGen = new Random();
-        GameCell[][] map = new GameCell[rows][columns];
-        GameCell spacePort = null;
+    public GridState generateGrid() {
+        if (cellTypes.length > Long.SIZE) {
+            throw new IllegalStateException("a domain can only hold " + Long.SIZE + " cell types");
+        }
+        if (size.getSize() >= PARALLEL_MIN_CELLS) {
+            return generateInChunks();
+        }
+        SplittableRandom randNumGen = new GameRandom(seed).stream(GameRandom.MAP, 0, 0);
+        numOfTypes = new int[cellTypes.length];
+        grid = new GridState(rows, columns);
+        
+        // these variables are a way of identifying certain important indexes
+        int indexOfObjective = CTInfo.getCTIndex("Objective");
+        int indexOfSpacePort = CTInfo.getCTIndex("Space Port");
+        long spacePortBit = 1L << indexOfSpacePort;
+        long objectiveBit = 1L << indexOfObjective;
+        // the ordinary cell types that are still under their use limit
+        long available = ORDINARY_TYPES;
+        long cellTypeMaxNum = typeMaxNum();
+        
+        // the areas and default locations from the structure above stretched
+        // to the size of this map
+        int spacePortRows = scaleRow(4);
+        int spacePortCols = scaleCol(4);
+        int objectiveRow = scaleRow(8);
+        int objectiveCol = scaleCol(8);
+        int defSpacePort = grid.indexOf(spacePortRows - 1, spacePortCols - 1);
+        int defObjA = grid.indexOf(scaleRow(4) - 1, columns - 1);
+        int defObjB = grid.indexOf(scaleRow(7) - 1, scaleCol(12) - 1);
+        int defObjC = grid.indexOf(rows - 1, scaleCol(6) - 1);
+        
         // iterate through rows
-        for (int i = 0; i < map.length; i++) {
+        for (int i = 0; i < rows; i++) {
             // iterate through columns
-            for (int j = 0; j < map[i].length; j++) {
-                /* BEGIN: variables used in do-while loop */
-                // variable that holds a random index for the MasterCTArray
-                int randIndex = -1;
-                
-                // variable that converts the random index to an actual cell
-                // type
-                String randCellType = "";
-                
-                // these variables are a way of identifying certain important
-                // indexes
-                int indexOfObjective = CTInfo.getCTIndex("Objective");
-                int indexOfSpacePort = CTInfo.getCTIndex("Space Port");
-                
-                // ensures that the cell type is not used too many times
-                boolean cellTypeUsedTooMuch = false;
-                // ensures that not more than 1 Space Port is established
-                boolean spacePortEstablished = false;
-                // ensures that not more than 3 Objectives are established
-                boolean objectivesEstablished = false;
-                // these boolean tests ensure that there are no cells of the
-                // same type close to
-                // each other
-                boolean cellAboveIsSame = false;
-                boolean cellToLeftIsSame = false;
-                boolean cellToTopLeftIsSame = false;
-                boolean cellToTopRightIsSame = false;
-                
-                // these boolean tests ensure that the Space Port is established
-                // and in the
-                // correct area
-                boolean outOfSpacePortBounds = false;
-                boolean noEstablishedSpacePort = (i == DEF_SPACE_PORT.getRow()
-                        && j == DEF_SPACE_PORT.getRow()) && (numOfTypes[indexOfSpacePort] == 0);
+            for (int j = 0; j < columns; j++) {
+                int cell = grid.indexOf(i, j);
+                int type;
                 
-                // these boolean tests ensure that the Objectives are
-                // established and in the
-                // correct area
-                boolean outOfObjectiveBounds = false;
-                boolean noEstablishedObjectiveA = (i == DEF_OBJ_A.getRow()
-                        && j == DEF_OBJ_A.getCol()) && (numOfTypes[indexOfObjective] == 0);
-                boolean noEstablishedObjectiveB = (i == DEF_OBJ_B.getRow()
-                        && j == DEF_OBJ_B.getCol()) && (numOfTypes[indexOfObjective] == 1);
-                boolean noEstablishedObjectiveC = (i == DEF_OBJ_C.getRow()
-                        && j == DEF_OBJ_C.getRow()) && (numOfTypes[indexOfObjective] == 2);
-                
-                /* END: variables used in do-while loop */
-                
-                /*
-                 * @formatter:off (turn code formatter off for this comment)
-                 * 
-                 * @formatter:on (turn code formatter on for rest of code)
-                 * 
-                 * DO-WHILE LOOP BELOW GENERATES AN APPROPRIATE CELL TYPE FOR
-                 * THE CURRENT CELL resets randIndex if: 1) corresponding
-                 * cellType has already been used too much; 2) three Objectives
-                 * have already been established; 3) Space Port has already been
-                 * established; 4) cell above current cell has the same cell
-                 * type; 5) cell to the left of current cell has the same cell
-                 * type; 6) cell to the top-left of current cell has the same
-                 * cell type; 7) cell to the top-right of current cell has the
-                 * same cell type;
-                 * 
-                 * WARNING: can create infinite loop if the number of different
-                 * cellTypes cannot accommodate the map size with the specified
-                 * max number of each cellType
-                 */
-                do {
+                if (cell == defSpacePort && numOfTypes[indexOfSpacePort] == 0) {
                     /*
                      * ensures that there is a Space Port by the time that map
-                     * generation reaches row 3 col 3
-                     */
-                    if (noEstablishedSpacePort) {
-                        randIndex = indexOfSpacePort;
-                        // convert randIndex to a cell type
-                        randCellType = cellTypes[randIndex];
-                        break;
-                    }
-                    /*
-                     * ensures there is at least one Objective by the time that
-                     * map generation reaches row 3 col 14
+                     * generation reaches its default location
                      */
-                    if (noEstablishedObjectiveA) {
-                        randIndex = indexOfObjective;
-                        // convert randIndex to a cell type
-                        randCellType = cellTypes[randIndex];
-                        break;
-                    }
+                    type = indexOfSpacePort;
+                } else if ((cell == defObjA && numOfTypes[indexOfObjective] == 0)
+                        || (cell == defObjB && numOfTypes[indexOfObjective] == 1)
+                        || (cell == defObjC && numOfTypes[indexOfObjective] == 2)) {
                     /*
-                     * ensures there are at least two Objectives by the time
-                     * that map generation reaches row 6 col 11
+                     * ensures that there are at least one, two, and three
+                     * Objectives by the time that map generation reaches the
+                     * first, second, and third default locations
                      */
-                    if (noEstablishedObjectiveB) {
-                        randIndex = indexOfObjective;
-                        // convert randIndex to a cell type
-                        randCellType = cellTypes[randIndex];
-                        break;
+                    type = indexOfObjective;
+                } else {
+                    long touching = touching(cell, i, j, 0);
+                    long domain = available;
+                    // only one Space Port, and only in its area
+                    if (numOfTypes[indexOfSpacePort] == 0 && i < spacePortRows
+                            && j < spacePortCols) {
+                        domain |= spacePortBit;
                     }
-                    /*
-                     * ensures there are at least three Objectives by the time
-                     * that map generation reaches row 9 col 5
-                     */
-                    if (noEstablishedObjectiveC) {
-                        randIndex = indexOfObjective;
-                        // convert randIndex to a cell type
-                        randCellType = cellTypes[randIndex];
-                        break;
+                    // only three Objectives, and only in their area
+                    if (numOfTypes[indexOfObjective] < NUM_OF_OBJECTIVES
+                            && ((j >= objectiveCol && i < objectiveRow) || i >= objectiveRow)) {
+                        domain |= objectiveBit;
                     }
+                    domain &= ~touching;
                     
-                    // set randIndex to an actual random number
-                    randIndex = randNumGen.nextInt(cellTypes.length);
-                    // convert randIndex to a cell type
-                    randCellType = cellTypes[randIndex];
-                    // set boolean variables to their respective tests
-                    /*
-                     * In the following assignments for the boolean variables,
-                     * the i's represent the current row and the j's represent
-                     * the current column.
-                     */
-                    cellTypeUsedTooMuch = numOfTypes[randIndex] >= CELL_TYPE_MAX_NUM;
-                    spacePortEstablished = randIndex == indexOfSpacePort
-                            && numOfTypes[indexOfSpacePort] == 1;
-                    objectivesEstablished = randIndex == indexOfObjective
-                            && numOfTypes[indexOfObjective] == 3;
-                    cellAboveIsSame = (i > 0) && (randCellType.equals(map[i - 1][j].getCellType()));
-                    cellToLeftIsSame = (j > 0)
-                            && (randCellType.equals(map[i][j - 1].getCellType()));
-                    cellToTopLeftIsSame = (i > 0 && j > 0)
-                            && (randCellType.equals(map[i - 1][j - 1].getCellType()));
-                    cellToTopRightIsSame = (i > 0 && j < columns - 1)
-                            && (randCellType.equals(map[i - 1][j + 1].getCellType()));
-                    outOfSpacePortBounds = randIndex == indexOfSpacePort && !(i <= 3 && j <= 3);
-                    outOfObjectiveBounds = randIndex == indexOfObjective
-                            && (!(j >= 8 && i < 8) || (i >= 8));
-                    
-                    // continue generating a different random value if any of
-                    // these tests are true
-                } while (cellTypeUsedTooMuch || spacePortEstablished || objectivesEstablished
-                        || cellAboveIsSame || cellToLeftIsSame || cellToTopLeftIsSame
-                        || cellToTopRightIsSame || outOfSpacePortBounds || outOfObjectiveBounds);
-                
-                
-                // AFTER AN ACCEPTABLE randCellType IS GENERATED:
-                
-                
-                // add GameCell for each column in each row with different cell
-                // type
-                map[i][j] = new GameCell(randCellType, i, j, false, false, true, false, false, 0, 0,
-                        0, 0, false, false, false);
-                map[i][j].setHeight(height / rows);
-                map[i][j].setWidth(width / columns);
+                    if (domain == 0) {
+                        // every type left touches this cell, so the use limit
+                        // gives way
+                        domain = leastUsed(~touching & ORDINARY_TYPES, numOfTypes);
+                    }
+                    type = pick(domain, randNumGen);
+                }
                 
-                // sets all cells to be neutral
-                map[i][j].setNeutral(true);
+                // give the cell its type and set it to be neutral
+                grid.setTypeId(cell, type);
+                grid.setFlag(cell, GridState.NEUTRAL, true);
                 
                 // establish random values for a cell's resources based on the
-                // cell type's
-                // individual resource maxs and mins
-                int cellSoldierMax = CTInfo.getCTSoldierMaxs()[randIndex];
-                int cellSoldierMin = CTInfo.getCTSoldierMins()[randIndex];
-                int randNumSoldiers = randNumGen.nextInt((cellSoldierMax - cellSoldierMin) + 1)
-                        + cellSoldierMin;
-                
-                int cellMaterialMax = CTInfo.getCTMaterialMaxs()[randIndex];
-                int cellMaterialMin = CTInfo.getCTMaterialMins()[randIndex];
-                int randNumMaterials = randNumGen.nextInt((cellMaterialMax - cellMaterialMin) + 1)
-                        + cellMaterialMin;
-                
-                int cellCoreMax = CTInfo.getCTCoreMaxs()[randIndex];
-                int cellCoreMin = CTInfo.getCTCoreMins()[randIndex];
-                int randNumCores = randNumGen.nextInt((cellCoreMax - cellCoreMin) + 1)
-                        + cellCoreMin;
-                
-                map[i][j].setSoldiers(randNumSoldiers);
-                map[i][j].setMaterials(randNumMaterials);
-                map[i][j].setCores(randNumCores);
+                // cell type's individual resource maxs and mins
+                grid.setSoldiers(cell, draw(SOLDIER_MINS[type], SOLDIER_MAXS[type], randNumGen));
+                grid.setMaterials(cell, draw(MATERIAL_MINS[type], MATERIAL_MAXS[type], randNumGen));
+                grid.setCores(cell, draw(CORE_MINS[type], CORE_MAXS[type], randNumGen));
                 
                 // sets the Space Port to scouted and captured because it is
                 // where you start
-                if (randCellType.equals("Space Port")) {
-                    spacePort = map[i][j];
-                    map[i][j].setScouted(true);
-                    map[i][j].setCaptured(true);
-                    map[i][j].setNeutral(false);
+                if (type == indexOfSpacePort) {
+                    grid.setFlag(cell, GridState.SCOUTED, true);
+                    grid.setFlag(cell, GridState.CAPTURED, true);
+                    grid.setFlag(cell, GridState.NEUTRAL, false);
                 }
                 
                 // sets the Objectives to hostile because they are what you need
                 // to capture to win
-                if (randCellType.equals("Objective")) {
-                    map[i][j].setHostile(true);
-                    map[i][j].setNeutral(false);
-                    map[i][j].setEnemies(15);
+                if (type == indexOfObjective) {
+                    grid.setFlag(cell, GridState.HOSTILE, true);
+                    grid.setFlag(cell, GridState.NEUTRAL, false);
+                    grid.setEnemies(cell, 15);
                 }
                 
-///////// TODO/////////////FOR
-////////////////////////// TESTING
-////////////////////////// PURPOSES
-////////////////////////// ONLY!!
-////////////////////////// DO NOT LEAVE THIS IN!!!!!!!!!!
-// This allows the whole map to be visible when the game starts
-// map[i][j].setScouted(true);
-// map[i][j].setCapturable(true);
-////////////////////////// END TESTING CODE
-                
-                // draw the GameCell's graphics
-                CellGraphics.drawGraphics(map[i][j], false);
-                
-                // keep track of each cell type already created
-                numOfTypes[randIndex]++;
-                
+                // keep track of each cell type already created, and take any
+                // type that has been used as much as it can be out of every
+                // domain
+                numOfTypes[type]++;
+                if (numOfTypes[type] >= cellTypeMaxNum) {
+                    available &= ~bit(type);
+                }
+            
             } // end of inner for-loop
         } // end of outer for-loop
         
-        // set the cells around the spacePort to be scoutable
-        for (int i = 0; i < map.length; i++) {
-            for (int j = 0; j < map[i].length; j++) {
-                if (GameLogic.withinTwoSteps(map[i][j], spacePort)) {
-                    map[i][j].setScoutable(true);
+        // the grid has already made the cells around the Space Port scoutable
+        return grid;
+    }
+    
+    /**
+     * Sets the pool that the bands of big maps are filled in on; A pool with a
+     * parallelism of 1 fills in the whole map on one thread (and generates the
+     * same map);
+     * 
+     * @param value the pool that the bands are filled in on
+     */
+    public void setPool(ForkJoinPool value) {
+        if (value == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        this.pool = value;
+    }
+    
+    
+    /**
+     * Returns the types of the cells all around the passed in cell (up to
+     * eight of them);
+     * 
+     * @param cell the index of the cell
+     * @param i the row of the cell
+     * @param j the column of the cell
+     * 
+     * @return the types of the cells around the cell (one bit per type)
+     */
+    private long around(int cell, int i, int j) {
+        long types = 0;
+        for (int di = -1; di <= 1; di++) {
+            for (int dj = -1; dj <= 1; dj++) {
+                if ((di != 0 || dj != 0) && grid.inBounds(i + di, j + dj)) {
+                    types |= bit(grid.getTypeId(cell + di * columns + dj));
+                }
+            }
+        }
+        return types;
+    }
+    
+    /**
+     * Returns the domain bit of the passed in cell type;
+     * 
+     * @param type the type id of the cell type (-1 for none)
+     * 
+     * @return the bit of the cell type, or 0 for no type
+     */
+    private static long bit(int type) {
+        return type < 0 ? 0 : 1L << type;
+    }
+    
+    /**
+     * Returns a random amount from the passed in range, every amount being
+     * equally likely;
+     * 
+     * @param min the smallest amount
+     * @param max the biggest amount
+     * @param randNumGen the random number generator to draw from
+     * 
+     * @return the random amount
+     */
+    private static int draw(int min, int max, SplittableRandom randNumGen) {
+        return randNumGen.nextInt(max - min + 1) + min;
+    }
+    
+    /**
+     * Gives a cell of a band its type and random resources based on the
+     * type's resource ranges; Safe to call from the band's thread;
+     * 
+     * @param cell the index of the cell
+     * @param type the type id of the cell
+     * @param randNumGen the random number generator to draw from
+     */
+    private void fill(int cell, int type, SplittableRandom randNumGen) {
+        grid.fillNeutral(cell, type, draw(SOLDIER_MINS[type], SOLDIER_MAXS[type], randNumGen),
+                draw(MATERIAL_MINS[type], MATERIAL_MAXS[type], randNumGen),
+                draw(CORE_MINS[type], CORE_MAXS[type], randNumGen));
+    }
+    
+    /**
+     * Fills in the passed in band of a big map, the same way that small maps
+     * are filled in but with the band's share of each type's use limit;
+     * Cells that already have a type (the Space Port and the Objectives) are
+     * left alone, and the band's first row ignores the band above it (which
+     * another thread may still be filling in) until the seams are fixed up;
+     * 
+     * @param chunk the index of the band
+     */
+    private void fillChunk(int chunk) {
+        int firstRow = (int) ((long) chunk * rows / numChunks);
+        int lastRow = (int) ((long) (chunk + 1) * rows / numChunks);
+        long quota = Math.max(1,
+                typeMaxNum() * (lastRow - firstRow) * columns / size.getSize());
+        SplittableRandom randNumGen = random.stream(GameRandom.MAP, 1, chunk);
+        int[] counts = new int[cellTypes.length];
+        long available = ORDINARY_TYPES;
+        
+        for (int i = firstRow; i < lastRow; i++) {
+            for (int j = 0; j < columns; j++) {
+                int cell = grid.indexOf(i, j);
+                if (grid.getTypeId(cell) >= 0) {
+                    continue;
+                }
+                long touching = touching(cell, i, j, firstRow);
+                long domain = available & ~touching;
+                if (domain == 0) {
+                    domain = leastUsed(~touching & ORDINARY_TYPES, counts);
+                }
+                int type = pick(domain, randNumGen);
+                fill(cell, type, randNumGen);
+                counts[type]++;
+                if (counts[type] >= quota) {
+                    available &= ~bit(type);
+                }
+            }
+        }
+        chunkCounts[chunk] = counts;
+    }
+    
+    /**
+     * Generates a big map in bands on the pool (see the class description);
+     * 
+     * @return the grid of the newly generated game map
+     */
+    private GridState generateInChunks() {
+        random = new GameRandom(seed);
+        SplittableRandom randNumGen = random.stream(GameRandom.MAP, 0, 0);
+        numOfTypes = new int[cellTypes.length];
+        grid = new GridState(rows, columns);
+        long cellTypeMaxNum = typeMaxNum();
+        
+        // the Space Port and the Objectives go first so that the bands can
+        // work around them
+        int spacePort = grid.indexOf(randNumGen.nextInt(scaleRow(4)),
+                randNumGen.nextInt(scaleCol(4)));
+        int[] objectives = placeObjectives(randNumGen);
+        grid.setTypeId(spacePort, GridState.SPACE_PORT_TYPE);
+        for (int objective : objectives) {
+            grid.setTypeId(objective, GridState.OBJECTIVE_TYPE);
+        }
+        
+        // fill in every band at the same time
+        numChunks = Math.max(1, rows / Math.max(1, CHUNK_CELLS / columns));
+        chunkCounts = new int[numChunks][];
+        pool.invoke(new Chunk(0, numChunks));
+        for (int[] counts : chunkCounts) {
+            for (int type = 0; type < counts.length; type++) {
+                numOfTypes[type] += counts[type];
+            }
+        }
+        chunkCounts = null;
+        
+        // the cells along the top of each band haven't been checked against
+        // the band above them yet
+        SplittableRandom seamRandNumGen = random.stream(GameRandom.MAP, 2, 0);
+        for (int chunk = 1; chunk < numChunks; chunk++) {
+            int i = (int) ((long) chunk * rows / numChunks);
+            for (int j = 0; j < columns; j++) {
+                int cell = grid.indexOf(i, j);
+                int type = grid.getTypeId(cell);
+                long around = around(cell, i, j);
+                if ((ORDINARY_TYPES & bit(type) & around) == 0) {
+                    continue;
+                }
+                long domain = underLimit(cellTypeMaxNum) & ~around;
+                if (domain == 0) {
+                    domain = leastUsed(~around & ORDINARY_TYPES, numOfTypes);
+                }
+                recolour(cell, pick(domain, seamRandNumGen), seamRandNumGen);
+            }
+        }
+        
+        // a band can go over its share when every type left touches a cell,
+        // so move any type that went over the whole map's limit to types that
+        // are under it
+        long over = ORDINARY_TYPES & ~underLimit(cellTypeMaxNum + 1);
+        for (int cell = 0; over != 0 && cell < grid.getSize(); cell++) {
+            int type = grid.getTypeId(cell);
+            if ((over & bit(type)) == 0) {
+                continue;
+            }
+            long domain = underLimit(cellTypeMaxNum)
+                    & ~around(cell, grid.getRow(cell), grid.getCol(cell));
+            if (domain != 0) {
+                recolour(cell, pick(domain, seamRandNumGen), seamRandNumGen);
+                if (numOfTypes[type] <= cellTypeMaxNum) {
+                    over &= ~bit(type);
+                }
+            }
+        }
+        
+        // the Space Port is where you start and the Objectives are what you
+        // need to capture to win
+        grid.setSoldiers(spacePort, draw(SOLDIER_MINS[GridState.SPACE_PORT_TYPE],
+                SOLDIER_MAXS[GridState.SPACE_PORT_TYPE], randNumGen));
+        grid.setMaterials(spacePort, draw(MATERIAL_MINS[GridState.SPACE_PORT_TYPE],
+                MATERIAL_MAXS[GridState.SPACE_PORT_TYPE], randNumGen));
+        grid.setCores(spacePort, draw(CORE_MINS[GridState.SPACE_PORT_TYPE],
+                CORE_MAXS[GridState.SPACE_PORT_TYPE], randNumGen));
+        grid.setFlag(spacePort, GridState.SCOUTED, true);
+        grid.setFlag(spacePort, GridState.CAPTURED, true);
+        numOfTypes[GridState.SPACE_PORT_TYPE]++;
+        for (int objective : objectives) {
+            grid.setSoldiers(objective, draw(SOLDIER_MINS[GridState.OBJECTIVE_TYPE],
+                    SOLDIER_MAXS[GridState.OBJECTIVE_TYPE], randNumGen));
+            grid.setMaterials(objective, draw(MATERIAL_MINS[GridState.OBJECTIVE_TYPE],
+                    MATERIAL_MAXS[GridState.OBJECTIVE_TYPE], randNumGen));
+            grid.setCores(objective, draw(CORE_MINS[GridState.OBJECTIVE_TYPE],
+                    CORE_MAXS[GridState.OBJECTIVE_TYPE], randNumGen));
+            grid.setFlag(objective, GridState.HOSTILE, true);
+            grid.setEnemies(objective, 15);
+            numOfTypes[GridState.OBJECTIVE_TYPE]++;
+        }
+        
+        random = null;
+        return grid;
+    }
+    
+    /**
+     * Returns the cell types out of the passed in ones that have been used the
+     * fewest times so far;
+     * 
+     * @param types the cell types to choose from (one bit per type)
+     * @param counts the number of times that each cell type has been used
+     * 
+     * @return the least used of the cell types (one bit per type)
+     */
+    private static long leastUsed(long types, int[] counts) {
+        long least = 0;
+        int fewest = Integer.MAX_VALUE;
+        for (int type = 0; type < cellTypes.length; type++) {
+            if ((types & (1L << type)) == 0) {
+                continue;
+            }
+            if (counts[type] < fewest) {
+                fewest = counts[type];
+                least = 0;
+            }
+            if (counts[type] == fewest) {
+                least |= 1L << type;
+            }
+        }
+        return least;
+    }
+    
+    /**
+     * Returns one of the cell types in the passed in domain, every one of
+     * them being equally likely;
+     * 
+     * @param domain the cell types to choose from (one bit per type); must
+     *            not be empty
+     * @param randNumGen the random number generator to draw from
+     * 
+     * @return the type id of the chosen cell type
+     */
+    private static int pick(long domain, SplittableRandom randNumGen) {
+        int skip = randNumGen.nextInt(Long.bitCount(domain));
+        for (int n = 0; n < skip; n++) {
+            // drop the lowest type left
+            domain &= domain - 1;
+        }
+        return Long.numberOfTrailingZeros(domain);
+    }
+    
+    /**
+     * Picks a random spot in the Objective area for each Objective of a big
+     * map, none of them touching another; A spot is redrawn until it fits,
+     * and an Objective that can't find one (which only happens on maps that
+     * are almost all Objectives) goes to its default location;
+     * 
+     * @param randNumGen the random number generator to draw from
+     * 
+     * @return the indexes of the cells of the Objectives
+     */
+    private int[] placeObjectives(SplittableRandom randNumGen) {
+        int objectiveRow = scaleRow(8);
+        int objectiveCol = scaleCol(8);
+        int[] defaults = { grid.indexOf(scaleRow(4) - 1, columns - 1),
+                grid.indexOf(scaleRow(7) - 1, scaleCol(12) - 1),
+                grid.indexOf(rows - 1, scaleCol(6) - 1) };
+        int[] objectives = new int[NUM_OF_OBJECTIVES];
+        for (int n = 0; n < objectives.length; n++) {
+            objectives[n] = defaults[n];
+            for (int tries = 0; tries < OBJECTIVE_TRIES; tries++) {
+                int i = randNumGen.nextInt(rows);
+                int j = randNumGen.nextInt(columns);
+                boolean fits = (j >= objectiveCol && i < objectiveRow) || i >= objectiveRow;
+                for (int m = 0; fits && m < n; m++) {
+                    fits = Math.abs(grid.getRow(objectives[m]) - i) > 1
+                            || Math.abs(grid.getCol(objectives[m]) - j) > 1;
+                }
+                if (fits) {
+                    objectives[n] = grid.indexOf(i, j);
+                    break;
                 }
             }
         }
-        return map;
+        return objectives;
     }
     
+    /**
+     * Changes the type of an ordinary cell to the passed in one and draws new
+     * resources for it, keeping the counts of each type right;
+     * 
+     * @param cell the index of the cell
+     * @param type the new type id of the cell
+     * @param randNumGen the random number generator to draw from
+     */
+    private void recolour(int cell, int type, SplittableRandom randNumGen) {
+        numOfTypes[grid.getTypeId(cell)]--;
+        numOfTypes[type]++;
+        fill(cell, type, randNumGen);
+    }
     
+    /**
+     * Stretches a column of the standard size map to the width of this map;
+     * 
+     * @param col a column of the standard size map (0 to 15)
+     * 
+     * @return the matching column of this map
+     */
+    private int scaleCol(int col) {
+        return col * columns / MapSize.STANDARD.getCols();
+    }
     
+    /**
+     * Stretches a row of the standard size map to the height of this map;
+     * 
+     * @param row a row of the standard size map (0 to 10)
+     * 
+     * @return the matching row of this map
+     */
+    private int scaleRow(int row) {
+        return row * rows / MapSize.STANDARD.getRows();
+    }
     
+    /**
+     * Returns the types of the cells that have already been filled in around
+     * the passed in cell, which can't be used again for it: the cells above,
+     * to the left, to the top-left, and to the top-right;
+     * 
+     * @param cell the index of the cell
+     * @param i the row of the cell
+     * @param j the column of the cell
+     * @param firstRow the first row that has been filled in (the row above it
+     *            is ignored)
+     * 
+     * @return the types of the cells touching the cell (one bit per type)
+     */
+    private long touching(int cell, int i, int j, int firstRow) {
+        long touching = 0;
+        if (i > firstRow) {
+            touching |= bit(grid.getTypeId(cell - columns));
+            if (j > 0) {
+                touching |= bit(grid.getTypeId(cell - columns - 1));
+            }
+            if (j < columns - 1) {
+                touching |= bit(grid.getTypeId(cell - columns + 1));
+            }
+        }
+        if (j > 0) {
+            touching |= bit(grid.getTypeId(cell - 1));
+        }
+        return touching;
+    }
     
+    /**
+     * Returns the most times that each cell type can be used in this map;
+     * Each cell type can be used proportionally more times on bigger maps;
+     * 
+     * @return the most times that each cell type can be used
+     */
+    private long typeMaxNum() {
+        return (CELL_TYPE_MAX_NUM * (long) size.getSize() + MapSize.STANDARD.getSize() - 1)
+                / MapSize.STANDARD.getSize();
+    }
+    
+    /**
+     * Returns the ordinary cell types that have been used fewer than the
+     * passed in number of times;
+     * 
+     * @param limit the number of times
+     * 
+     * @return the cell types used fewer times (one bit per type)
+     */
+    private long underLimit(long limit) {
+        long types = 0;
+        for (int type = 0; type < cellTypes.length; type++) {
+            if (numOfTypes[type] < limit) {
+                types |= 1L << type;
+            }
+        }
+        return types & ORDINARY_TYPES;
+    }
+    
+    
+    /**
+     * A band of rows of a big map (or a group of bands, which is split in
+     * half until each part is a single band);
+     */
+    private class Chunk extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        /** The index of the first band in this chunk; */
+        private final int first;
+        /** The index after the last band in this chunk; */
+        private final int last;
+        
+        
+        /**
+         * Creates a new chunk of the bands;
+         * 
+         * @param first the index of the first band in the chunk
+         * @param last the index after the last band in the chunk
+         */
+        Chunk(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+        
+        
+        @Override
+        protected void compute() {
+            if (last - first > 1) {
+                int middle = first + (last - first) / 2;
+                invokeAll(new Chunk(first, middle), new Chunk(middle, last));
+                return;
+            }
+            
+            fillChunk(first);
+        }
+    
+    }
     
 }
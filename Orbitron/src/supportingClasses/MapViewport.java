@@ -0,0 +1,263 @@
+package supportingClasses;
+
+import java.util.function.Consumer;
+
+import engine.CellState;
+import engine.GridState;
+import javafx.geometry.Bounds;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+import staticStorage.CellGraphics;
+
+/**
+ * Shows a game map through a ScrollPane with only enough GameCells to cover
+ * the part of the map that is in view (plus one cell on every side); As the
+ * map is scrolled, the GameCells that leave the view are moved over to the
+ * cells that come into it and made to display those instead, so a map of any
+ * size only ever has about a screenful of GameCells in the scene. The cell at
+ * (row, col) is always shown by the GameCell in slot (row % poolRows, col %
+ * poolCols) of the pool, so finding the GameCell that shows a cell never needs
+ * a search.
+ * 
+ * @author Stanton Parham (stparham@ncsu.edu)
+ */
+public class MapViewport {
+    
+    /**
+     * The smallest that the cells are shrunk to (the map scrolls rather than
+     * shrinking its cells any further);
+     */
+    public static final double MIN_CELL_SIZE = 10.0;
+    
+    
+    /** The grid of the game map being shown; */
+    private final GridState grid;
+    /** The ScrollPane that the map is viewed through; */
+    private final ScrollPane scrollPane;
+    /** The content of the ScrollPane, which the GameCells are placed on; */
+    private final Pane layer;
+    /** Sets up each new GameCell (with its mouse handlers for example); */
+    private final Consumer<GameCell> setUp;
+    
+    /** The width (and height) of every cell; */
+    private double cellSize;
+    /** The containers of the pool's GameCells, one slot after another; */
+    private GameCellContainer[] pool;
+    /** The number of rows of slots in the pool; */
+    private int poolRows;
+    /** The number of columns of slots in the pool; */
+    private int poolCols;
+    
+    /** The first row that is in view (or next to a row that is); */
+    private int firstRow;
+    /** The last row that is in view (or next to a row that is); */
+    private int lastRow;
+    /** The first column that is in view (or next to a column that is); */
+    private int firstCol;
+    /** The last column that is in view (or next to a column that is); */
+    private int lastCol;
+    
+    
+    /**
+     * Creates a new MapViewport that shows the passed in grid on the passed
+     * in Pane (the ScrollPane's content), replacing anything already on it;
+     * 
+     * @param grid the grid of the game map to show
+     * @param scrollPane the ScrollPane that the map is viewed through
+     * @param layer the content of the ScrollPane to place the GameCells on
+     * @param cellSize the width (and height) of every cell
+     * @param setUp sets up each new GameCell (the pool makes more of them
+     *            when the view gets bigger)
+     */
+    public MapViewport(GridState grid, ScrollPane scrollPane, Pane layer, double cellSize,
+            Consumer<GameCell> setUp) {
+        this.grid = grid;
+        this.scrollPane = scrollPane;
+        this.layer = layer;
+        this.setUp = setUp;
+        this.pool = new GameCellContainer[0];
+        this.lastRow = -1;
+        this.lastCol = -1;
+        layer.getChildren().clear();
+        setCellSize(cellSize);
+    }
+    
+    
+    /**
+     * Returns the width (and height) of every cell;
+     * 
+     * @return the width (and height) of every cell
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+    
+    /**
+     * Returns the container of the GameCell that shows the cell at the passed
+     * in row and column, or null if the cell isn't in view (so nothing shows
+     * it);
+     * 
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * 
+     * @return the container showing the cell, or null if it isn't in view
+     */
+    public GameCellContainer getContainer(int row, int col) {
+        return isInView(row, col) ? pool[slot(row, col)] : null;
+    }
+    
+    /**
+     * Returns the grid of the game map being shown;
+     * 
+     * @return the grid of the game map being shown
+     */
+    public GridState getGrid() {
+        return grid;
+    }
+    
+    /**
+     * Returns whether or not the cell at the passed in row and column is in
+     * view (or next to a cell that is);
+     * 
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * 
+     * @return whether or not the cell is in view
+     */
+    public boolean isInView(int row, int col) {
+        return row >= firstRow && row <= lastRow && col >= firstCol && col <= lastCol;
+    }
+    
+    /**
+     * Redraws the cell with the passed in grid index (keeping its highlight if
+     * the mouse is over it) if it is in view; Cells out of view don't need
+     * redrawing because they are drawn once they come into view;
+     * 
+     * @param cell the grid index of the cell
+     */
+    public void redraw(int cell) {
+        GameCellContainer container = getContainer(cell / grid.getCols(), cell % grid.getCols());
+        if (container != null) {
+            GameCell view = container.getGameCell();
+            CellGraphics.drawGraphics(view, view.isHover());
+        }
+    }
+    
+    /**
+     * Changes the width (and height) of every cell and redraws the cells in
+     * view at the new size;
+     * 
+     * @param size the new width (and height) of every cell
+     */
+    public void setCellSize(double size) {
+        this.cellSize = size;
+        layer.setMinSize(grid.getCols() * size, grid.getRows() * size);
+        layer.setPrefSize(grid.getCols() * size, grid.getRows() * size);
+        layer.setMaxSize(grid.getCols() * size, grid.getRows() * size);
+        for (GameCellContainer container : pool) {
+            container.getGameCell().setWidth(size);
+            container.getGameCell().setHeight(size);
+            container.getGameCell().setDrawn(false);
+            container.relocate(container.getCol() * size, container.getRow() * size);
+        }
+        update();
+    }
+    
+    /**
+     * Works out which cells are in view, moves the GameCells that have left
+     * the view over to the cells that have come into it, and draws the cells
+     * in view that haven't been drawn since they last changed; This is called
+     * whenever the map is scrolled or the window is resized;
+     */
+    public void update() {
+        Bounds viewport = scrollPane.getViewportBounds();
+        double left = offset(scrollPane.getHvalue(), scrollPane.getHmin(), scrollPane.getHmax(),
+                grid.getCols() * cellSize - viewport.getWidth());
+        double top = offset(scrollPane.getVvalue(), scrollPane.getVmin(), scrollPane.getVmax(),
+                grid.getRows() * cellSize - viewport.getHeight());
+        firstRow = Math.max(0, (int) (top / cellSize) - 1);
+        lastRow = Math.min(grid.getRows() - 1, (int) ((top + viewport.getHeight()) / cellSize) + 1);
+        firstCol = Math.max(0, (int) (left / cellSize) - 1);
+        lastCol = Math.min(grid.getCols() - 1, (int) ((left + viewport.getWidth()) / cellSize) + 1);
+        if (lastRow - firstRow + 1 > poolRows || lastCol - firstCol + 1 > poolCols) {
+            growPool(lastRow - firstRow + 1, lastCol - firstCol + 1);
+        }
+        
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstCol; j <= lastCol; j++) {
+                GameCellContainer container = pool[slot(i, j)];
+                GameCell view = container.getGameCell();
+                // move the slot's GameCell over if it was showing another cell
+                if (container.getRow() != i || container.getCol() != j) {
+                    container.moveTo(i, j);
+                    container.relocate(j * cellSize, i * cellSize);
+                    container.setVisible(true);
+                    view.setState(new CellState(grid, i, j));
+                    view.setDrawn(false);
+                }
+                if (!view.isDrawn()) {
+                    CellGraphics.drawGraphics(view, view.isHover());
+                }
+            }
+        }
+    }
+    
+    
+    /**
+     * Makes the pool big enough for the passed in number of rows and columns
+     * of cells to be in view, reusing the GameCells that it already has; The
+     * slots of every cell change, so all of the GameCells are moved again;
+     * 
+     * @param rows the number of rows of cells in view
+     * @param cols the number of columns of cells in view
+     */
+    private void growPool(int rows, int cols) {
+        GameCellContainer[] old = pool;
+        poolRows = Math.max(rows, poolRows);
+        poolCols = Math.max(cols, poolCols);
+        pool = new GameCellContainer[poolRows * poolCols];
+        for (int i = 0; i < pool.length; i++) {
+            if (i < old.length) {
+                pool[i] = old[i];
+            } else {
+                GameCell view = new GameCell(new CellState(grid, 0, 0));
+                view.setWidth(cellSize);
+                view.setHeight(cellSize);
+                setUp.accept(view);
+                pool[i] = new GameCellContainer(-1, -1, view);
+                layer.getChildren().add(pool[i]);
+            }
+            pool[i].moveTo(-1, -1);
+            pool[i].setVisible(false);
+        }
+    }
+    
+    /**
+     * Returns how far the map is scrolled past its first row (or column) given
+     * the passed in scroll bar value;
+     * 
+     * @param value the value of the scroll bar
+     * @param min the smallest value of the scroll bar
+     * @param max the largest value of the scroll bar
+     * @param hidden how much of the map is out of view along the scroll bar
+     * 
+     * @return how far the map is scrolled past its first row (or column)
+     */
+    private static double offset(double value, double min, double max, double hidden) {
+        return max > min ? (value - min) / (max - min) * Math.max(0, hidden) : 0;
+    }
+    
+    /**
+     * Returns the index of the slot in the pool of the GameCell that shows
+     * the cell at the passed in row and column;
+     * 
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * 
+     * @return the index of the slot that shows the cell
+     */
+    private int slot(int row, int col) {
+        return row % poolRows * poolCols + col % poolCols;
+    }
+    
+}